@@ -0,0 +1,28 @@
+package elevator;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH benchmarks with the usual JMH arguments. Unless another result format is asked, results are also written
+ * as JSON to {@code jmh-result.json}, so that they can be compared from one build to another.
+ */
+public class Benchmarks {
+
+    public static final String RESULT_FILE = "jmh-result.json";
+
+    public static void main(String... args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON).result(RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+
+}
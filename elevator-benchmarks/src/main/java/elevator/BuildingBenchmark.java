@@ -0,0 +1,64 @@
+package elevator;
+
+import elevator.engine.scan.ScanElevator;
+import elevator.traffic.RandomTrafficGenerator;
+import elevator.traffic.SplitMix64;
+import elevator.traffic.TrafficGenerator;
+import elevator.traffic.Trip;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticks a building full of users: at each tick, as many users come in as have exited.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildingBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int users;
+
+    private Building building;
+
+    @Setup
+    public void fillBuilding() {
+        final BuildingDimension buildingDimension = new BuildingDimension(0, 19);
+        building = new Building(new ScanElevator(buildingDimension), new ConstantMaxNumberOfUsers(users),
+                buildingDimension, new TrafficGenerator() {
+            private final TrafficGenerator trips = new RandomTrafficGenerator(buildingDimension, new SplitMix64(0));
+
+            @Override
+            public int arrivals() {
+                int usersInBuilding = building.travelingUsers();
+                for (int waitingUsers : building.waitingUsersByFloors()) {
+                    usersInBuilding += waitingUsers;
+                }
+                return users - usersInBuilding;
+            }
+
+            @Override
+            public Trip nextTrip() {
+                return trips.nextTrip();
+            }
+        });
+        building.addUser();
+    }
+
+    @Benchmark
+    public Set<User> updateBuildingState() {
+        building.addUser();
+        return building.updateBuildingState();
+    }
+
+    @Benchmark
+    public int[] waitingUsersByFloors() {
+        return building.waitingUsersByFloors();
+    }
+
+}
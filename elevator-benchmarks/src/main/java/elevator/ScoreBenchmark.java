@@ -0,0 +1,23 @@
+package elevator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreBenchmark {
+
+    private final User user = new User(1, 4, 6, 5);
+    private final Score score = new Score();
+
+    @Benchmark
+    public Score success() {
+        return score.success(user);
+    }
+
+}
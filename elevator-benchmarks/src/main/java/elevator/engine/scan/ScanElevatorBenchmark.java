@@ -0,0 +1,51 @@
+package elevator.engine.scan;
+
+import elevator.BuildingDimension;
+import elevator.Direction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asks the next command with pending commands above the elevator. The elevator is reset before each command so that
+ * it always starts from the lower floor and never reaches a pending command.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanElevatorBenchmark {
+
+    static final BuildingDimension BUILDING_DIMENSION = new BuildingDimension(0, 100);
+
+    @Param({"0", "1", "10", "100"})
+    public int pendingCommands;
+
+    private ScanElevator scanElevator;
+    private Commands commands;
+
+    @Setup
+    public void addPendingCommands() {
+        scanElevator = new ScanElevator(BUILDING_DIMENSION);
+        commands = new Commands(BUILDING_DIMENSION);
+        for (int command = 0; command < pendingCommands; command++) {
+            int floor = 1 + command / 2;
+            Direction direction = command % 2 == 0 ? Direction.UP : Direction.DOWN;
+            scanElevator.call(floor, direction);
+            commands.add(new Command(floor, direction));
+        }
+    }
+
+    @Benchmark
+    public elevator.Command nextCommand() {
+        return scanElevator.reset("benchmark").nextCommand();
+    }
+
+    @Benchmark
+    public Command commandsGet() {
+        return commands.get(BUILDING_DIMENSION.getLowerFloor());
+    }
+
+}
@@ -0,0 +1,59 @@
+package elevator.server;
+
+import elevator.BuildingDimension;
+import elevator.Clock;
+import elevator.traffic.RandomTrafficGenerator;
+import elevator.traffic.SplitMix64;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes the player info of a game to JSON, as the web resource does for each player of the leaderboard. The game
+ * plays against a participant that does not answer: only its building state matters here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PlayerInfoBenchmark {
+
+    private final ObjectWriter objectWriter = new ObjectMapper().writer();
+
+    private Clock clock;
+    private ElevatorGame elevatorGame;
+
+    @Setup
+    public void startGame() throws IOException {
+        BuildingDimension buildingDimension = new BuildingDimension(0, 19);
+        clock = new Clock();
+        elevatorGame = ElevatorGame.builder(new Player("player@provider.com", "player"),
+                new URL("http://127.0.0.1:1"), new MaxNumberOfUsers(), clock)
+                .buildingDimension(buildingDimension)
+                .trafficGenerator(new RandomTrafficGenerator(buildingDimension, new SplitMix64(0)))
+                .build();
+    }
+
+    @TearDown
+    public void stopGame() {
+        elevatorGame.stop();
+        clock.shutdown();
+    }
+
+    @Benchmark
+    public PlayerInfo playerInfo() {
+        return elevatorGame.getPlayerInfo();
+    }
+
+    @Benchmark
+    public byte[] playerInfoToJson() throws IOException {
+        return objectWriter.writeValueAsBytes(elevatorGame.getPlayerInfo());
+    }
+
+}
@@ -1,8 +1,10 @@
 package elevator.participant;
 
+import elevator.BuildingDimension;
 import elevator.Command;
 import elevator.Direction;
 import elevator.engine.ElevatorEngine;
+import elevator.engine.ElevatorEngines;
 import elevator.logging.ElevatorLogger;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Server;
@@ -11,45 +13,100 @@ import org.eclipse.jetty.server.handler.AbstractHandler;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.ServiceLoader;
 import java.util.logging.Logger;
 
 import static java.lang.String.format;
+import static java.net.URLDecoder.decode;
 
 public class ParticipantServer extends AbstractHandler {
 
+    private static final int BATCH_PROTOCOL_VERSION = 2;
+
     private final Logger logger;
-    private final ElevatorEngine elevator;
+    private final Object lock;
+
+    private ElevatorEngine elevator;
+    private BuildingDimension buildingDimension;
 
     public ParticipantServer(ElevatorEngine elevator) {
         this.logger = new ElevatorLogger(elevator.getClass().getSimpleName()).logger();
+        this.lock = new Object();
         this.elevator = elevator;
+        this.buildingDimension = BuildingDimension.DEFAULT;
     }
 
     @Override
     public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response)
             throws IOException, ServletException {
         switch (target) {
-            case "/nextCommand":
-                synchronized (elevator) {
-                    Command nextCommand = elevator.nextCommand();
-                    baseRequest.getResponse().getWriter().println(nextCommand);
-                    logger.info(format("%s %s", target, nextCommand));
+            case "/protocol":
+                baseRequest.getResponse().getWriter().println(BATCH_PROTOCOL_VERSION);
+                logger.info(format("%s versions %s", target, baseRequest.getParameter("versions")));
+                break;
+            case "/batch":
+                try (BufferedReader events = request.getReader()) {
+                    for (String event = events.readLine(); event != null; event = events.readLine()) {
+                        if (!event.isEmpty()) {
+                            event(event);
+                        }
+                    }
                 }
+                nextCommand(target, baseRequest);
                 break;
+            case "/nextCommand":
+                nextCommand(target, baseRequest);
+                break;
+            default:
+                event(target, singleValues(request.getParameterMap()));
+        }
+        baseRequest.setHandled(true);
+    }
+
+    private void nextCommand(String target, Request baseRequest) throws IOException {
+        synchronized (lock) {
+            Command nextCommand = elevator.nextCommand();
+            baseRequest.getResponse().getWriter().println(nextCommand);
+            logger.info(format("%s %s", target, nextCommand));
+        }
+    }
+
+    private void event(String pathAndParameters) throws UnsupportedEncodingException {
+        int queryStart = pathAndParameters.indexOf('?');
+        if (queryStart < 0) {
+            event("/" + pathAndParameters, Collections.<String, String>emptyMap());
+            return;
+        }
+        Map<String, String> parameters = new HashMap<>();
+        for (String parameter : pathAndParameters.substring(queryStart + 1).split("&")) {
+            int valueStart = parameter.indexOf('=');
+            if (valueStart > 0) {
+                parameters.put(parameter.substring(0, valueStart), decode(parameter.substring(valueStart + 1), "UTF-8"));
+            }
+        }
+        event("/" + pathAndParameters.substring(0, queryStart), parameters);
+    }
+
+    private void event(String target, Map<String, String> parameters) {
+        switch (target) {
             case "/call":
-                Integer atFloor = Integer.valueOf(baseRequest.getParameter("atFloor"));
-                Direction to = Direction.valueOf(baseRequest.getParameter("to"));
-                synchronized (elevator) {
+                Integer atFloor = Integer.valueOf(parameters.get("atFloor"));
+                Direction to = Direction.valueOf(parameters.get("to"));
+                synchronized (lock) {
                     elevator.call(atFloor, to);
                 }
                 logger.info(format("%s atFloor %d to %s", target, atFloor, to));
                 break;
             case "/go":
-                Integer floorToGo = Integer.valueOf(baseRequest.getParameter("floorToGo"));
-                synchronized (elevator) {
+                Integer floorToGo = Integer.valueOf(parameters.get("floorToGo"));
+                synchronized (lock) {
                     elevator.go(floorToGo);
                 }
                 logger.info(format("%s floorToGo %d", target, floorToGo));
@@ -59,16 +116,55 @@ public class ParticipantServer extends AbstractHandler {
                 logger.info(target);
                 break;
             case "/reset":
-                String cause = baseRequest.getParameter("cause");
-                synchronized (elevator) {
+                String cause = parameters.get("cause");
+                BuildingDimension buildingDimension = buildingDimension(parameters);
+                synchronized (lock) {
+                    if (!buildingDimension.equals(this.buildingDimension)) {
+                        resize(buildingDimension);
+                    }
                     elevator.reset(cause);
                 }
-                logger.info(format("%s cause %s", target, cause));
+                logger.info(format("%s cause %s lowerFloor %d higherFloor %d", target, cause,
+                        buildingDimension.getLowerFloor(), buildingDimension.getHigherFloor()));
                 break;
             default:
                 logger.warning(target);
         }
-        baseRequest.setHandled(true);
+    }
+
+    /**
+     * @return floors sent with the reset, the default building if the server did not send them
+     */
+    private static BuildingDimension buildingDimension(Map<String, String> parameters) {
+        String lowerFloor = parameters.get("lowerFloor");
+        String higherFloor = parameters.get("higherFloor");
+        if (lowerFloor == null || higherFloor == null) {
+            return BuildingDimension.DEFAULT;
+        }
+        return new BuildingDimension(Integer.parseInt(lowerFloor), Integer.parseInt(higherFloor));
+    }
+
+    /**
+     * Replaces the engine by a new one built for this building; an engine without a {@link BuildingDimension}
+     * constructor is kept as it is.
+     */
+    private void resize(BuildingDimension buildingDimension) {
+        try {
+            elevator = ElevatorEngines.newElevatorEngine(elevator.getClass(), buildingDimension);
+        } catch (IllegalArgumentException e) {
+            logger.warning(e.getMessage());
+        }
+        this.buildingDimension = buildingDimension;
+    }
+
+    private static Map<String, String> singleValues(Map<String, String[]> parameterMap) {
+        Map<String, String> parameters = new HashMap<>();
+        for (Map.Entry<String, String[]> parameter : parameterMap.entrySet()) {
+            if (parameter.getValue().length > 0) {
+                parameters.put(parameter.getKey(), parameter.getValue()[0]);
+            }
+        }
+        return parameters;
     }
 
     public static void main(String... args) throws Exception {
@@ -1,116 +1,152 @@
 package elevator;
 
 import elevator.engine.ElevatorEngine;
+import elevator.engine.MultiCarElevatorEngine;
+import elevator.engine.SingleCarElevatorEngine;
 import elevator.exception.ElevatorIsBrokenException;
+import elevator.traffic.RandomTrafficGenerator;
+import elevator.traffic.TrafficGenerator;
 
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
 import static elevator.Door.CLOSE;
 import static elevator.Door.OPEN;
-import static elevator.engine.ElevatorEngine.HIGHER_FLOOR;
-import static elevator.engine.ElevatorEngine.LOWER_FLOOR;
 import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableSet;
 
 public class Building {
 
-    private final Set<User> users;
-    private final ElevatorEngine elevatorEngine;
+    private final Users users;
+    private final MultiCarElevatorEngine elevatorEngine;
     private final MaxNumberOfUsers maxNumberOfUsers;
+    private final BuildingDimension buildingDimension;
+    private final Command[] commands;
 
-    private Door door;
-    private Integer floor;
+    private final Door[] doors;
+    private final int[] floors;
 
     public Building(ElevatorEngine elevatorEngine, MaxNumberOfUsers maxNumberOfUsers) {
-        this.users = Collections.synchronizedSet(new HashSet<User>());
+        this(elevatorEngine, maxNumberOfUsers, BuildingDimension.DEFAULT);
+    }
+
+    public Building(ElevatorEngine elevatorEngine, MaxNumberOfUsers maxNumberOfUsers, BuildingDimension buildingDimension) {
+        this(new SingleCarElevatorEngine(elevatorEngine), maxNumberOfUsers, buildingDimension, 1);
+    }
+
+    public Building(ElevatorEngine elevatorEngine, MaxNumberOfUsers maxNumberOfUsers, BuildingDimension buildingDimension,
+                    TrafficGenerator trafficGenerator) {
+        this(new SingleCarElevatorEngine(elevatorEngine), maxNumberOfUsers, buildingDimension, 1, trafficGenerator);
+    }
+
+    public Building(MultiCarElevatorEngine elevatorEngine, MaxNumberOfUsers maxNumberOfUsers,
+                    BuildingDimension buildingDimension, int numberOfCars) {
+        this(elevatorEngine, maxNumberOfUsers, buildingDimension, numberOfCars,
+                new RandomTrafficGenerator(buildingDimension));
+    }
+
+    /**
+     * @param trafficGenerator decides the trips of new users, it should not be shared with another building
+     */
+    public Building(MultiCarElevatorEngine elevatorEngine, MaxNumberOfUsers maxNumberOfUsers,
+                    BuildingDimension buildingDimension, int numberOfCars, TrafficGenerator trafficGenerator) {
+        if (numberOfCars < 1) {
+            throw new IllegalArgumentException("a building has at least one car");
+        }
+        this.users = new Users(buildingDimension, trafficGenerator);
         this.elevatorEngine = elevatorEngine;
         this.maxNumberOfUsers = maxNumberOfUsers;
+        this.buildingDimension = buildingDimension;
+        this.commands = new Command[numberOfCars];
+        this.doors = new Door[numberOfCars];
+        this.floors = new int[numberOfCars];
         reset();
     }
 
+    /**
+     * Lets in the users arriving at this tick, up to the max number of users. Called once per tick.
+     */
     public synchronized Building addUser() throws ElevatorIsBrokenException {
-        if (users.size() >= maxNumberOfUsers.value()) {
-            return this;
-        }
-
-        User newUser = new User(elevatorEngine);
-        users.add(newUser);
+        users.arrive(elevatorEngine, maxNumberOfUsers.value());
         return this;
     }
 
     public synchronized Set<User> users() {
-        return unmodifiableSet(users);
+        return unmodifiableSet(users.users());
     }
 
-    public Integer floor() {
-        return floor;
+    public BuildingDimension dimension() {
+        return buildingDimension;
     }
 
-    public synchronized int travelingUsers() {
-        int count = 0;
-
-        for (User user : users) {
-            if (user.traveling()) {
-                count++;
-            }
-        }
+    public int numberOfCars() {
+        return floors.length;
+    }
 
-        return count;
+    public Integer floor() {
+        return floor(0);
     }
 
-    public synchronized int[] waitingUsersByFloors() {
-        int[] count = new int[ElevatorEngine.HIGHER_FLOOR - ElevatorEngine.LOWER_FLOOR + 1];
+    public Integer floor(int car) {
+        return floors[car];
+    }
 
-        for (int i = ElevatorEngine.LOWER_FLOOR; i <= ElevatorEngine.HIGHER_FLOOR; i++) {
-            count[i] = 0;
-            for (User user : users) {
-                if (user.waiting() && user.at(i)) {
-                    count[i]++;
-                }
-            }
-        }
+    public synchronized int travelingUsers() {
+        return users.travelingUsers();
+    }
 
-        return count;
+    /**
+     * @return waiting users by floor, starting from the lower floor of the building
+     */
+    public synchronized int[] waitingUsersByFloors() {
+        return users.waitingUsersByFloors();
     }
 
     public Door door() {
-        return door;
+        return door(0);
+    }
+
+    public Door door(int car) {
+        return doors[car];
     }
 
+    /**
+     * Asks the next command of every car, then applies them if they are all valid.
+     */
     public Set<User> updateBuildingState() throws ElevatorIsBrokenException {
-        Command command = elevatorEngine.nextCommand();
-        validateCommand(command);
-        return applyCommand(command);
+        for (int car = 0; car < commands.length; car++) {
+            commands[car] = elevatorEngine.nextCommand(car);
+            validateCommand(car, commands[car]);
+        }
+        return applyCommands();
     }
 
-    private void validateCommand(Command command) throws ElevatorIsBrokenException {
+    private void validateCommand(int car, Command command) throws ElevatorIsBrokenException {
         switch (command) {
             case CLOSE:
-                if (door != OPEN) {
-                    throw new ElevatorIsBrokenException("can't close doors because they aren't opened");
+                if (doors[car] != OPEN) {
+                    throw brokenCar(car, "can't close doors because they aren't opened");
                 }
                 break;
             case OPEN:
-                if (door != CLOSE) {
-                    throw new ElevatorIsBrokenException("can't open doors because they aren't closed");
+                if (doors[car] != CLOSE) {
+                    throw brokenCar(car, "can't open doors because they aren't closed");
                 }
                 break;
             case DOWN:
-                if (door == OPEN) {
-                    throw new ElevatorIsBrokenException("can't go down because doors are opened");
+                if (doors[car] == OPEN) {
+                    throw brokenCar(car, "can't go down because doors are opened");
                 }
-                if (floor.equals(LOWER_FLOOR)) {
-                    throw new ElevatorIsBrokenException("can't go down because current floor is the lowest floor");
+                if (floors[car] == buildingDimension.getLowerFloor()) {
+                    throw brokenCar(car, "can't go down because current floor is the lowest floor");
                 }
                 break;
             case UP:
-                if (door == OPEN) {
-                    throw new ElevatorIsBrokenException("can't go up because doors are opened");
+                if (doors[car] == OPEN) {
+                    throw brokenCar(car, "can't go up because doors are opened");
                 }
-                if (floor.equals(HIGHER_FLOOR)) {
-                    throw new ElevatorIsBrokenException("can't go up because current floor is the highest floor");
+                if (floors[car] == buildingDimension.getHigherFloor()) {
+                    throw brokenCar(car, "can't go up because current floor is the highest floor");
                 }
                 break;
             case NOTHING:
@@ -118,56 +154,56 @@ public class Building {
         }
     }
 
+    private ElevatorIsBrokenException brokenCar(int car, String message) {
+        if (floors.length == 1) {
+            return new ElevatorIsBrokenException(message);
+        }
+        return new ElevatorIsBrokenException("car " + car + ": " + message);
+    }
+
     public synchronized void reset() {
-        floor = LOWER_FLOOR;
-        door = CLOSE;
+        for (int car = 0; car < floors.length; car++) {
+            floors[car] = buildingDimension.getLowerFloor();
+            doors[car] = CLOSE;
+        }
         users.clear();
     }
 
-    private synchronized Set<User> applyCommand(Command command) throws ElevatorIsBrokenException {
+    private synchronized Set<User> applyCommands() throws ElevatorIsBrokenException {
         Set<User> doneUsers = emptySet();
-        notifyUsers();
-        switch (command) {
-            case CLOSE:
-                door = CLOSE;
-                break;
-            case OPEN:
-                door = OPEN;
-                doneUsers = new HashSet<>();
-                for (User user : users) {
-                    user.elevatorIsOpen(floor);
-                    if (user.done()) {
-                        doneUsers.add(user);
-                    }
-                }
-                users.removeAll(doneUsers);
-                break;
-            case UP:
-                floor++;
-                notifyUsers(floor);
-                break;
-            case DOWN:
-                floor--;
-                notifyUsers(floor);
-                break;
-            case NOTHING:
-                break;
+        users.tick();
+        for (int car = 0; car < commands.length; car++) {
+            switch (commands[car]) {
+                case CLOSE:
+                    doors[car] = CLOSE;
+                    break;
+                case OPEN:
+                    doors[car] = OPEN;
+                    doneUsers = union(doneUsers, users.carIsOpen(car, floors[car], elevatorEngine));
+                    break;
+                case UP:
+                    floors[car]++;
+                    break;
+                case DOWN:
+                    floors[car]--;
+                    break;
+                case NOTHING:
+                    break;
+            }
         }
         return doneUsers;
     }
 
-    private synchronized void notifyUsers() {
-        for (User user : users) {
-            user.tick();
+    private static Set<User> union(Set<User> doneUsers, Set<User> otherDoneUsers) {
+        if (doneUsers.isEmpty()) {
+            return otherDoneUsers;
         }
-    }
-
-    private synchronized void notifyUsers(Integer floor) {
-        for (User user : users) {
-            if (user.traveling()) {
-                user.setCurrentFloor(floor);
-            }
+        if (otherDoneUsers.isEmpty()) {
+            return doneUsers;
         }
+        Set<User> union = new HashSet<>(doneUsers);
+        union.addAll(otherDoneUsers);
+        return union;
     }
 
 }
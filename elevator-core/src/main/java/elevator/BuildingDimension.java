@@ -0,0 +1,64 @@
+package elevator;
+
+import static elevator.engine.ElevatorEngine.HIGHER_FLOOR;
+import static elevator.engine.ElevatorEngine.LOWER_FLOOR;
+
+/**
+ * Lowest and highest floors served by the elevators of a building.
+ */
+public class BuildingDimension {
+
+    public static final String ELEVATOR_LOWER_FLOOR_PROPERTY = "elevator.lowerFloor";
+    public static final String ELEVATOR_HIGHER_FLOOR_PROPERTY = "elevator.higherFloor";
+
+    public static final BuildingDimension DEFAULT = new BuildingDimension(LOWER_FLOOR, HIGHER_FLOOR);
+
+    private final int lowerFloor;
+    private final int higherFloor;
+
+    public BuildingDimension(int lowerFloor, int higherFloor) {
+        if (lowerFloor >= higherFloor) {
+            throw new IllegalArgumentException("lower floor " + lowerFloor + " should be less than higher floor " + higherFloor);
+        }
+        this.lowerFloor = lowerFloor;
+        this.higherFloor = higherFloor;
+    }
+
+    public static BuildingDimension fromSystemProperties() {
+        return new BuildingDimension(Integer.getInteger(ELEVATOR_LOWER_FLOOR_PROPERTY, LOWER_FLOOR),
+                Integer.getInteger(ELEVATOR_HIGHER_FLOOR_PROPERTY, HIGHER_FLOOR));
+    }
+
+    public int getLowerFloor() {
+        return lowerFloor;
+    }
+
+    public int getHigherFloor() {
+        return higherFloor;
+    }
+
+    public int numberOfFloors() {
+        return higherFloor - lowerFloor + 1;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BuildingDimension buildingDimension = (BuildingDimension) o;
+
+        return lowerFloor == buildingDimension.lowerFloor && higherFloor == buildingDimension.higherFloor;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * lowerFloor + higherFloor;
+    }
+
+    @Override
+    public String toString() {
+        return lowerFloor + ".." + higherFloor;
+    }
+
+}
@@ -1,35 +1,83 @@
 package elevator;
 
-import java.util.HashSet;
-import java.util.Set;
+import elevator.clock.ExecutionMode;
+import elevator.clock.TickReport;
+import elevator.clock.TickScheduler;
+import elevator.clock.TimingWheelTickScheduler;
+
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 public class Clock {
 
-    public final ExecutorService EXECUTOR_SERVICE = Executors.newCachedThreadPool();
+    public final ExecutorService EXECUTOR_SERVICE;
+
+    private final ExecutorService tickExecutorService;
+    private final TickScheduler tickScheduler;
+
+    public Clock() {
+        this(ExecutionMode.PLATFORM);
+    }
+
+    public Clock(ExecutionMode executionMode) {
+        this(executionMode.newTaskExecutorService(), executionMode.newTickExecutorService());
+    }
 
-    private final Set<ClockListener> clockListeners = new HashSet<>();
+    public Clock(TickScheduler tickScheduler) {
+        this(Executors.newCachedThreadPool(), null, tickScheduler);
+    }
+
+    private Clock(ExecutorService executorService, ExecutorService tickExecutorService) {
+        this(executorService, tickExecutorService, new TimingWheelTickScheduler(tickExecutorService));
+    }
+
+    private Clock(ExecutorService executorService, ExecutorService tickExecutorService, TickScheduler tickScheduler) {
+        this.EXECUTOR_SERVICE = executorService;
+        this.tickExecutorService = tickExecutorService;
+        this.tickScheduler = tickScheduler;
+    }
 
     public Clock addClockListener(ClockListener clockListener) {
-        clockListeners.add(clockListener);
+        tickScheduler.schedule(clockListener);
         return this;
     }
 
     public Clock removeClockListener(ClockListener clockListener) {
-        clockListeners.remove(clockListener);
+        tickScheduler.cancel(clockListener);
         return this;
     }
 
     public void tick() {
-        for (final ClockListener clockListener : clockListeners) {
-            EXECUTOR_SERVICE.execute(new Runnable() {
-                @Override
-                public void run() {
-                    clockListener.onTick();
-                }
-            });
+        tickScheduler.tick();
+    }
+
+    /**
+     * Stops the threads of this clock: listeners are not ticked anymore, and tasks already submitted complete.
+     */
+    public void shutdown() {
+        tickScheduler.shutdown();
+        if (tickExecutorService != null) {
+            tickExecutorService.shutdown();
         }
+        EXECUTOR_SERVICE.shutdown();
+    }
+
+    public TickReport lastTickReport() {
+        return tickScheduler.lastTickReport();
+    }
+
+    /**
+     * @return number of ticks started so far
+     */
+    public long currentTick() {
+        return tickScheduler.currentTick();
+    }
+
+    /**
+     * @return executor service running listeners on ticks, null if the tick scheduler was given
+     */
+    public ExecutorService tickExecutorService() {
+        return tickExecutorService;
     }
 
 }
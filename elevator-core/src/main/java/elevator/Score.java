@@ -1,26 +1,31 @@
-package elevator.server;
-
-import elevator.User;
-import elevator.engine.ElevatorEngine;
+package elevator;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
-class Score {
+public class Score {
+
+    private Integer score;
+
+    public Score() {
+        this(0);
+    }
 
-    Integer score;
+    public Score(Integer score) {
+        this.score = score;
+    }
 
-    Score() {
-        score = 0;
+    public Integer value() {
+        return score;
     }
 
-    Score loose() {
+    public Score loose() {
         score -= 10;
         return this;
     }
 
-    Score success(User user) throws IllegalStateException {
+    public Score success(User user) throws IllegalStateException {
         score += score(user);
         return this;
     }
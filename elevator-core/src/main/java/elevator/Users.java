@@ -0,0 +1,189 @@
+package elevator;
+
+import elevator.engine.MultiCarElevatorEngine;
+import elevator.exception.ElevatorIsBrokenException;
+import elevator.traffic.RandomTrafficGenerator;
+import elevator.traffic.TrafficGenerator;
+import elevator.traffic.Trip;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Collections.emptySet;
+
+/**
+ * Users of a building, stored as parallel arrays of primitives so that a tick allocates nothing. A user waits at its
+ * initial floor until it enters a car, then travels with this car until it exits at its floor to go, where it is
+ * removed. Waiting and traveling users are counted as they come and go. Not thread safe.
+ */
+class Users {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int WAITING = 0;
+    private static final int TRAVELLING = 1;
+
+    private final int lowerFloor;
+    private final int[] waitingUsersByFloors;
+    private final TrafficGenerator trafficGenerator;
+
+    private int[] state;
+    private int[] inCar;
+    private int[] initialFloor;
+    private int[] floorToGo;
+    private int[] tickToWait;
+    private int[] tickToGo;
+    private int size;
+    private int travelingUsers;
+
+    Users() {
+        this(BuildingDimension.DEFAULT);
+    }
+
+    Users(BuildingDimension buildingDimension) {
+        this(buildingDimension, new RandomTrafficGenerator(buildingDimension));
+    }
+
+    Users(BuildingDimension buildingDimension, TrafficGenerator trafficGenerator) {
+        this.trafficGenerator = trafficGenerator;
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        this.waitingUsersByFloors = new int[buildingDimension.numberOfFloors()];
+        this.state = new int[INITIAL_CAPACITY];
+        this.inCar = new int[INITIAL_CAPACITY];
+        this.initialFloor = new int[INITIAL_CAPACITY];
+        this.floorToGo = new int[INITIAL_CAPACITY];
+        this.tickToWait = new int[INITIAL_CAPACITY];
+        this.tickToGo = new int[INITIAL_CAPACITY];
+        this.size = 0;
+        this.travelingUsers = 0;
+    }
+
+    /**
+     * Adds the users arriving at this tick, as long as there are less than {@code maxNumberOfUsers}, and tells the
+     * elevator engine that they call the elevator. Trips of users that can't come in are drawn anyway, so that the
+     * users of a seeded building don't depend on how fast its elevator carries them.
+     */
+    Users arrive(MultiCarElevatorEngine elevatorEngine, int maxNumberOfUsers) throws ElevatorIsBrokenException {
+        for (int arrivals = trafficGenerator.arrivals(); arrivals > 0; arrivals--) {
+            Trip trip = trafficGenerator.nextTrip();
+            if (size < maxNumberOfUsers) {
+                elevatorEngine.call(trip.initialFloor, trip.direction());
+                add(trip.initialFloor, trip.floorToGo);
+            }
+        }
+        return this;
+    }
+
+    Users add(int initialFloor, int floorToGo) {
+        if (size == state.length) {
+            int capacity = size * 2;
+            state = Arrays.copyOf(state, capacity);
+            inCar = Arrays.copyOf(inCar, capacity);
+            this.initialFloor = Arrays.copyOf(this.initialFloor, capacity);
+            this.floorToGo = Arrays.copyOf(this.floorToGo, capacity);
+            tickToWait = Arrays.copyOf(tickToWait, capacity);
+            tickToGo = Arrays.copyOf(tickToGo, capacity);
+        }
+        state[size] = WAITING;
+        inCar[size] = -1;
+        this.initialFloor[size] = initialFloor;
+        this.floorToGo[size] = floorToGo;
+        tickToWait[size] = 0;
+        tickToGo[size] = 0;
+        size++;
+        waitingUsersByFloors[initialFloor - lowerFloor]++;
+        return this;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int travelingUsers() {
+        return travelingUsers;
+    }
+
+    int[] waitingUsersByFloors() {
+        return waitingUsersByFloors.clone();
+    }
+
+    void tick() {
+        for (int user = 0; user < size; user++) {
+            if (state[user] == TRAVELLING) {
+                tickToGo[user]++;
+            } else {
+                tickToWait[user]++;
+            }
+        }
+    }
+
+    /**
+     * Users waiting at {@code floor} enter the car, users traveling to {@code floor} in this car exit it.
+     *
+     * @return users that have exited the car
+     */
+    Set<User> carIsOpen(int car, int floor, MultiCarElevatorEngine elevatorEngine) throws ElevatorIsBrokenException {
+        Set<User> doneUsers = emptySet();
+        int keptUsers = 0;
+        int user = 0;
+        try {
+            for (; user < size; user++) {
+                if (state[user] == WAITING && initialFloor[user] == floor) {
+                    elevatorEngine.userHasEntered(car, user(user));
+                    elevatorEngine.go(car, floorToGo[user]);
+                    state[user] = TRAVELLING;
+                    inCar[user] = car;
+                    waitingUsersByFloors[floor - lowerFloor]--;
+                    travelingUsers++;
+                } else if (state[user] == TRAVELLING && inCar[user] == car && floorToGo[user] == floor) {
+                    User doneUser = user(user);
+                    elevatorEngine.userHasExited(car, doneUser);
+                    travelingUsers--;
+                    if (doneUsers.isEmpty()) {
+                        doneUsers = new HashSet<>();
+                    }
+                    doneUsers.add(doneUser);
+                    continue;
+                }
+                move(user, keptUsers++);
+            }
+        } finally {
+            while (user < size) {
+                move(user++, keptUsers++);
+            }
+            size = keptUsers;
+        }
+        return doneUsers;
+    }
+
+    Set<User> users() {
+        Set<User> users = new HashSet<>();
+        for (int user = 0; user < size; user++) {
+            users.add(user(user));
+        }
+        return users;
+    }
+
+    void clear() {
+        size = 0;
+        travelingUsers = 0;
+        Arrays.fill(waitingUsersByFloors, 0);
+    }
+
+    private User user(int user) {
+        return new User(initialFloor[user], floorToGo[user], tickToWait[user], tickToGo[user]);
+    }
+
+    private void move(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        state[to] = state[from];
+        inCar[to] = inCar[from];
+        initialFloor[to] = initialFloor[from];
+        floorToGo[to] = floorToGo[from];
+        tickToWait[to] = tickToWait[from];
+        tickToGo[to] = tickToGo[from];
+    }
+
+}
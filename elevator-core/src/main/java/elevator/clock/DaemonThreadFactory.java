@@ -0,0 +1,27 @@
+package elevator.clock;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Names threads after what they do, so that they can be told apart in a thread dump, and makes them daemons, so that
+ * a pool that is not shut down does not keep the JVM running.
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+    private final String name;
+    private final AtomicInteger threads;
+
+    public DaemonThreadFactory(String name) {
+        this.name = name;
+        this.threads = new AtomicInteger();
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, name + "-" + threads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+
+}
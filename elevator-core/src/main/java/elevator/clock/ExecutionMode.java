@@ -0,0 +1,67 @@
+package elevator.clock;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public enum ExecutionMode {
+
+    /**
+     * Game ticks run on a pool sized to the number of cores, participant calls on a cached thread pool.
+     */
+    PLATFORM {
+        @Override
+        public ExecutorService newTickExecutorService() {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        }
+
+        @Override
+        public ExecutorService newTaskExecutorService() {
+            return Executors.newCachedThreadPool();
+        }
+    },
+
+    /**
+     * Every game tick and every participant call runs on its own virtual thread. Needs a Java 21 runtime.
+     */
+    VIRTUAL {
+        @Override
+        public ExecutorService newTickExecutorService() {
+            return newVirtualThreadPerTaskExecutor();
+        }
+
+        @Override
+        public ExecutorService newTaskExecutorService() {
+            return newVirtualThreadPerTaskExecutor();
+        }
+    },;
+
+    public static final String ELEVATOR_EXECUTION_MODE_PROPERTY = "elevator.execution.mode";
+
+    public abstract ExecutorService newTickExecutorService();
+
+    public abstract ExecutorService newTaskExecutorService();
+
+    public static ExecutionMode fromSystemProperty() {
+        String executionMode = System.getProperty(ELEVATOR_EXECUTION_MODE_PROPERTY);
+        if (executionMode == null) {
+            return PLATFORM;
+        }
+        return valueOf(executionMode.trim().toUpperCase());
+    }
+
+    /**
+     * Looked up by reflection so that the code base still compiles and runs on runtimes without virtual threads.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("virtual threads need a Java 21 runtime, current one is "
+                    + System.getProperty("java.version"), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
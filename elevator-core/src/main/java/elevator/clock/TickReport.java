@@ -0,0 +1,22 @@
+package elevator.clock;
+
+public class TickReport {
+
+    public final long tick;
+    public final int listeners;
+    public final int skippedListeners;
+    public final long durationInMillis;
+
+    TickReport(long tick, int listeners, int skippedListeners, long durationInMillis) {
+        this.tick = tick;
+        this.listeners = listeners;
+        this.skippedListeners = skippedListeners;
+        this.durationInMillis = durationInMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "tick " + tick + ": " + listeners + " listeners, " + skippedListeners + " skipped, " + durationInMillis + "ms";
+    }
+
+}
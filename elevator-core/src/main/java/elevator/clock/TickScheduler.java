@@ -0,0 +1,28 @@
+package elevator.clock;
+
+import elevator.ClockListener;
+
+public interface TickScheduler {
+
+    TickScheduler schedule(ClockListener clockListener);
+
+    TickScheduler cancel(ClockListener clockListener);
+
+    void tick();
+
+    /**
+     * Stops the threads of this scheduler, ticks are not dispatched anymore.
+     */
+    void shutdown();
+
+    /**
+     * @return number of ticks started so far, some of them may not have completed yet
+     */
+    long currentTick();
+
+    /**
+     * @return report of the last tick whose listeners have all completed, {@code null} if no tick has completed yet
+     */
+    TickReport lastTickReport();
+
+}
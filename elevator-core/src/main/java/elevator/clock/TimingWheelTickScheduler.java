@@ -0,0 +1,240 @@
+package elevator.clock;
+
+import elevator.ClockListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Places each {@link ClockListener} in one slot of a wheel. A tick walks the wheel, dispatching slot after slot spread
+ * over the tick duration, so that listeners do not all hit the worker pool at the same instant.
+ * <p/>
+ * A listener whose previous tick is still in flight is skipped: there is never more than one pending task per
+ * listener, which keeps the worker pool queue bounded by the number of listeners.
+ */
+public class TimingWheelTickScheduler implements TickScheduler {
+
+    private static final int DEFAULT_WHEEL_SIZE = 10;
+    private static final long DEFAULT_TICK_DURATION_IN_MILLIS = 1000;
+
+    private final ExecutorService workers;
+    private final boolean ownsWorkers;
+    private final ScheduledExecutorService wheel;
+    private final List<List<ScheduledListener>> slots;
+    private final ConcurrentMap<ClockListener, ScheduledListener> scheduledListeners;
+    private final long slotDurationInNanos;
+    private final AtomicLong ticks;
+    private final AtomicReference<TickReport> lastTickReport;
+
+    /**
+     * Ticks listeners on a pool of its own, shut down with this scheduler.
+     */
+    public TimingWheelTickScheduler() {
+        this(ExecutionMode.PLATFORM.newTickExecutorService(), true, DEFAULT_WHEEL_SIZE, DEFAULT_TICK_DURATION_IN_MILLIS);
+    }
+
+    /**
+     * @param workers tick listeners, they are not shut down with this scheduler
+     */
+    public TimingWheelTickScheduler(ExecutorService workers) {
+        this(workers, DEFAULT_WHEEL_SIZE, DEFAULT_TICK_DURATION_IN_MILLIS);
+    }
+
+    public TimingWheelTickScheduler(ExecutorService workers, int wheelSize, long tickDurationInMillis) {
+        this(workers, false, wheelSize, tickDurationInMillis);
+    }
+
+    private TimingWheelTickScheduler(ExecutorService workers, boolean ownsWorkers, int wheelSize, long tickDurationInMillis) {
+        if (wheelSize < 1) {
+            throw new IllegalArgumentException("wheel should have at least one slot");
+        }
+        this.workers = workers;
+        this.ownsWorkers = ownsWorkers;
+        this.wheel = Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("elevator-clock-wheel"));
+        this.slots = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            slots.add(new CopyOnWriteArrayList<ScheduledListener>());
+        }
+        this.scheduledListeners = new ConcurrentHashMap<>();
+        this.slotDurationInNanos = MILLISECONDS.toNanos(tickDurationInMillis) / wheelSize;
+        this.ticks = new AtomicLong();
+        this.lastTickReport = new AtomicReference<>();
+    }
+
+    @Override
+    public synchronized TickScheduler schedule(ClockListener clockListener) {
+        if (scheduledListeners.containsKey(clockListener)) {
+            return this;
+        }
+        ScheduledListener scheduledListener = new ScheduledListener(clockListener, leastLoadedSlot());
+        scheduledListeners.put(clockListener, scheduledListener);
+        slots.get(scheduledListener.slot).add(scheduledListener);
+        return this;
+    }
+
+    @Override
+    public synchronized TickScheduler cancel(ClockListener clockListener) {
+        ScheduledListener scheduledListener = scheduledListeners.remove(clockListener);
+        if (scheduledListener != null) {
+            slots.get(scheduledListener.slot).remove(scheduledListener);
+        }
+        return this;
+    }
+
+    @Override
+    public void tick() {
+        final Tick tick = new Tick(ticks.incrementAndGet(), slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            final List<ScheduledListener> slot = slots.get(i);
+            if (wheel.isShutdown()) {
+                tick.skip(slot.size());
+                tick.complete();
+                continue;
+            }
+            if (i == 0 || slotDurationInNanos == 0) {
+                dispatch(tick, slot);
+                continue;
+            }
+            try {
+                wheel.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        dispatch(tick, slot);
+                    }
+                }, i * slotDurationInNanos, NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                tick.skip(slot.size());
+                tick.complete();
+            }
+        }
+    }
+
+    /**
+     * Slots of a tick that are not dispatched yet are skipped, listeners already ticking complete.
+     */
+    @Override
+    public void shutdown() {
+        wheel.shutdownNow();
+        if (ownsWorkers) {
+            workers.shutdown();
+        }
+    }
+
+    @Override
+    public long currentTick() {
+        return ticks.get();
+    }
+
+    @Override
+    public TickReport lastTickReport() {
+        return lastTickReport.get();
+    }
+
+    private int leastLoadedSlot() {
+        int leastLoadedSlot = 0;
+        for (int i = 1; i < slots.size(); i++) {
+            if (slots.get(i).size() < slots.get(leastLoadedSlot).size()) {
+                leastLoadedSlot = i;
+            }
+        }
+        return leastLoadedSlot;
+    }
+
+    private void dispatch(final Tick tick, List<ScheduledListener> slot) {
+        for (final ScheduledListener scheduledListener : slot) {
+            if (!scheduledListener.inFlight.compareAndSet(false, true)) {
+                tick.skip(1);
+                continue;
+            }
+            tick.dispatch();
+            try {
+                workers.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            scheduledListener.clockListener.onTick();
+                        } finally {
+                            scheduledListener.inFlight.set(false);
+                            tick.complete();
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                scheduledListener.inFlight.set(false);
+                tick.skip(1);
+                tick.complete();
+            }
+        }
+        tick.complete();
+    }
+
+    private static class ScheduledListener {
+
+        private final ClockListener clockListener;
+        private final int slot;
+        private final AtomicBoolean inFlight;
+
+        private ScheduledListener(ClockListener clockListener, int slot) {
+            this.clockListener = clockListener;
+            this.slot = slot;
+            this.inFlight = new AtomicBoolean(false);
+        }
+
+    }
+
+    private class Tick {
+
+        private final long tick;
+        private final long startInNanos;
+        private final AtomicInteger pending;
+        private final AtomicInteger listeners;
+        private final AtomicInteger skippedListeners;
+
+        /**
+         * Each slot holds the tick open until it has been dispatched, so that the tick cannot be reported as
+         * completed while some slots are still waiting for their turn on the wheel.
+         */
+        private Tick(long tick, int numberOfSlots) {
+            this.tick = tick;
+            this.startInNanos = System.nanoTime();
+            this.pending = new AtomicInteger(numberOfSlots);
+            this.listeners = new AtomicInteger();
+            this.skippedListeners = new AtomicInteger();
+        }
+
+        private void dispatch() {
+            listeners.incrementAndGet();
+            pending.incrementAndGet();
+        }
+
+        private void skip(int numberOfListeners) {
+            listeners.addAndGet(numberOfListeners);
+            skippedListeners.addAndGet(numberOfListeners);
+        }
+
+        private void complete() {
+            if (pending.decrementAndGet() != 0) {
+                return;
+            }
+            TickReport report = new TickReport(tick, listeners.get(), skippedListeners.get(),
+                    NANOSECONDS.toMillis(System.nanoTime() - startInNanos));
+            TickReport previousReport;
+            do {
+                previousReport = lastTickReport.get();
+                if (previousReport != null && previousReport.tick > tick) {
+                    return;
+                }
+            } while (!lastTickReport.compareAndSet(previousReport, report));
+        }
+
+    }
+
+}
@@ -7,6 +7,9 @@ import elevator.exception.ElevatorIsBrokenException;
 
 public interface ElevatorEngine {
 
+    /**
+     * Floors of the default building, see {@link elevator.BuildingDimension} for other ones.
+     */
     public final static Integer LOWER_FLOOR = 0;
     public final static Integer HIGHER_FLOOR = 5;
 
@@ -0,0 +1,32 @@
+package elevator.engine;
+
+import elevator.BuildingDimension;
+
+import java.lang.reflect.InvocationTargetException;
+
+public final class ElevatorEngines {
+
+    private ElevatorEngines() {
+    }
+
+    /**
+     * @return a new engine for this building, created with its {@link BuildingDimension} constructor
+     * @throws IllegalArgumentException if the engine has no such constructor and the building is not the default one
+     */
+    public static <E extends ElevatorEngine> E newElevatorEngine(Class<E> elevatorEngine, BuildingDimension buildingDimension) {
+        try {
+            try {
+                return elevatorEngine.getConstructor(BuildingDimension.class).newInstance(buildingDimension);
+            } catch (NoSuchMethodException e) {
+                if (!BuildingDimension.DEFAULT.equals(buildingDimension)) {
+                    throw new IllegalArgumentException(elevatorEngine.getName()
+                            + " can only play in the default building, it has no constructor taking a BuildingDimension");
+                }
+                return elevatorEngine.newInstance();
+            }
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("can't create an instance of " + elevatorEngine.getName(), e);
+        }
+    }
+
+}
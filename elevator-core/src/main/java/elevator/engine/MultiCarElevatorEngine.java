@@ -0,0 +1,26 @@
+package elevator.engine;
+
+import elevator.Command;
+import elevator.Direction;
+import elevator.User;
+import elevator.exception.ElevatorIsBrokenException;
+
+/**
+ * Elevator engine of a building with several cars, numbered from 0. Calls are made from a floor, without knowing
+ * which car will answer; everything else is about one car.
+ */
+public interface MultiCarElevatorEngine {
+
+    public MultiCarElevatorEngine call(Integer atFloor, Direction to) throws ElevatorIsBrokenException;
+
+    public MultiCarElevatorEngine go(Integer car, Integer floorToGo) throws ElevatorIsBrokenException;
+
+    public Command nextCommand(Integer car) throws ElevatorIsBrokenException;
+
+    public MultiCarElevatorEngine userHasEntered(Integer car, User user) throws ElevatorIsBrokenException;
+
+    public MultiCarElevatorEngine userHasExited(Integer car, User user) throws ElevatorIsBrokenException;
+
+    public MultiCarElevatorEngine reset(String cause) throws ElevatorIsBrokenException;
+
+}
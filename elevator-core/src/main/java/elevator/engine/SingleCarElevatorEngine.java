@@ -0,0 +1,54 @@
+package elevator.engine;
+
+import elevator.Command;
+import elevator.Direction;
+import elevator.User;
+import elevator.exception.ElevatorIsBrokenException;
+
+/**
+ * Drives the only car of a building with an {@link ElevatorEngine}.
+ */
+public class SingleCarElevatorEngine implements MultiCarElevatorEngine {
+
+    private final ElevatorEngine elevatorEngine;
+
+    public SingleCarElevatorEngine(ElevatorEngine elevatorEngine) {
+        this.elevatorEngine = elevatorEngine;
+    }
+
+    @Override
+    public MultiCarElevatorEngine call(Integer atFloor, Direction to) throws ElevatorIsBrokenException {
+        elevatorEngine.call(atFloor, to);
+        return this;
+    }
+
+    @Override
+    public MultiCarElevatorEngine go(Integer car, Integer floorToGo) throws ElevatorIsBrokenException {
+        elevatorEngine.go(floorToGo);
+        return this;
+    }
+
+    @Override
+    public Command nextCommand(Integer car) throws ElevatorIsBrokenException {
+        return elevatorEngine.nextCommand();
+    }
+
+    @Override
+    public MultiCarElevatorEngine userHasEntered(Integer car, User user) throws ElevatorIsBrokenException {
+        elevatorEngine.userHasEntered(user);
+        return this;
+    }
+
+    @Override
+    public MultiCarElevatorEngine userHasExited(Integer car, User user) throws ElevatorIsBrokenException {
+        elevatorEngine.userHasExited(user);
+        return this;
+    }
+
+    @Override
+    public MultiCarElevatorEngine reset(String cause) throws ElevatorIsBrokenException {
+        elevatorEngine.reset(cause);
+        return this;
+    }
+
+}
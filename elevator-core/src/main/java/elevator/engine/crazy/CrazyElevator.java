@@ -1,5 +1,6 @@
 package elevator.engine.crazy;
 
+import elevator.BuildingDimension;
 import elevator.Command;
 import elevator.Direction;
 import elevator.User;
@@ -19,8 +20,12 @@ public class CrazyElevator implements ElevatorEngine {
     private ElevatorEngine underlyingElevator;
 
     public CrazyElevator() {
+        this(BuildingDimension.DEFAULT);
+    }
+
+    public CrazyElevator(BuildingDimension buildingDimension) {
         logger = new ElevatorLogger("CrazyElevator").logger();
-        underlyingElevator = new NaiveElevator();
+        underlyingElevator = new NaiveElevator(buildingDimension);
     }
 
     @Override
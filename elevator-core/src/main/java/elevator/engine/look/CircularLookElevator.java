@@ -0,0 +1,104 @@
+package elevator.engine.look;
+
+import elevator.BuildingDimension;
+import elevator.Command;
+import elevator.Direction;
+import elevator.Door;
+import elevator.User;
+import elevator.engine.ElevatorEngine;
+
+import static elevator.Command.*;
+
+/**
+ * C-LOOK: serves requests only while going up. Once there is no request above, it goes straight down to the lowest
+ * request, without stopping, and starts a new sweep from there.
+ */
+public class CircularLookElevator implements ElevatorEngine {
+
+    private final int lowerFloor;
+    private final Requests requests;
+
+    private int floor;
+    private Door door;
+    private boolean goingBack;
+
+    public CircularLookElevator() {
+        this(BuildingDimension.DEFAULT);
+    }
+
+    public CircularLookElevator(BuildingDimension buildingDimension) {
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        this.requests = new Requests(buildingDimension);
+        this.floor = lowerFloor;
+        this.door = Door.CLOSE;
+        this.goingBack = false;
+    }
+
+    @Override
+    public ElevatorEngine call(Integer atFloor, Direction to) {
+        requests.call(atFloor, to);
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine go(Integer floorToGo) {
+        requests.go(floorToGo);
+        return this;
+    }
+
+    @Override
+    public Command nextCommand() {
+        if (door == Door.OPEN) {
+            door = Door.CLOSE;
+            return CLOSE;
+        }
+        if (requests.isEmpty()) {
+            return NOTHING;
+        }
+
+        if (goingBack) {
+            if (requests.lowestRequest() < floor) {
+                floor--;
+                return DOWN;
+            }
+            goingBack = false;
+        }
+        if (requests.hasRequest(floor)) {
+            requests.served(floor);
+            door = Door.OPEN;
+            return OPEN;
+        }
+        if (requests.hasRequestAhead(floor, Direction.UP)) {
+            floor++;
+            return UP;
+        }
+        goingBack = true;
+        floor--;
+        return DOWN;
+    }
+
+    @Override
+    public ElevatorEngine userHasEntered(User user) {
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine userHasExited(User user) {
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine reset(String cause) {
+        requests.clear();
+        floor = lowerFloor;
+        door = Door.CLOSE;
+        goingBack = false;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "elevator " + door + " " + floor + (goingBack ? " going back" : "");
+    }
+
+}
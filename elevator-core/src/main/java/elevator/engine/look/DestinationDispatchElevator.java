@@ -0,0 +1,158 @@
+package elevator.engine.look;
+
+import elevator.BuildingDimension;
+import elevator.Command;
+import elevator.Direction;
+import elevator.Door;
+import elevator.User;
+import elevator.engine.ElevatorEngine;
+
+import static elevator.Command.*;
+import static elevator.engine.look.LookElevator.opposite;
+import static elevator.engine.look.Requests.NONE;
+import static java.lang.Math.abs;
+
+/**
+ * Groups users by destination. Riders are carried as one group: the car delivers them in a single sweep, only stopping
+ * on its way for users waiting to go in the same direction. An empty car goes to the floor where most users wait,
+ * picking up users going its way. Destinations are only known once users have entered, as in the game, hence groups
+ * are made when doors open rather than at the call.
+ */
+public class DestinationDispatchElevator implements ElevatorEngine {
+
+    private final int lowerFloor;
+    private final int higherFloor;
+    private final Requests requests;
+
+    private int floor;
+    private Door door;
+    private Direction direction;
+    private int target;
+
+    public DestinationDispatchElevator() {
+        this(BuildingDimension.DEFAULT);
+    }
+
+    public DestinationDispatchElevator(BuildingDimension buildingDimension) {
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        this.higherFloor = buildingDimension.getHigherFloor();
+        this.requests = new Requests(buildingDimension);
+        this.floor = lowerFloor;
+        this.door = Door.CLOSE;
+        this.direction = Direction.UP;
+        this.target = NONE;
+    }
+
+    @Override
+    public ElevatorEngine call(Integer atFloor, Direction to) {
+        requests.call(atFloor, to);
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine go(Integer floorToGo) {
+        requests.go(floorToGo);
+        return this;
+    }
+
+    @Override
+    public Command nextCommand() {
+        if (door == Door.OPEN) {
+            door = Door.CLOSE;
+            return CLOSE;
+        }
+        if (requests.isEmpty()) {
+            return NOTHING;
+        }
+
+        if (requests.hasStops()) {
+            target = NONE;
+            if (requests.hasStop(floor)) {
+                return open();
+            }
+            if (!requests.hasStopAhead(floor, direction)) {
+                direction = opposite(direction);
+            }
+        } else {
+            if (target == NONE || !requests.hasRequest(target)) {
+                target = mostWaitingUsers();
+            }
+            if (floor == target) {
+                target = NONE;
+                direction = mostWaitingUsers(floor);
+                return open();
+            }
+            direction = floor < target ? Direction.UP : Direction.DOWN;
+        }
+        if (requests.hasCall(floor, direction)) {
+            return open();
+        }
+        return move();
+    }
+
+    private Command open() {
+        requests.served(floor);
+        door = Door.OPEN;
+        return OPEN;
+    }
+
+    private Command move() {
+        if (direction == Direction.UP) {
+            floor++;
+            return UP;
+        }
+        floor--;
+        return DOWN;
+    }
+
+    /**
+     * @return the floor where most users wait, the nearest one on ties
+     */
+    private int mostWaitingUsers() {
+        int mostWaitingUsersFloor = NONE;
+        int mostWaitingUsers = 0;
+        for (int floor = lowerFloor; floor <= higherFloor; floor++) {
+            int waitingUsers = requests.waitingUsers(floor, Direction.UP) + requests.waitingUsers(floor, Direction.DOWN);
+            if (waitingUsers > mostWaitingUsers
+                    || (waitingUsers == mostWaitingUsers && waitingUsers > 0
+                    && abs(floor - this.floor) < abs(mostWaitingUsersFloor - this.floor))) {
+                mostWaitingUsersFloor = floor;
+                mostWaitingUsers = waitingUsers;
+            }
+        }
+        return mostWaitingUsersFloor;
+    }
+
+    private Direction mostWaitingUsers(int floor) {
+        if (requests.waitingUsers(floor, Direction.UP) >= requests.waitingUsers(floor, Direction.DOWN)) {
+            return Direction.UP;
+        }
+        return Direction.DOWN;
+    }
+
+    @Override
+    public ElevatorEngine userHasEntered(User user) {
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine userHasExited(User user) {
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine reset(String cause) {
+        requests.clear();
+        floor = lowerFloor;
+        door = Door.CLOSE;
+        direction = Direction.UP;
+        target = NONE;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "elevator " + door + " " + floor + " " + direction;
+    }
+
+}
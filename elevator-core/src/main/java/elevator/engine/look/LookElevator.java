@@ -0,0 +1,108 @@
+package elevator.engine.look;
+
+import elevator.BuildingDimension;
+import elevator.Command;
+import elevator.Direction;
+import elevator.Door;
+import elevator.User;
+import elevator.engine.ElevatorEngine;
+
+import static elevator.Command.*;
+
+/**
+ * Sweeps up and down like a SCAN elevator, but turns back at the last request of a sweep instead of the last floor
+ * of the building. It stops for riders and for calls in its direction, and for opposite calls where it turns back.
+ */
+public class LookElevator implements ElevatorEngine {
+
+    private final int lowerFloor;
+    private final Requests requests;
+
+    private int floor;
+    private Door door;
+    private Direction direction;
+
+    public LookElevator() {
+        this(BuildingDimension.DEFAULT);
+    }
+
+    public LookElevator(BuildingDimension buildingDimension) {
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        this.requests = new Requests(buildingDimension);
+        this.floor = lowerFloor;
+        this.door = Door.CLOSE;
+        this.direction = Direction.UP;
+    }
+
+    @Override
+    public ElevatorEngine call(Integer atFloor, Direction to) {
+        requests.call(atFloor, to);
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine go(Integer floorToGo) {
+        requests.go(floorToGo);
+        return this;
+    }
+
+    @Override
+    public Command nextCommand() {
+        if (door == Door.OPEN) {
+            door = Door.CLOSE;
+            return CLOSE;
+        }
+        if (requests.isEmpty()) {
+            return NOTHING;
+        }
+
+        boolean requestAhead = requests.hasRequestAhead(floor, direction);
+        if (!requestAhead && requests.hasCall(floor, opposite(direction))) {
+            direction = opposite(direction);
+        }
+        if (requests.hasStop(floor) || requests.hasCall(floor, direction)) {
+            requests.served(floor);
+            door = Door.OPEN;
+            return OPEN;
+        }
+        if (!requestAhead) {
+            direction = opposite(direction);
+        }
+
+        if (direction == Direction.UP) {
+            floor++;
+            return UP;
+        }
+        floor--;
+        return DOWN;
+    }
+
+    @Override
+    public ElevatorEngine userHasEntered(User user) {
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine userHasExited(User user) {
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine reset(String cause) {
+        requests.clear();
+        floor = lowerFloor;
+        door = Door.CLOSE;
+        direction = Direction.UP;
+        return this;
+    }
+
+    static Direction opposite(Direction direction) {
+        return direction == Direction.UP ? Direction.DOWN : Direction.UP;
+    }
+
+    @Override
+    public String toString() {
+        return "elevator " + door + " " + floor + " " + direction;
+    }
+
+}
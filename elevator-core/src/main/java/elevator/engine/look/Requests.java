@@ -0,0 +1,135 @@
+package elevator.engine.look;
+
+import elevator.BuildingDimension;
+import elevator.Direction;
+
+import java.util.BitSet;
+
+import static elevator.Direction.UP;
+
+/**
+ * Pending requests of a car, by floor: calls of waiting users in each direction, and stops asked by riders. Waiting
+ * users are also counted, since each of them calls. Not thread safe.
+ */
+class Requests {
+
+    static final int NONE = Integer.MIN_VALUE;
+
+    private final int lowerFloor;
+    private final int higherFloor;
+    private final BitSet upCalls;
+    private final BitSet downCalls;
+    private final BitSet stops;
+    private final int[] waitingUsersUp;
+    private final int[] waitingUsersDown;
+
+    Requests(BuildingDimension buildingDimension) {
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        this.higherFloor = buildingDimension.getHigherFloor();
+        int floors = buildingDimension.numberOfFloors();
+        this.upCalls = new BitSet(floors);
+        this.downCalls = new BitSet(floors);
+        this.stops = new BitSet(floors);
+        this.waitingUsersUp = new int[floors];
+        this.waitingUsersDown = new int[floors];
+    }
+
+    void call(int floor, Direction to) {
+        int index = index(floor);
+        if (to == UP) {
+            upCalls.set(index);
+            waitingUsersUp[index]++;
+        } else {
+            downCalls.set(index);
+            waitingUsersDown[index]++;
+        }
+    }
+
+    void go(int floor) {
+        int index = index(floor);
+        stops.set(index);
+    }
+
+    /**
+     * Doors are open at {@code floor}: every waiting user enters, every rider going there exits.
+     */
+    void served(int floor) {
+        int index = index(floor);
+        upCalls.clear(index);
+        downCalls.clear(index);
+        stops.clear(index);
+        waitingUsersUp[index] = 0;
+        waitingUsersDown[index] = 0;
+    }
+
+    void clear() {
+        for (int floor = lowerFloor; floor <= higherFloor; floor++) {
+            served(floor);
+        }
+    }
+
+    boolean isEmpty() {
+        return upCalls.isEmpty() && downCalls.isEmpty() && stops.isEmpty();
+    }
+
+    boolean hasStops() {
+        return !stops.isEmpty();
+    }
+
+    boolean hasStop(int floor) {
+        return stops.get(index(floor));
+    }
+
+    boolean hasCall(int floor, Direction to) {
+        return (to == UP ? upCalls : downCalls).get(index(floor));
+    }
+
+    boolean hasRequest(int floor) {
+        int index = index(floor);
+        return upCalls.get(index) || downCalls.get(index) || stops.get(index);
+    }
+
+    /**
+     * @return whether there is any call or stop after {@code floor} in direction {@code to}
+     */
+    boolean hasRequestAhead(int floor, Direction to) {
+        return isAhead(upCalls, floor, to) || isAhead(downCalls, floor, to) || isAhead(stops, floor, to);
+    }
+
+    boolean hasStopAhead(int floor, Direction to) {
+        return isAhead(stops, floor, to);
+    }
+
+    /**
+     * @return the lowest floor with a call or a stop, {@link #NONE} if there is no request
+     */
+    int lowestRequest() {
+        int lowest = lowest(lowest(lowest(Integer.MAX_VALUE, upCalls), downCalls), stops);
+        return lowest == Integer.MAX_VALUE ? NONE : lowerFloor + lowest;
+    }
+
+    private static int lowest(int lowest, BitSet requests) {
+        int index = requests.nextSetBit(0);
+        return index >= 0 && index < lowest ? index : lowest;
+    }
+
+    int waitingUsers(int floor, Direction to) {
+        return (to == UP ? waitingUsersUp : waitingUsersDown)[index(floor)];
+    }
+
+    private boolean isAhead(BitSet requests, int floor, Direction to) {
+        int index = index(floor);
+        if (to == UP) {
+            return requests.nextSetBit(index + 1) >= 0;
+        }
+        return index > 0 && requests.previousSetBit(index - 1) >= 0;
+    }
+
+    private int index(int floor) {
+        if (floor < lowerFloor || floor > higherFloor) {
+            throw new IllegalArgumentException("floor " + floor + " is outside of " + lowerFloor + ".." + higherFloor);
+        }
+        return floor - lowerFloor;
+    }
+
+}
@@ -1,5 +1,6 @@
 package elevator.engine.naive;
 
+import elevator.BuildingDimension;
 import elevator.Command;
 import elevator.Direction;
 import elevator.User;
@@ -9,14 +10,29 @@ import static elevator.Command.*;
 
 public class NaiveElevator implements ElevatorEngine {
 
-    private Integer floor = LOWER_FLOOR;
-    private Direction direction = Direction.UP;
-    private State nextState = State.OPEN;
+    private final Integer lowerFloor;
+    private final Integer higherFloor;
+
+    private Integer floor;
+    private Direction direction;
+    private State nextState;
 
     private enum State {
         OPEN, CLOSE, MOVE,;
     }
 
+    public NaiveElevator() {
+        this(BuildingDimension.DEFAULT);
+    }
+
+    public NaiveElevator(BuildingDimension buildingDimension) {
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        this.higherFloor = buildingDimension.getHigherFloor();
+        this.floor = lowerFloor;
+        this.direction = Direction.UP;
+        this.nextState = State.OPEN;
+    }
+
     @Override
     public ElevatorEngine call(Integer atFloor, Direction to) {
         return this;
@@ -60,7 +76,7 @@ public class NaiveElevator implements ElevatorEngine {
 
     @Override
     public ElevatorEngine reset(String cause) {
-        floor = LOWER_FLOOR;
+        floor = lowerFloor;
         direction = Direction.UP;
         nextState = State.OPEN;
         return this;
@@ -68,7 +84,7 @@ public class NaiveElevator implements ElevatorEngine {
 
     private Command goesUp() {
         floor++;
-        if (HIGHER_FLOOR.equals(floor)) {
+        if (higherFloor.equals(floor)) {
             direction = Direction.DOWN;
         }
         return UP;
@@ -76,7 +92,7 @@ public class NaiveElevator implements ElevatorEngine {
 
     private Command goesDown() {
         floor--;
-        if (LOWER_FLOOR.equals(floor)) {
+        if (lowerFloor.equals(floor)) {
             direction = Direction.UP;
         }
         return DOWN;
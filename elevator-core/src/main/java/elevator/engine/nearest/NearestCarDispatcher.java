@@ -0,0 +1,89 @@
+package elevator.engine.nearest;
+
+import elevator.BuildingDimension;
+import elevator.Command;
+import elevator.Direction;
+import elevator.User;
+import elevator.engine.ElevatorEngine;
+import elevator.engine.MultiCarElevatorEngine;
+import elevator.exception.ElevatorIsBrokenException;
+
+import static java.lang.Math.abs;
+
+/**
+ * Drives each car with its own {@link ElevatorEngine} and gives every call to the car that is the nearest to the
+ * calling floor, the first car winning ties.
+ */
+public class NearestCarDispatcher implements MultiCarElevatorEngine {
+
+    private final BuildingDimension buildingDimension;
+    private final ElevatorEngine[] cars;
+    private final int[] floors;
+
+    public NearestCarDispatcher(BuildingDimension buildingDimension, ElevatorEngine... cars) {
+        if (cars.length == 0) {
+            throw new IllegalArgumentException("at least one car is needed");
+        }
+        this.buildingDimension = buildingDimension;
+        this.cars = cars.clone();
+        this.floors = new int[cars.length];
+        resetFloors();
+    }
+
+    @Override
+    public MultiCarElevatorEngine call(Integer atFloor, Direction to) throws ElevatorIsBrokenException {
+        int nearestCar = 0;
+        for (int car = 1; car < cars.length; car++) {
+            if (abs(floors[car] - atFloor) < abs(floors[nearestCar] - atFloor)) {
+                nearestCar = car;
+            }
+        }
+        cars[nearestCar].call(atFloor, to);
+        return this;
+    }
+
+    @Override
+    public MultiCarElevatorEngine go(Integer car, Integer floorToGo) throws ElevatorIsBrokenException {
+        cars[car].go(floorToGo);
+        return this;
+    }
+
+    @Override
+    public Command nextCommand(Integer car) throws ElevatorIsBrokenException {
+        Command command = cars[car].nextCommand();
+        if (command == Command.UP) {
+            floors[car]++;
+        } else if (command == Command.DOWN) {
+            floors[car]--;
+        }
+        return command;
+    }
+
+    @Override
+    public MultiCarElevatorEngine userHasEntered(Integer car, User user) throws ElevatorIsBrokenException {
+        cars[car].userHasEntered(user);
+        return this;
+    }
+
+    @Override
+    public MultiCarElevatorEngine userHasExited(Integer car, User user) throws ElevatorIsBrokenException {
+        cars[car].userHasExited(user);
+        return this;
+    }
+
+    @Override
+    public MultiCarElevatorEngine reset(String cause) throws ElevatorIsBrokenException {
+        for (ElevatorEngine car : cars) {
+            car.reset(cause);
+        }
+        resetFloors();
+        return this;
+    }
+
+    private void resetFloors() {
+        for (int car = 0; car < floors.length; car++) {
+            floors[car] = buildingDimension.getLowerFloor();
+        }
+    }
+
+}
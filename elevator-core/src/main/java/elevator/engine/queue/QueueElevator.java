@@ -1,5 +1,6 @@
 package elevator.engine.queue;
 
+import elevator.BuildingDimension;
 import elevator.Command;
 import elevator.Direction;
 import elevator.Door;
@@ -15,8 +16,20 @@ public class QueueElevator implements ElevatorEngine {
 
     final Queue<Integer> floorsToStop = new ArrayDeque<>();
 
-    private Integer floor = LOWER_FLOOR;
-    private Door door = Door.CLOSE;
+    private final Integer lowerFloor;
+
+    private Integer floor;
+    private Door door;
+
+    public QueueElevator() {
+        this(BuildingDimension.DEFAULT);
+    }
+
+    public QueueElevator(BuildingDimension buildingDimension) {
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        this.floor = lowerFloor;
+        this.door = Door.CLOSE;
+    }
 
     @Override
     public ElevatorEngine call(Integer atFloor, Direction to) {
@@ -64,7 +77,7 @@ public class QueueElevator implements ElevatorEngine {
 
     @Override
     public ElevatorEngine reset(String cause) {
-        floor = LOWER_FLOOR;
+        floor = lowerFloor;
         door = Door.CLOSE;
         return this;
     }
@@ -1,61 +1,177 @@
 package elevator.engine.scan;
 
+import elevator.BuildingDimension;
 import elevator.Direction;
 
-import java.util.*;
+import java.util.BitSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
-import static java.lang.Math.abs;
+import static elevator.Direction.DOWN;
+import static elevator.Direction.UP;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.util.Collections.unmodifiableSet;
 
+/**
+ * Pending commands, one bit set per direction over the floors of the building. Commands are also chained in insertion
+ * order: the first one gives the direction of the sweep, and it breaks ties between commands at the same distance.
+ * Command instances are created once per floor and direction. Not thread safe.
+ */
 public class Commands {
 
-    private final Set<Command> commands;
-    private final Integer lowerFloor;
-    private final Integer higherFloor;
+    private static final int NONE = -1;
+
+    private final int lowerFloor;
+    private final int higherFloor;
+    private final int floors;
+    private final DistanceEvaluator distanceEvaluator;
+    private final Command[] commands;
+    private final BitSet up;
+    private final BitSet down;
+    private final int[] previous;
+    private final int[] next;
+    private final long[] order;
+
+    private int first;
+    private int last;
+    private int size;
+    private long nextOrder;
+
+    public Commands(BuildingDimension buildingDimension) {
+        this(buildingDimension.getLowerFloor(), buildingDimension.getHigherFloor());
+    }
 
     public Commands(Integer lowerFloor, Integer higherFloor) {
         this.lowerFloor = lowerFloor;
         this.higherFloor = higherFloor;
-        commands = new LinkedHashSet<>(abs(higherFloor - lowerFloor) * 2);
+        this.floors = higherFloor - lowerFloor + 1;
+        this.distanceEvaluator = new DistanceEvaluator(lowerFloor, higherFloor);
+        this.commands = new Command[floors * 2];
+        for (int floor = lowerFloor; floor <= higherFloor; floor++) {
+            commands[slot(floor, UP)] = new Command(floor, UP);
+            commands[slot(floor, DOWN)] = new Command(floor, DOWN);
+        }
+        this.up = new BitSet(floors);
+        this.down = new BitSet(floors);
+        this.previous = new int[floors * 2];
+        this.next = new int[floors * 2];
+        this.order = new long[floors * 2];
+        this.first = NONE;
+        this.last = NONE;
+        this.size = 0;
+        this.nextOrder = 0;
     }
 
     Set<Command> commands() {
+        Set<Command> commands = new LinkedHashSet<>();
+        for (int slot = first; slot != NONE; slot = next[slot]) {
+            commands.add(this.commands[slot]);
+        }
         return unmodifiableSet(commands);
     }
 
+    boolean isEmpty() {
+        return size == 0;
+    }
+
     public Commands add(Command command) {
-        commands.add(command);
+        if (command.floor < lowerFloor || command.floor > higherFloor) {
+            throw new IllegalArgumentException("floor " + command.floor + " is outside of " + lowerFloor + ".." + higherFloor);
+        }
+        int slot = slot(command.floor, command.direction);
+        BitSet floorsInDirection = floors(command.direction);
+        int floorIndex = command.floor - lowerFloor;
+        if (floorsInDirection.get(floorIndex)) {
+            return this;
+        }
+        floorsInDirection.set(floorIndex);
+        previous[slot] = last;
+        next[slot] = NONE;
+        if (last == NONE) {
+            first = slot;
+        } else {
+            next[last] = slot;
+        }
+        last = slot;
+        order[slot] = nextOrder++;
+        size++;
         return this;
     }
 
+    /**
+     * @return the pending command that comes next when sweeping from {@code floor}, in the direction of the first
+     * pending command; it is removed if the elevator is already at its floor and in its direction
+     */
     public Command get(Integer floor) {
-        if (commands.isEmpty()) {
+        if (size == 0) {
             return null;
         }
-        Direction direction = getDirection(floor);
-        final Command commandFromElevator = new Command(floor, direction);
-        if (commands.contains(commandFromElevator)) {
-            commands.remove(commandFromElevator);
+        Direction direction = commands[first].getDirection(floor);
+        if (floor >= lowerFloor && floor <= higherFloor && floors(direction).get(floor - lowerFloor)) {
+            Command commandFromElevator = commands[slot(floor, direction)];
+            remove(slot(floor, direction));
             return commandFromElevator;
         }
-        if (commands.size() == 1) {
-            return commands.iterator().next();
+        if (size == 1) {
+            return commands[first];
+        }
+
+        int reference = distanceEvaluator.from(floor, direction).referenceIndex();
+        // up commands: closest one above the reference, otherwise lowest one after a whole sweep
+        int closest = closest(NONE, UP, up.nextSetBit(max(reference, 0)));
+        closest = closest(closest, UP, up.nextSetBit(0));
+        // down commands: closest one below the reference, otherwise highest one after a whole sweep
+        int floorIndexBelowReference = min(2 * (floors - 1) - reference, floors - 1);
+        if (floorIndexBelowReference >= 0) {
+            closest = closest(closest, DOWN, down.previousSetBit(floorIndexBelowReference));
+        }
+        closest = closest(closest, DOWN, down.previousSetBit(floors - 1));
+        return commands[closest];
+    }
+
+    private int closest(int closest, Direction direction, int floorIndex) {
+        if (floorIndex < 0 || floorIndex >= floors) {
+            return closest;
+        }
+        int candidate = slot(lowerFloor + floorIndex, direction);
+        if (closest == NONE) {
+            return candidate;
         }
-        SortedSet<Command> sortedCommands = new TreeSet<>(new Comparator<Command>() {
-            @Override
-            public int compare(Command o1, Command o2) {
-                DistanceEvaluator distanceEvaluator = new DistanceEvaluator(commandFromElevator, lowerFloor, higherFloor);
-                Integer distance1 = distanceEvaluator.getDistance(o1);
-                Integer distance2 = distanceEvaluator.getDistance(o2);
-                return distance1 - distance2;
-            }
-        });
-        sortedCommands.addAll(commands);
-        return sortedCommands.first();
+        int distance = distance(candidate);
+        int closestDistance = distance(closest);
+        if (distance < closestDistance || (distance == closestDistance && order[candidate] < order[closest])) {
+            return candidate;
+        }
+        return closest;
+    }
+
+    private int distance(int slot) {
+        return distanceEvaluator.getDistance(commands[slot].floor, commands[slot].direction);
+    }
+
+    private void remove(int slot) {
+        Command command = commands[slot];
+        floors(command.direction).clear(command.floor - lowerFloor);
+        if (previous[slot] == NONE) {
+            first = next[slot];
+        } else {
+            next[previous[slot]] = next[slot];
+        }
+        if (next[slot] == NONE) {
+            last = previous[slot];
+        } else {
+            previous[next[slot]] = previous[slot];
+        }
+        size--;
+    }
+
+    private BitSet floors(Direction direction) {
+        return direction == UP ? up : down;
     }
 
-    private Direction getDirection(Integer floor) {
-        return commands.iterator().next().getDirection(floor);
+    private int slot(int floor, Direction direction) {
+        return direction == UP ? floor - lowerFloor : floors + floor - lowerFloor;
     }
 
 }
@@ -1,36 +1,64 @@
 package elevator.engine.scan;
 
+import elevator.Direction;
+
 import static elevator.Direction.UP;
 
 class DistanceEvaluator {
 
-    private final Command reference;
-    private final Integer higherFloor;
-    private final Integer numberOfFloors;
+    private final int lowerFloor;
+    private final int higherFloor;
+    private final int numberOfFloors;
+
+    private int referenceIndex;
 
     DistanceEvaluator(Command reference, Integer lowerFloor, Integer higherFloor) {
-        this.reference = reference;
+        this(lowerFloor, higherFloor);
+        from(reference.floor, reference.direction);
+    }
+
+    DistanceEvaluator(int lowerFloor, int higherFloor) {
+        this.lowerFloor = lowerFloor;
         this.higherFloor = higherFloor;
         this.numberOfFloors = higherFloor - lowerFloor;
     }
 
+    /**
+     * Measures next distances from the given floor and direction, so that an evaluator can be reused.
+     */
+    DistanceEvaluator from(int floor, Direction direction) {
+        referenceIndex = positionIndex(floor, direction);
+        return this;
+    }
+
+    int referenceIndex() {
+        return referenceIndex;
+    }
+
     Integer getDistance(Command command) {
-        Integer firstIndex = positionIndex(reference);
-        Integer secondIndex = positionIndex(command);
+        return getDistance(command.floor, command.direction);
+    }
+
+    int getDistance(int floor, Direction direction) {
+        int index = positionIndex(floor, direction);
 
-        if (firstIndex > secondIndex) {
-            secondIndex += numberOfFloors * 2;
+        if (referenceIndex > index) {
+            index += numberOfFloors * 2;
         }
 
-        return secondIndex - firstIndex;
+        return index - referenceIndex;
     }
 
-    private Integer positionIndex(Command command) {
-        if (command.direction == UP) {
-            return command.floor;
+    /**
+     * @return index of the floor on the way up from the lower floor then down from the higher floor, from 0 to twice
+     * the number of floors
+     */
+    private int positionIndex(int floor, Direction direction) {
+        if (direction == UP) {
+            return floor - lowerFloor;
         } else {
-            return numberOfFloors + (higherFloor - command.floor);
+            return numberOfFloors + (higherFloor - floor);
         }
     }
 
-}
\ No newline at end of file
+}
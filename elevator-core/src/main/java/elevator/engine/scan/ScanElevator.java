@@ -1,5 +1,6 @@
 package elevator.engine.scan;
 
+import elevator.BuildingDimension;
 import elevator.Direction;
 import elevator.Door;
 import elevator.User;
@@ -11,10 +12,22 @@ import static elevator.Direction.UP;
 
 public class ScanElevator implements ElevatorEngine {
 
-    private final Commands commands = new Commands(LOWER_FLOOR, HIGHER_FLOOR);
+    private final Integer lowerFloor;
+    private final Commands commands;
 
-    private Integer floor = LOWER_FLOOR;
-    private Door door = Door.CLOSE;
+    private Integer floor;
+    private Door door;
+
+    public ScanElevator() {
+        this(BuildingDimension.DEFAULT);
+    }
+
+    public ScanElevator(BuildingDimension buildingDimension) {
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        this.commands = new Commands(buildingDimension);
+        this.floor = lowerFloor;
+        this.door = Door.CLOSE;
+    }
 
     @Override
     public ElevatorEngine call(Integer atFloor, Direction to) {
@@ -52,8 +65,7 @@ public class ScanElevator implements ElevatorEngine {
 
         Direction direction = nextCommand.getDirection(floor);
 
-        if (nextCommand.equals(new Command(floor, direction))
-                || (nextCommand.floor.equals(floor) && commands.commands().isEmpty())) {
+        if (nextCommand.floor.equals(floor) && (nextCommand.direction == direction || commands.isEmpty())) {
             door = Door.OPEN;
             return OPEN;
         }
@@ -86,7 +98,7 @@ public class ScanElevator implements ElevatorEngine {
     @Override
     public ScanElevator reset(String cause) {
         door = Door.CLOSE;
-        floor = LOWER_FLOOR;
+        floor = lowerFloor;
         return this;
     }
 
@@ -0,0 +1,197 @@
+package elevator.logging;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Writes records to {@code System.out} from a single background thread, so that threads logging never wait for the
+ * console nor for each other. Records are queued in a bounded ring without locks: a logging thread claims a slot, then
+ * publishes its record in it. The writer formats every queued record, then flushes them all at once. When the ring is
+ * full the record is dropped and counted, the writer reports how many records have been dropped with the next one it
+ * writes.
+ */
+class AsyncConsoleHandler extends Handler {
+
+    static final int CAPACITY = 1 << 13;
+    private static final long IDLE_NANOS = MILLISECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MILLIS = 1000;
+
+    private static AsyncConsoleHandler shared;
+
+    private final AtomicReferenceArray<LogRecord> ring;
+    private final int mask;
+    private final AtomicLong tail;
+    private final AtomicLong head;
+    private final AtomicLong droppedRecords;
+    private final Writer writer;
+
+    private long reportedDroppedRecords;
+    private volatile Thread writerThread;
+    private volatile boolean waiting;
+    private volatile boolean closed;
+
+    /**
+     * @return the handler shared by every logger, its writer thread being started on first call
+     */
+    static synchronized AsyncConsoleHandler shared() {
+        if (shared == null) {
+            shared = new AsyncConsoleHandler(System.out, CAPACITY);
+            shared.start();
+            Runtime.getRuntime().addShutdownHook(new Thread("elevator-logging-shutdown") {
+                @Override
+                public void run() {
+                    shared.close();
+                }
+            });
+        }
+        return shared;
+    }
+
+    static synchronized long sharedDroppedRecords() {
+        return shared == null ? 0 : shared.droppedRecords();
+    }
+
+    AsyncConsoleHandler(OutputStream out, int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity should be a power of two, not " + capacity);
+        }
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.tail = new AtomicLong();
+        this.head = new AtomicLong();
+        this.droppedRecords = new AtomicLong();
+        this.writer = new OutputStreamWriter(out);
+        this.reportedDroppedRecords = 0;
+        this.waiting = false;
+        this.closed = false;
+        setLevel(Level.ALL);
+        setFormatter(new ElevatorFormatter());
+    }
+
+    void start() {
+        writerThread = new Thread("elevator-logging") {
+            @Override
+            public void run() {
+                while (!closed) {
+                    if (drain() == 0) {
+                        waiting = true;
+                        if (head.get() == tail.get() && !closed) {
+                            LockSupport.parkNanos(this, IDLE_NANOS);
+                        }
+                        waiting = false;
+                    }
+                }
+                drain();
+            }
+        };
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        long slot;
+        do {
+            slot = tail.get();
+            if (slot - head.get() >= ring.length()) {
+                droppedRecords.incrementAndGet();
+                return;
+            }
+        } while (!tail.compareAndSet(slot, slot + 1));
+        ring.lazySet((int) (slot & mask), record);
+        if (waiting) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Writes and flushes every record queued so far, must only be called by the writer thread.
+     *
+     * @return number of written records
+     */
+    int drain() {
+        int written = 0;
+        long slot = head.get();
+        try {
+            for (LogRecord record = ring.get((int) (slot & mask)); record != null; record = ring.get((int) (slot & mask))) {
+                ring.lazySet((int) (slot & mask), null);
+                head.lazySet(++slot);
+                write(record);
+                written++;
+            }
+            if (written > 0) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            reportError(null, e, ErrorManager.FLUSH_FAILURE);
+        }
+        return written;
+    }
+
+    private void write(LogRecord record) throws IOException {
+        long droppedRecords = this.droppedRecords.get();
+        if (droppedRecords != reportedDroppedRecords) {
+            LogRecord dropped = new LogRecord(Level.WARNING,
+                    (droppedRecords - reportedDroppedRecords) + " log records dropped, the console is too slow");
+            dropped.setLoggerName("logging");
+            writer.write(getFormatter().format(dropped));
+            reportedDroppedRecords = droppedRecords;
+        }
+        String line;
+        try {
+            line = getFormatter().format(record);
+        } catch (RuntimeException e) {
+            reportError(null, e, ErrorManager.FORMAT_FAILURE);
+            return;
+        }
+        writer.write(line);
+    }
+
+    long droppedRecords() {
+        return droppedRecords.get();
+    }
+
+    /**
+     * Does not wait for the writer thread, records are written shortly after.
+     */
+    @Override
+    public void flush() {
+        if (waiting) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * Stops the writer thread once it has written every record queued so far.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Thread writerThread = this.writerThread;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join(CLOSE_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        } else {
+            drain();
+        }
+    }
+
+}
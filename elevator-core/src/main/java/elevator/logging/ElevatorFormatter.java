@@ -2,30 +2,71 @@ package elevator.logging;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.logging.Formatter;
 import java.util.logging.LogRecord;
 
+/**
+ * Formats records as {@code yyyy-MM-dd HH:mm:ss.SSS logger message}. Records are logged many times per second, so the
+ * date and time up to the second is formatted once per second and only milliseconds are appended to it.
+ */
 class ElevatorFormatter extends Formatter {
 
+    private static final int LOGGER_NAME_WIDTH = 16;
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    private volatile Second second = new Second(Long.MIN_VALUE, null);
+
     @Override
     public String format(LogRecord record) {
-        Date date = new Date(record.getMillis());
-        String message = formatMessage(record);
-        String throwable = "";
+        StringBuilder line = new StringBuilder(64);
+        appendTimestamp(line, record.getMillis());
+        line.append(' ');
+        String loggerName = String.valueOf(record.getLoggerName());
+        for (int padding = LOGGER_NAME_WIDTH - loggerName.length(); padding > 0; padding--) {
+            line.append(' ');
+        }
+        line.append(loggerName).append(' ').append(formatMessage(record));
         if (record.getThrown() != null) {
             StringWriter sw = new StringWriter();
             PrintWriter pw = new PrintWriter(sw);
             pw.println();
             record.getThrown().printStackTrace(pw);
             pw.close();
-            throwable = sw.toString();
+            line.append(sw);
+        }
+        return line.append(LINE_SEPARATOR).toString();
+    }
+
+    private void appendTimestamp(StringBuilder line, long millis) {
+        long epochSecond = millis / 1000 - (millis % 1000 < 0 ? 1 : 0);
+        Second second = this.second;
+        if (second.epochSecond != epochSecond) {
+            second = this.second = new Second(epochSecond,
+                    new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.").format(new Date(epochSecond * 1000)));
+        }
+        int millisOfSecond = (int) (millis - epochSecond * 1000);
+        line.append(second.prefix);
+        if (millisOfSecond < 100) {
+            line.append('0');
         }
-        return String.format("%1$TF %1$TT.%1$TL %2$16s %3$s%4$s%n",
-                date,
-                record.getLoggerName(),
-                message,
-                throwable);
+        if (millisOfSecond < 10) {
+            line.append('0');
+        }
+        line.append(millisOfSecond);
+    }
+
+    private static class Second {
+
+        private final long epochSecond;
+        private final String prefix;
+
+        private Second(long epochSecond, String prefix) {
+            this.epochSecond = epochSecond;
+            this.prefix = prefix;
+        }
+
     }
 
 }
@@ -18,7 +18,7 @@ public class ElevatorLogger {
             logger = getLogger(name);
             logger.setLevel(Level.ALL);
             logger.setUseParentHandlers(false);
-            logger.addHandler(new ElevatorConsoleHandler());
+            logger.addHandler(LoggingMode.fromSystemProperty().handler());
             logManager.addLogger(logger);
         }
         this.logger = logger;
@@ -35,4 +35,12 @@ public class ElevatorLogger {
         return logger;
     }
 
+    /**
+     * @return records dropped because the console could not keep up with them, always 0 unless logging mode is
+     *         {@link LoggingMode#ASYNC}
+     */
+    public static long droppedRecords() {
+        return AsyncConsoleHandler.sharedDroppedRecords();
+    }
+
 }
@@ -0,0 +1,40 @@
+package elevator.logging;
+
+import java.util.logging.Handler;
+
+public enum LoggingMode {
+
+    /**
+     * Each logger writes its records to {@code System.out} itself, waiting for the console.
+     */
+    CONSOLE {
+        @Override
+        Handler handler() {
+            return new ElevatorConsoleHandler();
+        }
+    },
+
+    /**
+     * Loggers queue their records, a single background thread writes them to {@code System.out}, see
+     * {@link AsyncConsoleHandler}.
+     */
+    ASYNC {
+        @Override
+        Handler handler() {
+            return AsyncConsoleHandler.shared();
+        }
+    },;
+
+    public static final String ELEVATOR_LOGGING_MODE_PROPERTY = "elevator.logging.mode";
+
+    abstract Handler handler();
+
+    public static LoggingMode fromSystemProperty() {
+        String loggingMode = System.getProperty(ELEVATOR_LOGGING_MODE_PROPERTY);
+        if (loggingMode == null) {
+            return CONSOLE;
+        }
+        return valueOf(loggingMode.trim().toUpperCase());
+    }
+
+}
@@ -0,0 +1,136 @@
+package elevator.simulation;
+
+import elevator.Building;
+import elevator.BuildingDimension;
+import elevator.ConstantMaxNumberOfUsers;
+import elevator.MaxNumberOfUsers;
+import elevator.Score;
+import elevator.User;
+import elevator.engine.ElevatorEngine;
+import elevator.exception.ElevatorIsBrokenException;
+import elevator.traffic.RandomTrafficGenerator;
+import elevator.traffic.SplitMix64;
+import elevator.traffic.TrafficGenerator;
+import elevator.traffic.TrafficPattern;
+
+import java.util.Arrays;
+import java.util.ServiceLoader;
+
+import static java.lang.String.format;
+
+/**
+ * Plays a game the same way the server does, but with a virtual clock: a tick lasts as long as the elevator engine
+ * takes to answer, so an engine can be evaluated against millions of ticks in seconds.
+ */
+public class Simulation {
+
+    private final ElevatorEngine elevatorEngine;
+    private final Building building;
+    private final Score score;
+
+    private long ticks;
+    private long doneUsers;
+    private long resets;
+    private long tickToWait;
+    private long tickToGo;
+    private long[] tickToWaitCounts;
+
+    public Simulation(ElevatorEngine elevatorEngine, MaxNumberOfUsers maxNumberOfUsers) {
+        this(elevatorEngine, maxNumberOfUsers, BuildingDimension.DEFAULT);
+    }
+
+    public Simulation(ElevatorEngine elevatorEngine, MaxNumberOfUsers maxNumberOfUsers, BuildingDimension buildingDimension) {
+        this(elevatorEngine, maxNumberOfUsers, buildingDimension, new RandomTrafficGenerator(buildingDimension));
+    }
+
+    /**
+     * @param trafficGenerator decides the trips of new users, seed it to replay the same users
+     */
+    public Simulation(ElevatorEngine elevatorEngine, MaxNumberOfUsers maxNumberOfUsers, BuildingDimension buildingDimension,
+                      TrafficGenerator trafficGenerator) {
+        this.elevatorEngine = elevatorEngine;
+        this.building = new Building(elevatorEngine, maxNumberOfUsers, buildingDimension, trafficGenerator);
+        this.score = new Score();
+        this.tickToWaitCounts = new long[32];
+        resetElevatorEngine("the elevator is at the lowest level and its doors are closed");
+    }
+
+    public Simulation run(long numberOfTicks) {
+        for (long tick = 0; tick < numberOfTicks; tick++) {
+            tick();
+        }
+        return this;
+    }
+
+    public Simulation tick() {
+        ticks++;
+        try {
+            building.addUser();
+            for (User doneUser : building.updateBuildingState()) {
+                score.success(doneUser);
+                doneUsers++;
+                tickToWait += doneUser.getTickToWait();
+                tickToGo += doneUser.getTickToGo();
+                countTickToWait(doneUser.getTickToWait());
+            }
+        } catch (ElevatorIsBrokenException e) {
+            reset(e.getMessage());
+        } catch (RuntimeException e) {
+            // an engine that fails is as broken as a participant server answering an error
+            reset(e.toString());
+        }
+        return this;
+    }
+
+    public SimulationResult result() {
+        return new SimulationResult(elevatorEngine.getClass().getSimpleName(), ticks, score.value(), doneUsers, resets,
+                tickToWait, tickToGo, tickToWaitCounts.clone());
+    }
+
+    private void countTickToWait(int tickToWait) {
+        if (tickToWait >= tickToWaitCounts.length) {
+            tickToWaitCounts = Arrays.copyOf(tickToWaitCounts, Math.max(tickToWait + 1, tickToWaitCounts.length * 2));
+        }
+        tickToWaitCounts[tickToWait]++;
+    }
+
+    private void reset(String cause) {
+        resets++;
+        building.reset();
+        score.loose();
+        resetElevatorEngine(cause);
+    }
+
+    private void resetElevatorEngine(String cause) {
+        try {
+            elevatorEngine.reset(cause);
+        } catch (RuntimeException e) {
+            score.loose();
+        }
+    }
+
+    /**
+     * Runs every {@link ElevatorEngine} found by the {@link ServiceLoader}, or only the one whose class name is given
+     * as first argument, during the number of ticks given as second argument. Traffic pattern is read from
+     * {@code elevator.traffic}.
+     */
+    public static void main(String... args) {
+        String elevatorEngineClassName = args.length > 0 ? args[0] : null;
+        long numberOfTicks = args.length > 1 ? Long.parseLong(args[1]) : 1000000;
+        TrafficPattern trafficPattern = TrafficPattern.fromSystemProperty();
+
+        for (ElevatorEngine elevatorEngine : ServiceLoader.load(ElevatorEngine.class)) {
+            if (elevatorEngineClassName != null && !elevatorEngine.getClass().getName().equals(elevatorEngineClassName)) {
+                continue;
+            }
+            long start = System.nanoTime();
+            SimulationResult result = new Simulation(elevatorEngine, new ConstantMaxNumberOfUsers(), BuildingDimension.DEFAULT,
+                    trafficPattern.newTrafficGenerator(BuildingDimension.DEFAULT, new SplitMix64()))
+                    .run(numberOfTicks)
+                    .result();
+            long durationInNanos = System.nanoTime() - start;
+            System.out.println(format("%s (%.0f ticks/s)", result, numberOfTicks * 1e9 / durationInNanos));
+        }
+    }
+
+}
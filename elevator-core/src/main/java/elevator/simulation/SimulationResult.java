@@ -0,0 +1,67 @@
+package elevator.simulation;
+
+import static java.lang.String.format;
+
+public class SimulationResult {
+
+    public final String elevatorEngine;
+    public final long ticks;
+    public final int score;
+    public final long doneUsers;
+    public final long resets;
+    public final long tickToWait;
+    public final long tickToGo;
+
+    private final long[] tickToWaitCounts;
+
+    SimulationResult(String elevatorEngine, long ticks, int score, long doneUsers, long resets, long tickToWait,
+                     long tickToGo, long[] tickToWaitCounts) {
+        this.elevatorEngine = elevatorEngine;
+        this.ticks = ticks;
+        this.score = score;
+        this.doneUsers = doneUsers;
+        this.resets = resets;
+        this.tickToWait = tickToWait;
+        this.tickToGo = tickToGo;
+        this.tickToWaitCounts = tickToWaitCounts;
+    }
+
+    public double meanTickToWait() {
+        return doneUsers == 0 ? 0 : (double) tickToWait / doneUsers;
+    }
+
+    public double meanTickToGo() {
+        return doneUsers == 0 ? 0 : (double) tickToGo / doneUsers;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return ticks that {@code percentile} percent of the done users have waited at most
+     */
+    public int tickToWaitPercentile(double percentile) {
+        return percentile(tickToWaitCounts, doneUsers, percentile);
+    }
+
+    long[] tickToWaitCounts() {
+        return tickToWaitCounts;
+    }
+
+    static int percentile(long[] counts, long total, double percentile) {
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long cumulated = 0;
+        for (int value = 0; value < counts.length; value++) {
+            cumulated += counts[value];
+            if (cumulated >= rank && cumulated > 0) {
+                return value;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return format("%s: score %d after %d ticks, %d done users, %d resets, %.2f ticks to wait, %.2f ticks to go",
+                elevatorEngine, score, ticks, doneUsers, resets, meanTickToWait(), meanTickToGo());
+    }
+
+}
@@ -0,0 +1,134 @@
+package elevator.simulation;
+
+import elevator.BuildingDimension;
+import elevator.ConstantMaxNumberOfUsers;
+import elevator.MaxNumberOfUsers;
+import elevator.engine.ElevatorEngine;
+import elevator.traffic.SplitMix64;
+import elevator.traffic.TrafficPattern;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import static elevator.engine.ElevatorEngines.newElevatorEngine;
+
+/**
+ * Runs every elevator engine against the same seeded scenarios, all scenarios of all engines in parallel on a
+ * fork/join pool, then ranks engines by their mean score.
+ */
+public class Tournament {
+
+    private final List<Class<? extends ElevatorEngine>> elevatorEngines;
+    private final MaxNumberOfUsers maxNumberOfUsers;
+    private final BuildingDimension buildingDimension;
+    private final TrafficPattern trafficPattern;
+    private final int scenarios;
+    private final long ticks;
+    private final long seed;
+
+    public Tournament(List<Class<? extends ElevatorEngine>> elevatorEngines, MaxNumberOfUsers maxNumberOfUsers,
+                      BuildingDimension buildingDimension, int scenarios, long ticks, long seed) {
+        this(elevatorEngines, maxNumberOfUsers, buildingDimension, TrafficPattern.RANDOM, scenarios, ticks, seed);
+    }
+
+    public Tournament(List<Class<? extends ElevatorEngine>> elevatorEngines, MaxNumberOfUsers maxNumberOfUsers,
+                      BuildingDimension buildingDimension, TrafficPattern trafficPattern, int scenarios, long ticks,
+                      long seed) {
+        for (Class<? extends ElevatorEngine> elevatorEngine : elevatorEngines) {
+            // fails now rather than in every scenario if an engine can't play in this building
+            newElevatorEngine(elevatorEngine, buildingDimension);
+        }
+        this.elevatorEngines = new ArrayList<>(elevatorEngines);
+        this.maxNumberOfUsers = maxNumberOfUsers;
+        this.buildingDimension = buildingDimension;
+        this.trafficPattern = trafficPattern;
+        this.scenarios = scenarios;
+        this.ticks = ticks;
+        this.seed = seed;
+    }
+
+    public TournamentReport run(ForkJoinPool forkJoinPool) {
+        return forkJoinPool.invoke(new RecursiveTask<TournamentReport>() {
+            @Override
+            protected TournamentReport compute() {
+                long[] scenarioSeeds = new long[scenarios];
+                SplitMix64 seeds = new SplitMix64(seed);
+                for (int scenario = 0; scenario < scenarios; scenario++) {
+                    scenarioSeeds[scenario] = seeds.nextLong();
+                }
+
+                List<List<ScenarioTask>> tasksByEngine = new ArrayList<>();
+                List<ScenarioTask> tasks = new ArrayList<>();
+                for (Class<? extends ElevatorEngine> elevatorEngine : elevatorEngines) {
+                    List<ScenarioTask> engineTasks = new ArrayList<>();
+                    for (long scenarioSeed : scenarioSeeds) {
+                        engineTasks.add(new ScenarioTask(elevatorEngine, scenarioSeed));
+                    }
+                    tasksByEngine.add(engineTasks);
+                    tasks.addAll(engineTasks);
+                }
+                invokeAll(tasks);
+
+                TournamentReport report = new TournamentReport(ticks);
+                for (int engine = 0; engine < elevatorEngines.size(); engine++) {
+                    List<SimulationResult> results = new ArrayList<>();
+                    for (ScenarioTask task : tasksByEngine.get(engine)) {
+                        results.add(task.join());
+                    }
+                    report.add(elevatorEngines.get(engine).getSimpleName(), results);
+                }
+                return report;
+            }
+        });
+    }
+
+    private class ScenarioTask extends RecursiveTask<SimulationResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Class<? extends ElevatorEngine> elevatorEngine;
+        private final long scenarioSeed;
+
+        private ScenarioTask(Class<? extends ElevatorEngine> elevatorEngine, long scenarioSeed) {
+            this.elevatorEngine = elevatorEngine;
+            this.scenarioSeed = scenarioSeed;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            return new Simulation(newElevatorEngine(elevatorEngine, buildingDimension), maxNumberOfUsers, buildingDimension,
+                    trafficPattern.newTrafficGenerator(buildingDimension, new SplitMix64(scenarioSeed))).run(ticks).result();
+        }
+
+    }
+
+    /**
+     * Arguments are the number of scenarios (8 by default), the number of ticks by scenario (100000 by default) and
+     * the seed from which scenarios are seeded (0 by default). Engines are the ones found by the {@link ServiceLoader}, unless
+     * their class names are given after the seed. Traffic pattern is read from {@code elevator.traffic}.
+     */
+    public static void main(String... args) throws ClassNotFoundException {
+        int scenarios = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long ticks = args.length > 1 ? Long.parseLong(args[1]) : 100000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        List<Class<? extends ElevatorEngine>> elevatorEngines = new ArrayList<>();
+        if (args.length > 3) {
+            for (int arg = 3; arg < args.length; arg++) {
+                elevatorEngines.add(Class.forName(args[arg]).asSubclass(ElevatorEngine.class));
+            }
+        } else {
+            for (ElevatorEngine elevatorEngine : ServiceLoader.load(ElevatorEngine.class)) {
+                elevatorEngines.add(elevatorEngine.getClass());
+            }
+        }
+
+        TournamentReport report = new Tournament(elevatorEngines, new ConstantMaxNumberOfUsers(), BuildingDimension.DEFAULT,
+                TrafficPattern.fromSystemProperty(), scenarios, ticks, seed).run(new ForkJoinPool());
+        System.out.print(report);
+    }
+
+}
@@ -0,0 +1,102 @@
+package elevator.simulation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Engines of a tournament, from the best mean score to the worst one.
+ */
+public class TournamentReport {
+
+    private final long ticks;
+    private final List<Standing> standings;
+
+    TournamentReport(long ticks) {
+        this.ticks = ticks;
+        this.standings = new ArrayList<>();
+    }
+
+    TournamentReport add(String elevatorEngine, List<SimulationResult> results) {
+        standings.add(new Standing(elevatorEngine, results));
+        Collections.sort(standings, new Comparator<Standing>() {
+            @Override
+            public int compare(Standing standing, Standing other) {
+                return Double.compare(other.meanScore, standing.meanScore);
+            }
+        });
+        return this;
+    }
+
+    public List<Standing> standings() {
+        return Collections.unmodifiableList(standings);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(format("%-4s %-28s %10s %10s %8s %8s %12s%n",
+                "rank", "engine", "score", "resets", "wait", "p99 wait", "users/100t"));
+        int rank = 1;
+        for (Standing standing : standings) {
+            out.append(format("%-4d %-28s %10.1f %10.1f %8.2f %8d %12.2f%n", rank++, standing.elevatorEngine,
+                    standing.meanScore, standing.meanResets, standing.meanTickToWait, standing.p99TickToWait,
+                    standing.doneUsersPer100Ticks));
+        }
+        out.append(format("%d scenarios of %d ticks by engine%n",
+                standings.isEmpty() ? 0 : standings.get(0).scenarios, ticks));
+        return out.toString();
+    }
+
+    /**
+     * Results of one engine, averaged over all its scenarios.
+     */
+    public static class Standing {
+
+        public final String elevatorEngine;
+        public final int scenarios;
+        public final double meanScore;
+        public final double meanResets;
+        public final double meanTickToWait;
+        public final int p99TickToWait;
+        public final double doneUsersPer100Ticks;
+
+        Standing(String elevatorEngine, List<SimulationResult> results) {
+            long score = 0;
+            long resets = 0;
+            long ticks = 0;
+            long doneUsers = 0;
+            long tickToWait = 0;
+            long[] tickToWaitCounts = new long[0];
+            for (SimulationResult result : results) {
+                score += result.score;
+                resets += result.resets;
+                ticks += result.ticks;
+                doneUsers += result.doneUsers;
+                tickToWait += result.tickToWait;
+                tickToWaitCounts = merge(tickToWaitCounts, result.tickToWaitCounts());
+            }
+            this.elevatorEngine = elevatorEngine;
+            this.scenarios = results.size();
+            this.meanScore = (double) score / scenarios;
+            this.meanResets = (double) resets / scenarios;
+            this.meanTickToWait = doneUsers == 0 ? 0 : (double) tickToWait / doneUsers;
+            this.p99TickToWait = SimulationResult.percentile(tickToWaitCounts, doneUsers, 99);
+            this.doneUsersPer100Ticks = ticks == 0 ? 0 : doneUsers * 100d / ticks;
+        }
+
+        private static long[] merge(long[] counts, long[] otherCounts) {
+            long[] merged = new long[Math.max(counts.length, otherCounts.length)];
+            for (int value = 0; value < merged.length; value++) {
+                merged[value] = (value < counts.length ? counts[value] : 0)
+                        + (value < otherCounts.length ? otherCounts[value] : 0);
+            }
+            return merged;
+        }
+
+    }
+
+}
@@ -0,0 +1,92 @@
+package elevator.traffic;
+
+import elevator.BuildingDimension;
+
+import static java.lang.Math.exp;
+
+/**
+ * Users arrive as a Poisson process whose rate follows a daily profile: the day is cut into slots of
+ * {@code ticksBySlot} ticks, each slot having its own mean number of arrivals per tick, and starts again after the
+ * last slot. A user either comes into the building at the lower floor (incoming), leaves the building to the lower
+ * floor (outgoing), or goes from one floor to another (interfloor).
+ */
+public class PoissonTrafficGenerator implements TrafficGenerator {
+
+    private final int lowerFloor;
+    private final int numberOfFloors;
+    private final SplitMix64 random;
+    private final double[] arrivalsPerTickBySlot;
+    private final int ticksBySlot;
+    private final double incoming;
+    private final double incomingOrOutgoing;
+
+    private long tick;
+
+    /**
+     * @param incoming share of users coming from the lower floor
+     * @param outgoing share of users going to the lower floor, remaining users travel between floors
+     */
+    public PoissonTrafficGenerator(BuildingDimension buildingDimension, SplitMix64 random, double[] arrivalsPerTickBySlot,
+                                   int ticksBySlot, double incoming, double outgoing) {
+        if (arrivalsPerTickBySlot.length == 0) {
+            throw new IllegalArgumentException("a day has at least one slot");
+        }
+        for (double arrivalsPerTick : arrivalsPerTickBySlot) {
+            if (arrivalsPerTick < 0) {
+                throw new IllegalArgumentException("arrivals per tick can't be negative: " + arrivalsPerTick);
+            }
+        }
+        if (ticksBySlot < 1) {
+            throw new IllegalArgumentException("a slot lasts at least one tick");
+        }
+        if (incoming < 0 || outgoing < 0 || incoming + outgoing > 1) {
+            throw new IllegalArgumentException("incoming (" + incoming + ") and outgoing (" + outgoing
+                    + ") shares should be positive and their sum should not exceed 1");
+        }
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        this.numberOfFloors = buildingDimension.numberOfFloors();
+        this.random = random;
+        this.arrivalsPerTickBySlot = arrivalsPerTickBySlot.clone();
+        this.ticksBySlot = ticksBySlot;
+        this.incoming = incoming;
+        this.incomingOrOutgoing = incoming + outgoing;
+        this.tick = 0;
+    }
+
+    @Override
+    public int arrivals() {
+        double arrivalsPerTick = arrivalsPerTickBySlot[(int) ((tick++ / ticksBySlot) % arrivalsPerTickBySlot.length)];
+        if (arrivalsPerTick == 0) {
+            return 0;
+        }
+        // Knuth's algorithm, arrivals per tick stay small
+        double limit = exp(-arrivalsPerTick);
+        int arrivals = 0;
+        for (double product = random.nextDouble(); product > limit; product *= random.nextDouble()) {
+            arrivals++;
+        }
+        return arrivals;
+    }
+
+    @Override
+    public Trip nextTrip() {
+        double kind = random.nextDouble();
+        if (kind < incoming) {
+            return new Trip(lowerFloor, upperFloor());
+        }
+        if (kind < incomingOrOutgoing) {
+            return new Trip(upperFloor(), lowerFloor);
+        }
+        int initialFloor = lowerFloor + random.nextInt(numberOfFloors);
+        int floorToGo = lowerFloor + random.nextInt(numberOfFloors - 1);
+        if (floorToGo >= initialFloor) {
+            floorToGo++;
+        }
+        return new Trip(initialFloor, floorToGo);
+    }
+
+    private int upperFloor() {
+        return lowerFloor + 1 + random.nextInt(numberOfFloors - 1);
+    }
+
+}
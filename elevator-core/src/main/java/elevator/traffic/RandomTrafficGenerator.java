@@ -0,0 +1,49 @@
+package elevator.traffic;
+
+import elevator.BuildingDimension;
+
+import static java.lang.Math.max;
+
+/**
+ * One user arrives at each tick. Half of the users come from the lower floor and go to a random floor, the other half
+ * come from a random floor and go to the lower or the higher floor.
+ */
+public class RandomTrafficGenerator implements TrafficGenerator {
+
+    private final int lowerFloor;
+    private final int higherFloor;
+    private final SplitMix64 random;
+
+    public RandomTrafficGenerator(BuildingDimension buildingDimension) {
+        this(buildingDimension, new SplitMix64());
+    }
+
+    public RandomTrafficGenerator(BuildingDimension buildingDimension, SplitMix64 random) {
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        this.higherFloor = buildingDimension.getHigherFloor();
+        this.random = random;
+    }
+
+    @Override
+    public int arrivals() {
+        return 1;
+    }
+
+    @Override
+    public Trip nextTrip() {
+        if (random.nextBoolean()) {
+            int initialFloor = randomFloor();
+            boolean up = random.nextBoolean();
+            if (initialFloor == lowerFloor) {
+                up = true;
+            }
+            return new Trip(initialFloor, up ? higherFloor : lowerFloor);
+        }
+        return new Trip(lowerFloor, max(randomFloor(), lowerFloor + 1));
+    }
+
+    private int randomFloor() {
+        return lowerFloor + random.nextInt(higherFloor - lowerFloor);
+    }
+
+}
@@ -0,0 +1,76 @@
+package elevator.traffic;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Small and fast pseudo random generator (SplitMix64, the algorithm behind Java 8's {@code SplittableRandom}). It is
+ * not thread safe: each building owns its own instance, so ticking buildings never contend on a shared seed, and a
+ * given seed always produces the same sequence.
+ */
+public class SplitMix64 {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final AtomicLong DEFAULT_SEEDS = new AtomicLong(mix64(System.currentTimeMillis()) ^ mix64(System.nanoTime()));
+
+    private long seed;
+
+    public SplitMix64() {
+        this(mix64(DEFAULT_SEEDS.getAndAdd(2 * GOLDEN_GAMMA)));
+    }
+
+    public SplitMix64(long seed) {
+        this.seed = seed;
+    }
+
+    public long nextLong() {
+        seed += GOLDEN_GAMMA;
+        return mix64(seed);
+    }
+
+    /**
+     * @return a value between 0 (inclusive) and {@code bound} (exclusive), without modulo bias
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int random = next31Bits();
+        int mask = bound - 1;
+        if ((bound & mask) == 0) {
+            return (int) ((bound * (long) random) >> 31);
+        }
+        for (int value = random; value - (random = value % bound) + mask < 0; value = next31Bits()) {
+            // rejects values of the last incomplete range
+        }
+        return random;
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * @return a value between 0 (inclusive) and 1 (exclusive)
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return a new generator, whose sequence is independent from the one of this generator
+     */
+    public SplitMix64 split() {
+        return new SplitMix64(mix64(nextLong()));
+    }
+
+    private int next31Bits() {
+        return (int) (nextLong() >>> 33);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
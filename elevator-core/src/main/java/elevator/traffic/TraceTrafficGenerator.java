@@ -0,0 +1,115 @@
+package elevator.traffic;
+
+import elevator.BuildingDimension;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays trips recorded in a real building, then starts again from the beginning of the trace. Each line of a trace
+ * holds the tick of arrival, the initial floor and the floor to go of a user, separated by spaces or commas, ticks in
+ * ascending order. Blank lines and lines starting with {@code #} are ignored.
+ */
+public class TraceTrafficGenerator implements TrafficGenerator {
+
+    private final long[] ticks;
+    private final Trip[] trips;
+    private final long duration;
+
+    private long tick;
+    private int nextArrival;
+    private int nextTrip;
+
+    public TraceTrafficGenerator(long[] ticks, Trip[] trips) {
+        if (ticks.length == 0 || ticks.length != trips.length) {
+            throw new IllegalArgumentException("a trace has as many ticks as trips, and at least one");
+        }
+        for (int trip = 1; trip < ticks.length; trip++) {
+            if (ticks[trip] < ticks[trip - 1]) {
+                throw new IllegalArgumentException("ticks of a trace should be in ascending order");
+            }
+        }
+        if (ticks[0] < 0) {
+            throw new IllegalArgumentException("ticks of a trace can't be negative");
+        }
+        this.ticks = ticks.clone();
+        this.trips = trips.clone();
+        this.duration = ticks[ticks.length - 1] + 1;
+        this.tick = 0;
+        this.nextArrival = 0;
+        this.nextTrip = 0;
+    }
+
+    public static TraceTrafficGenerator read(BuildingDimension buildingDimension, Reader trace) throws IOException {
+        List<Long> ticks = new ArrayList<>();
+        List<Trip> trips = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(trace);
+        int lineNumber = 0;
+        for (String line = lines.readLine(); line != null; line = lines.readLine()) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("[\\s,]+");
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("line " + lineNumber
+                        + ": expected tick, initial floor and floor to go but was \"" + line + "\"");
+            }
+            try {
+                int initialFloor = floor(buildingDimension, Integer.parseInt(fields[1]));
+                int floorToGo = floor(buildingDimension, Integer.parseInt(fields[2]));
+                ticks.add(Long.parseLong(fields[0]));
+                trips.add(new Trip(initialFloor, floorToGo));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("line " + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        long[] ticksArray = new long[ticks.size()];
+        for (int trip = 0; trip < ticksArray.length; trip++) {
+            ticksArray[trip] = ticks.get(trip);
+        }
+        return new TraceTrafficGenerator(ticksArray, trips.toArray(new Trip[trips.size()]));
+    }
+
+    public static TraceTrafficGenerator read(BuildingDimension buildingDimension, String fileName) throws IOException {
+        try (Reader trace = new InputStreamReader(new FileInputStream(fileName), StandardCharsets.UTF_8)) {
+            return read(buildingDimension, trace);
+        }
+    }
+
+    private static int floor(BuildingDimension buildingDimension, int floor) {
+        if (floor < buildingDimension.getLowerFloor() || floor > buildingDimension.getHigherFloor()) {
+            throw new IllegalArgumentException("floor " + floor + " is outside of building " + buildingDimension);
+        }
+        return floor;
+    }
+
+    @Override
+    public int arrivals() {
+        long traceTick = tick++ % duration;
+        if (traceTick == 0) {
+            nextArrival = 0;
+        }
+        nextTrip = nextArrival;
+        while (nextArrival < ticks.length && ticks[nextArrival] == traceTick) {
+            nextArrival++;
+        }
+        return nextArrival - nextTrip;
+    }
+
+    @Override
+    public Trip nextTrip() {
+        if (nextTrip == nextArrival) {
+            throw new IllegalStateException("no more user arrives at this tick");
+        }
+        return trips[nextTrip++];
+    }
+
+}
@@ -0,0 +1,18 @@
+package elevator.traffic;
+
+/**
+ * Decides when users come into a building and which trips they make. A generator belongs to one building: at each
+ * tick, the building asks how many users arrive, then asks as many trips.
+ */
+public interface TrafficGenerator {
+
+    /**
+     * Called once per tick.
+     *
+     * @return number of users arriving at this tick
+     */
+    int arrivals();
+
+    Trip nextTrip();
+
+}
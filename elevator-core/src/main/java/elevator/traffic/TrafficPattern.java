@@ -0,0 +1,125 @@
+package elevator.traffic;
+
+import elevator.BuildingDimension;
+
+import java.io.IOException;
+
+/**
+ * Traffic patterns a building can be stressed with. Peak patterns ramp up to {@code elevator.traffic.arrivalsPerTick}
+ * users per tick then back down, over a day of {@code elevator.traffic.dayLength} ticks.
+ */
+public enum TrafficPattern {
+
+    /**
+     * One user per tick, half of them from the lower floor, as in the original game.
+     */
+    RANDOM {
+        @Override
+        public TrafficGenerator newTrafficGenerator(BuildingDimension buildingDimension, SplitMix64 random,
+                                                    double arrivalsPerTick, int dayLength) {
+            return new RandomTrafficGenerator(buildingDimension, random);
+        }
+    },
+
+    /**
+     * Steady Poisson arrivals, as many incoming, outgoing and interfloor users.
+     */
+    POISSON(new double[]{1}, 1. / 3, 1. / 3),
+
+    /**
+     * Morning: most users come in at the lower floor and go up.
+     */
+    UP_PEAK(new double[]{.1, .4, .8, 1, 1, .8, .4, .1}, .85, .05),
+
+    /**
+     * Lunch: users go out and come back, in two overlapping waves.
+     */
+    LUNCH(new double[]{.2, .6, 1, .8, .8, 1, .6, .2}, .45, .45),
+
+    /**
+     * Evening: most users go down to the lower floor and leave.
+     */
+    DOWN_PEAK(new double[]{.1, .4, .8, 1, 1, .8, .4, .1}, .05, .85),
+
+    /**
+     * Steady Poisson arrivals, most users travel between floors.
+     */
+    INTERFLOOR(new double[]{1}, .1, .1),
+
+    /**
+     * Replays the trace file given by {@code elevator.traffic.trace}, see {@link TraceTrafficGenerator}.
+     */
+    TRACE {
+        @Override
+        public TrafficGenerator newTrafficGenerator(BuildingDimension buildingDimension, SplitMix64 random,
+                                                    double arrivalsPerTick, int dayLength) {
+            String trace = System.getProperty(ELEVATOR_TRAFFIC_TRACE_PROPERTY);
+            if (trace == null) {
+                throw new IllegalStateException("-D" + ELEVATOR_TRAFFIC_TRACE_PROPERTY + " should name the trace to replay");
+            }
+            try {
+                return TraceTrafficGenerator.read(buildingDimension, trace);
+            } catch (IOException e) {
+                throw new IllegalStateException("can't read trace " + trace, e);
+            }
+        }
+    },;
+
+    public static final String ELEVATOR_TRAFFIC_PROPERTY = "elevator.traffic";
+    public static final String ELEVATOR_TRAFFIC_ARRIVALS_PER_TICK_PROPERTY = "elevator.traffic.arrivalsPerTick";
+    public static final String ELEVATOR_TRAFFIC_DAY_LENGTH_PROPERTY = "elevator.traffic.dayLength";
+    public static final String ELEVATOR_TRAFFIC_TRACE_PROPERTY = "elevator.traffic.trace";
+
+    private static final double ARRIVALS_PER_TICK = .5;
+    private static final int DAY_LENGTH = 2400;
+
+    private final double[] arrivalsBySlot;
+    private final double incoming;
+    private final double outgoing;
+
+    private TrafficPattern() {
+        this(new double[]{1}, 0, 0);
+    }
+
+    /**
+     * @param arrivalsBySlot share of the peak arrivals per tick, for each slot of the day
+     */
+    private TrafficPattern(double[] arrivalsBySlot, double incoming, double outgoing) {
+        this.arrivalsBySlot = arrivalsBySlot;
+        this.incoming = incoming;
+        this.outgoing = outgoing;
+    }
+
+    public static TrafficPattern fromSystemProperty() {
+        String trafficPattern = System.getProperty(ELEVATOR_TRAFFIC_PROPERTY);
+        if (trafficPattern == null) {
+            return RANDOM;
+        }
+        return valueOf(trafficPattern.trim().toUpperCase());
+    }
+
+    /**
+     * Arrivals per tick and day length are read from system properties.
+     */
+    public TrafficGenerator newTrafficGenerator(BuildingDimension buildingDimension, SplitMix64 random) {
+        return newTrafficGenerator(buildingDimension, random,
+                Double.parseDouble(System.getProperty(ELEVATOR_TRAFFIC_ARRIVALS_PER_TICK_PROPERTY,
+                        String.valueOf(ARRIVALS_PER_TICK))),
+                Integer.getInteger(ELEVATOR_TRAFFIC_DAY_LENGTH_PROPERTY, DAY_LENGTH));
+    }
+
+    /**
+     * @param arrivalsPerTick mean number of users arriving per tick, at the peak of the day
+     * @param dayLength       number of ticks before the pattern starts again
+     */
+    public TrafficGenerator newTrafficGenerator(BuildingDimension buildingDimension, SplitMix64 random,
+                                                double arrivalsPerTick, int dayLength) {
+        double[] arrivalsPerTickBySlot = new double[arrivalsBySlot.length];
+        for (int slot = 0; slot < arrivalsBySlot.length; slot++) {
+            arrivalsPerTickBySlot[slot] = arrivalsBySlot[slot] * arrivalsPerTick;
+        }
+        return new PoissonTrafficGenerator(buildingDimension, random, arrivalsPerTickBySlot,
+                Math.max(1, dayLength / arrivalsBySlot.length), incoming, outgoing);
+    }
+
+}
@@ -0,0 +1,45 @@
+package elevator.traffic;
+
+import elevator.Direction;
+
+/**
+ * Where a new user of a building comes from and where it goes.
+ */
+public class Trip {
+
+    public final int initialFloor;
+    public final int floorToGo;
+
+    public Trip(int initialFloor, int floorToGo) {
+        if (initialFloor == floorToGo) {
+            throw new IllegalArgumentException("a user has to go to another floor than " + initialFloor);
+        }
+        this.initialFloor = initialFloor;
+        this.floorToGo = floorToGo;
+    }
+
+    public Direction direction() {
+        return floorToGo > initialFloor ? Direction.UP : Direction.DOWN;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Trip trip = (Trip) o;
+
+        return initialFloor == trip.initialFloor && floorToGo == trip.floorToGo;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * initialFloor + floorToGo;
+    }
+
+    @Override
+    public String toString() {
+        return initialFloor + " -> " + floorToGo;
+    }
+
+}
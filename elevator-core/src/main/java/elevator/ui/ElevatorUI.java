@@ -1,6 +1,7 @@
 package elevator.ui;
 
 import elevator.Building;
+import elevator.BuildingDimension;
 import elevator.Clock;
 import elevator.ClockListener;
 import elevator.ConstantMaxNumberOfUsers;
@@ -42,7 +43,7 @@ public class ElevatorUI extends JFrame {
             buildings.add(new BuildingAndElevator(building, elevatorEngine));
         }
 
-        final InteractionPanel interactionPanel = new InteractionPanel(buildings);
+        final InteractionPanel interactionPanel = new InteractionPanel(buildings, BuildingDimension.DEFAULT);
         add(interactionPanel, CENTER);
 
         ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
@@ -1,5 +1,6 @@
 package elevator.ui;
 
+import elevator.BuildingDimension;
 import elevator.Direction;
 
 import javax.swing.*;
@@ -11,34 +12,35 @@ import java.util.List;
 import static elevator.Direction.DOWN;
 import static elevator.Direction.UP;
 import static elevator.Door.OPEN;
-import static elevator.engine.ElevatorEngine.HIGHER_FLOOR;
-import static elevator.engine.ElevatorEngine.LOWER_FLOOR;
 
 public class InteractionPanel extends JPanel {
 
     private static final long serialVersionUID = -4552133516569878418L;
     private final Map<BuildingAndElevator, Deque<JLabel>> buildings;
+    private final int lowerFloor;
 
-    InteractionPanel(List<BuildingAndElevator> buildings) {
+    InteractionPanel(List<BuildingAndElevator> buildings, BuildingDimension buildingDimension) {
         this.buildings = new HashMap<>();
+        this.lowerFloor = buildingDimension.getLowerFloor();
+        int higherFloor = buildingDimension.getHigherFloor();
         GridLayout layout = new GridLayout(0, 2 + buildings.size());
         setLayout(layout);
 
         add(new JLabel());
         add(new JLabel());
         for (BuildingAndElevator building : buildings) {
-            ArrayDeque<JLabel> elevatorStack = new ArrayDeque<>(HIGHER_FLOOR);
+            ArrayDeque<JLabel> elevatorStack = new ArrayDeque<>(buildingDimension.numberOfFloors());
             this.buildings.put(building, elevatorStack);
             add(new JLabel(building.elevator.getClass().getSimpleName()));
         }
 
-        for (int i = HIGHER_FLOOR; i >= LOWER_FLOOR; i--) {
-            if (i != HIGHER_FLOOR) {
+        for (int i = higherFloor; i >= lowerFloor; i--) {
+            if (i != higherFloor) {
                 add(new JButton(new CallElevatorAction(buildings, i, UP)));
             } else {
                 add(new JLabel());
             }
-            if (i != LOWER_FLOOR) {
+            if (i != lowerFloor) {
                 add(new JButton(new CallElevatorAction(buildings, i, DOWN)));
             } else {
                 add(new JLabel());
@@ -47,7 +49,7 @@ public class InteractionPanel extends JPanel {
             for (BuildingAndElevator building : buildings) {
                 this.buildings.get(building).addFirst(new JLabel(String.valueOf(i)));
                 add(this.buildings.get(building).getFirst());
-                if (i == LOWER_FLOOR) {
+                if (i == lowerFloor) {
                     this.buildings.get(building).getFirst().setText("[ | ]");
                 }
             }
@@ -56,7 +58,7 @@ public class InteractionPanel extends JPanel {
 
     public InteractionPanel update() {
         for (Map.Entry<BuildingAndElevator, Deque<JLabel>> building : buildings.entrySet()) {
-            Integer i = 0;
+            Integer i = lowerFloor;
 
             for (JLabel jLabel : building.getValue()) {
                 if (building.getKey().building.floor().equals(i)) {
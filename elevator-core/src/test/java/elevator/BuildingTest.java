@@ -1,6 +1,7 @@
 package elevator;
 
 import elevator.engine.ElevatorEngine;
+import elevator.engine.MultiCarElevatorEngine;
 import elevator.exception.ElevatorIsBrokenException;
 import org.junit.Rule;
 import org.junit.Test;
@@ -21,6 +22,9 @@ public class BuildingTest {
     @Mock
     public ElevatorEngine elevator;
 
+    @Mock
+    public MultiCarElevatorEngine multiCarElevator;
+
     @Rule
     public ExpectedException expectedException = none();
 
@@ -155,4 +159,37 @@ public class BuildingTest {
         building.updateBuildingState();
     }
 
+    @Test
+    public void should_throws_exception_if_elevator_goes_up_but_is_already_at_higher_floor_of_building() {
+        when(elevator.nextCommand()).thenReturn(UP, UP);
+        Building building = new Building(elevator, new ConstantMaxNumberOfUsers(), new BuildingDimension(-1, 0));
+        building.updateBuildingState();
+
+        expectedException.expect(ElevatorIsBrokenException.class);
+        expectedException.expectMessage("can't go up because current floor is the highest floor");
+        building.updateBuildingState();
+    }
+
+    @Test
+    public void should_apply_command_of_each_car() {
+        when(multiCarElevator.nextCommand(0)).thenReturn(UP);
+        when(multiCarElevator.nextCommand(1)).thenReturn(OPEN);
+        Building building = new Building(multiCarElevator, new ConstantMaxNumberOfUsers(), BuildingDimension.DEFAULT, 2);
+
+        building.updateBuildingState();
+
+        assertThat(building).floorIs(0, 1).doorIs(0, Door.CLOSE).floorIs(1, 0).doorIs(1, Door.OPEN);
+    }
+
+    @Test
+    public void should_tell_which_car_is_broken() {
+        when(multiCarElevator.nextCommand(0)).thenReturn(NOTHING);
+        when(multiCarElevator.nextCommand(1)).thenReturn(DOWN);
+        Building building = new Building(multiCarElevator, new ConstantMaxNumberOfUsers(), BuildingDimension.DEFAULT, 2);
+
+        expectedException.expect(ElevatorIsBrokenException.class);
+        expectedException.expectMessage("car 1: can't go down because current floor is the lowest floor");
+        building.updateBuildingState();
+    }
+
 }
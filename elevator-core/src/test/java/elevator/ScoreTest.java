@@ -1,6 +1,5 @@
-package elevator.server;
+package elevator;
 
-import elevator.User;
 import org.junit.Test;
 
 import static java.lang.String.format;
@@ -80,7 +79,7 @@ public class ScoreTest {
 
         Score loose = score.loose();
 
-        assertThat(loose.score).isEqualTo(-10);
+        assertThat(loose.value()).isEqualTo(-10);
     }
 
     private User user(int floor, int floorToGo, int tickToGo, int tickToWait) {
@@ -105,7 +104,7 @@ public class ScoreTest {
             out.append(format("             %5d |", tickToGo));
             for (int tickToWait = 0; tickToWait < 10; tickToWait++) {
                 try {
-                    out.append(format("%3d", new Score().success(user(floor, floorToGo, tickToGo, tickToWait)).score));
+                    out.append(format("%3d", new Score().success(user(floor, floorToGo, tickToGo, tickToWait)).value()));
                 } catch (IllegalStateException e) {
                     out.append(format("%3s", "X"));
                 }
@@ -0,0 +1,185 @@
+package elevator;
+
+import elevator.engine.ElevatorEngine;
+import elevator.engine.MultiCarElevatorEngine;
+import elevator.engine.SingleCarElevatorEngine;
+import elevator.exception.ElevatorIsBrokenException;
+import elevator.traffic.TrafficGenerator;
+import elevator.traffic.Trip;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.Set;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class UsersTest {
+
+    @Mock
+    ElevatorEngine mockElevatorEngine;
+
+    @Mock
+    TrafficGenerator trafficGenerator;
+
+    private MultiCarElevatorEngine elevatorEngine;
+
+    @Before
+    public void initElevatorEngine() {
+        elevatorEngine = new SingleCarElevatorEngine(mockElevatorEngine);
+    }
+
+    @Test
+    public void should_not_count_tick_to_go_when_not_traveling() {
+        Users users = new Users().add(1, 5);
+
+        users.tick();
+
+        assertThat(user(users).getTickToGo()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_count_tick_to_go_when_traveling() {
+        Users users = new Users().add(1, 5);
+
+        //Make the user entering the elevator=> traveling
+        users.carIsOpen(0, 1, elevatorEngine);
+
+        users.tick();
+
+        assertThat(user(users).getTickToGo()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_not_count_tick_to_wait_when_not_waiting() {
+        Users users = new Users().add(1, 5);
+
+        //Make the user entering the elevator=> traveling
+        users.carIsOpen(0, 1, elevatorEngine);
+
+        users.tick();
+
+        assertThat(user(users).getTickToWait()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_count_tick_to_wait_when_waiting() {
+        Users users = new Users().add(1, 5);
+
+        users.tick();
+
+        assertThat(user(users).getTickToWait()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_call_the_elevator_when_a_user_arrives() {
+        Users users = new Users().arrive(elevatorEngine, 10);
+
+        verify(mockElevatorEngine).call(any(Integer.class), any(Direction.class));
+        assertThat(users.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_add_the_next_trip_of_the_traffic_generator() {
+        when(trafficGenerator.arrivals()).thenReturn(1);
+        when(trafficGenerator.nextTrip()).thenReturn(new Trip(3, 1));
+
+        Users users = new Users(BuildingDimension.DEFAULT, trafficGenerator).arrive(elevatorEngine, 10);
+
+        verify(mockElevatorEngine).call(3, Direction.DOWN);
+        User user = users.users().iterator().next();
+        assertThat(user.getInitialFloor()).isEqualTo(3);
+        assertThat(user.getFloorToGo()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_draw_trips_of_users_that_arrive_when_the_building_is_full() {
+        when(trafficGenerator.arrivals()).thenReturn(3);
+        when(trafficGenerator.nextTrip()).thenReturn(new Trip(0, 2), new Trip(0, 3), new Trip(0, 4));
+
+        Users users = new Users(BuildingDimension.DEFAULT, trafficGenerator).arrive(elevatorEngine, 2);
+
+        verify(trafficGenerator, times(3)).nextTrip();
+        verify(mockElevatorEngine, times(2)).call(0, Direction.UP);
+        assertThat(users.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_count_waiting_and_traveling_users() {
+        Users users = new Users().add(0, 3).add(0, 5).add(2, 0);
+
+        users.carIsOpen(0, 0, elevatorEngine);
+
+        assertThat(users.waitingUsersByFloors()).isEqualTo(new int[]{0, 0, 1, 0, 0, 0});
+        assertThat(users.travelingUsers()).isEqualTo(2);
+        verify(mockElevatorEngine).go(3);
+        verify(mockElevatorEngine).go(5);
+    }
+
+    @Test
+    public void should_remove_users_when_they_exit_the_elevator() {
+        Users users = new Users().add(0, 3).add(0, 5).add(2, 0);
+        users.tick();
+        users.carIsOpen(0, 0, elevatorEngine);
+        users.tick();
+
+        Set<User> doneUsers = users.carIsOpen(0, 3, elevatorEngine);
+
+        assertThat(doneUsers).hasSize(1);
+        User doneUser = doneUsers.iterator().next();
+        assertThat(doneUser.getFloorToGo()).isEqualTo(3);
+        assertThat(doneUser.getTickToWait()).isEqualTo(1);
+        assertThat(doneUser.getTickToGo()).isEqualTo(1);
+        assertThat(users.size()).isEqualTo(2);
+        assertThat(users.travelingUsers()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_keep_users_consistent_when_the_elevator_breaks() {
+        doThrow(new ElevatorIsBrokenException("broken")).when(mockElevatorEngine).go(5);
+        Users users = new Users().add(0, 3).add(0, 5).add(2, 0);
+
+        try {
+            users.carIsOpen(0, 0, elevatorEngine);
+        } catch (ElevatorIsBrokenException e) {
+            // expected
+        }
+
+        assertThat(users.size()).isEqualTo(3);
+        assertThat(users.travelingUsers()).isEqualTo(1);
+        assertThat(users.waitingUsersByFloors()).isEqualTo(new int[]{1, 0, 1, 0, 0, 0});
+    }
+
+    @Test
+    public void should_only_let_users_exit_the_car_they_have_entered() {
+        Users users = new Users().add(0, 3).add(0, 3);
+        users.carIsOpen(0, 0, elevatorEngine);
+
+        Set<User> doneUsers = users.carIsOpen(1, 3, elevatorEngine);
+
+        assertThat(doneUsers).isEmpty();
+        assertThat(users.carIsOpen(0, 3, elevatorEngine)).hasSize(2);
+    }
+
+    @Test
+    public void should_count_waiting_users_from_the_lower_floor() {
+        Users users = new Users(new BuildingDimension(-2, 10)).add(-2, 10).add(3, -2);
+
+        assertThat(users.waitingUsersByFloors()).hasSize(13);
+        assertThat(users.waitingUsersByFloors()[0]).isEqualTo(1);
+        assertThat(users.waitingUsersByFloors()[5]).isEqualTo(1);
+    }
+
+    private User user(Users users) {
+        return users.users().iterator().next();
+    }
+
+}
@@ -0,0 +1,103 @@
+package elevator.clock;
+
+import elevator.Clock;
+import elevator.ClockListener;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Compares execution modes with participants that block for a while on each call, as a slow participant server
+ * would. Not a unit test: run its main method, optionally with the number of players and the latency in ms.
+ */
+public class ExecutionModeBenchmark {
+
+    private static final int TICKS = 3;
+
+    public static void main(String... args) throws Exception {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        long latencyInMillis = args.length > 1 ? Long.parseLong(args[1]) : 20;
+
+        System.out.println(format("%d players, participants answer in %dms", players, latencyInMillis));
+        System.out.println(format("%-9s %-18s %12s %12s", "mode", "workload", "elapsed (ms)", "peak threads"));
+        for (ExecutionMode executionMode : ExecutionMode.values()) {
+            try {
+                participantCalls(executionMode, players, latencyInMillis);
+                ticks(executionMode, players, latencyInMillis);
+            } catch (UnsupportedOperationException e) {
+                System.out.println(format("%-9s %s", executionMode, e.getMessage()));
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void participantCalls(ExecutionMode executionMode, int players, final long latencyInMillis)
+            throws InterruptedException {
+        ExecutorService executorService = executionMode.newTaskExecutorService();
+        final CountDownLatch done = new CountDownLatch(players * TICKS);
+        ThreadMXBean threads = resetPeakThreadCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < players * TICKS; i++) {
+            executorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    sleep(latencyInMillis);
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        print(executionMode, "participant calls", start, threads);
+        executorService.shutdown();
+    }
+
+    private static void ticks(ExecutionMode executionMode, int players, final long latencyInMillis)
+            throws InterruptedException {
+        Clock clock = new Clock(executionMode);
+        for (int i = 0; i < players; i++) {
+            clock.addClockListener(new ClockListener() {
+                @Override
+                public ClockListener onTick() {
+                    sleep(latencyInMillis);
+                    return this;
+                }
+            });
+        }
+        ThreadMXBean threads = resetPeakThreadCount();
+        long start = System.nanoTime();
+        for (long tick = 1; tick <= TICKS; tick++) {
+            clock.tick();
+            while (clock.lastTickReport() == null || clock.lastTickReport().tick < tick) {
+                Thread.sleep(1);
+            }
+        }
+        print(executionMode, "game ticks", start, threads);
+        clock.shutdown();
+    }
+
+    private static ThreadMXBean resetPeakThreadCount() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        return threads;
+    }
+
+    private static void print(ExecutionMode executionMode, String workload, long startInNanos, ThreadMXBean threads) {
+        System.out.println(format("%-9s %-18s %12d %12d", executionMode, workload,
+                NANOSECONDS.toMillis(System.nanoTime() - startInNanos), threads.getPeakThreadCount()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
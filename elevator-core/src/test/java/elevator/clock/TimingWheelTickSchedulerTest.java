@@ -0,0 +1,145 @@
+package elevator.clock;
+
+import elevator.ClockListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class TimingWheelTickSchedulerTest {
+
+    private ExecutorService workers;
+    private TimingWheelTickScheduler tickScheduler;
+
+    @Before
+    public void createTickScheduler() {
+        workers = Executors.newFixedThreadPool(2);
+        tickScheduler = new TimingWheelTickScheduler(workers, 3, 30);
+    }
+
+    @After
+    public void shutdownTickScheduler() {
+        tickScheduler.shutdown();
+        workers.shutdown();
+    }
+
+    @Test
+    public void should_tick_each_listener_once_per_tick() throws Exception {
+        CountingClockListener first = new CountingClockListener();
+        CountingClockListener second = new CountingClockListener();
+        tickScheduler.schedule(first).schedule(second).schedule(first);
+
+        tickScheduler.tick();
+
+        TickReport tickReport = awaitTickReport(1);
+        assertThat(tickReport.listeners).isEqualTo(2);
+        assertThat(tickReport.skippedListeners).isZero();
+        assertThat(first.ticks.get()).isEqualTo(1);
+        assertThat(second.ticks.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_count_started_ticks() throws Exception {
+        tickScheduler.tick();
+        tickScheduler.tick();
+
+        assertThat(tickScheduler.currentTick()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_not_tick_cancelled_listener() throws Exception {
+        CountingClockListener clockListener = new CountingClockListener();
+        tickScheduler.schedule(clockListener).cancel(clockListener);
+
+        tickScheduler.tick();
+
+        assertThat(awaitTickReport(1).listeners).isZero();
+        assertThat(clockListener.ticks.get()).isZero();
+    }
+
+    @Test
+    public void should_skip_listener_while_its_previous_tick_is_in_flight() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        tickScheduler.schedule(new ClockListener() {
+            @Override
+            public ClockListener onTick() {
+                started.countDown();
+                try {
+                    release.await(5, SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return this;
+            }
+        });
+        tickScheduler.tick();
+        started.await(5, SECONDS);
+
+        tickScheduler.tick();
+        release.countDown();
+
+        TickReport tickReport = awaitTickReport(2);
+        assertThat(tickReport.listeners).isEqualTo(1);
+        assertThat(tickReport.skippedListeners).isEqualTo(1);
+    }
+
+    @Test
+    public void should_skip_listeners_once_shut_down() throws Exception {
+        CountingClockListener clockListener = new CountingClockListener();
+        tickScheduler.schedule(clockListener);
+
+        tickScheduler.shutdown();
+        tickScheduler.tick();
+
+        TickReport tickReport = awaitTickReport(1);
+        assertThat(tickReport.skippedListeners).isEqualTo(1);
+        assertThat(clockListener.ticks.get()).isZero();
+    }
+
+    @Test
+    public void should_not_keep_jvm_alive_with_wheel_thread() throws Exception {
+        tickScheduler.tick();
+        awaitTickReport(1);
+
+        int wheelThreads = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("elevator-clock-wheel")) {
+                assertThat(thread.isDaemon()).isTrue();
+                wheelThreads++;
+            }
+        }
+        assertThat(wheelThreads).isPositive();
+    }
+
+    private TickReport awaitTickReport(long tick) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            TickReport tickReport = tickScheduler.lastTickReport();
+            if (tickReport != null && tickReport.tick >= tick) {
+                return tickReport;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("tick " + tick + " has not completed");
+    }
+
+    private static class CountingClockListener implements ClockListener {
+
+        private final AtomicInteger ticks = new AtomicInteger();
+
+        @Override
+        public ClockListener onTick() {
+            ticks.incrementAndGet();
+            return this;
+        }
+
+    }
+
+}
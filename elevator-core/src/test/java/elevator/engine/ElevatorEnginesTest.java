@@ -0,0 +1,41 @@
+package elevator.engine;
+
+import elevator.BuildingDimension;
+import elevator.Command;
+import elevator.engine.crazy.CrazyElevator;
+import elevator.engine.scan.ScanElevator;
+import org.junit.Test;
+
+import static elevator.Direction.DOWN;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ElevatorEnginesTest {
+
+    @Test
+    public void should_create_engine_for_the_building() {
+        ScanElevator elevator = ElevatorEngines.newElevatorEngine(ScanElevator.class, new BuildingDimension(-3, 4));
+
+        assertThat(elevator.toString()).isEqualTo("elevator CLOSE -3");
+        elevator.call(-2, DOWN);
+        assertThat(elevator.nextCommand()).isEqualTo(Command.UP);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_create_engine_without_building_dimension_constructor_for_another_building() {
+        ElevatorEngines.newElevatorEngine(WithoutBuildingDimension.class, new BuildingDimension(-3, 4));
+    }
+
+    @Test
+    public void should_create_engine_without_building_dimension_constructor_for_the_default_building() {
+        assertThat(ElevatorEngines.newElevatorEngine(WithoutBuildingDimension.class, BuildingDimension.DEFAULT)).isNotNull();
+    }
+
+    public static class WithoutBuildingDimension extends CrazyElevator {
+
+        public WithoutBuildingDimension() {
+            super();
+        }
+
+    }
+
+}
@@ -26,4 +26,14 @@ public class BuildingAssert extends GenericAssert<BuildingAssert, Building> {
         assertThat(actual.floor()).isEqualTo(expectedFloor);
         return this;
     }
+
+    public BuildingAssert doorIs(int car, Door door) {
+        assertThat(actual.door(car)).isEqualTo(door);
+        return this;
+    }
+
+    public BuildingAssert floorIs(int car, Integer expectedFloor) {
+        assertThat(actual.floor(car)).isEqualTo(expectedFloor);
+        return this;
+    }
 }
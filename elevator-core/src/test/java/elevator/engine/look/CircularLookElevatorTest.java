@@ -0,0 +1,33 @@
+package elevator.engine.look;
+
+import org.junit.Test;
+
+import static elevator.Direction.DOWN;
+import static elevator.Direction.UP;
+import static elevator.engine.assertions.Assertions.assertThat;
+
+public class CircularLookElevatorTest {
+
+    @Test
+    public void should_go_straight_back_to_the_lowest_request() {
+        assertThat(new CircularLookElevator()).is("CLOSE 0").call(3, UP).
+                onTick("      1").
+                onTick("      2").
+                onTick("      3").
+                onTick("OPEN   ").go(5).call(1, UP).call(2, DOWN).
+                onTick("CLOSE  ").
+                onTick("      4").
+                onTick("      5").
+                onTick("OPEN   ").
+                onTick("CLOSE  ").
+                onTick("      4").
+                onTick("      3").
+                onTick("      2").
+                onTick("      1").
+                onTick("OPEN   ").
+                onTick("CLOSE  ").
+                onTick("      2").
+                onTick("OPEN   ");
+    }
+
+}
@@ -0,0 +1,31 @@
+package elevator.engine.look;
+
+import org.junit.Test;
+
+import static elevator.Direction.DOWN;
+import static elevator.Direction.UP;
+import static elevator.engine.assertions.Assertions.assertThat;
+
+public class DestinationDispatchElevatorTest {
+
+    @Test
+    public void should_fetch_the_biggest_group_then_deliver_it_in_one_sweep() {
+        assertThat(new DestinationDispatchElevator()).is("CLOSE 0").call(2, DOWN).call(4, DOWN).call(4, DOWN).
+                onTick("      1").
+                onTick("      2").
+                onTick("      3").
+                onTick("      4").
+                onTick("OPEN   ").go(0).go(0).
+                onTick("CLOSE  ").
+                onTick("      3").
+                onTick("      2").
+                onTick("OPEN   ").go(1).
+                onTick("CLOSE  ").
+                onTick("      1").
+                onTick("OPEN   ").
+                onTick("CLOSE  ").
+                onTick("      0").
+                onTick("OPEN   ");
+    }
+
+}
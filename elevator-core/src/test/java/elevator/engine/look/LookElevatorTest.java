@@ -0,0 +1,28 @@
+package elevator.engine.look;
+
+import org.junit.Test;
+
+import static elevator.Direction.DOWN;
+import static elevator.Direction.UP;
+import static elevator.engine.assertions.Assertions.assertThat;
+
+public class LookElevatorTest {
+
+    @Test
+    public void should_turn_back_at_the_last_request_of_a_sweep() {
+        assertThat(new LookElevator()).is("CLOSE 0").call(3, DOWN).call(1, UP).
+                onTick("      1").
+                onTick("OPEN   ").go(4).
+                onTick("CLOSE  ").
+                onTick("      2").
+                onTick("      3").
+                onTick("      4").
+                onTick("OPEN   ").
+                onTick("CLOSE  ").
+                onTick("      3").
+                onTick("OPEN   ").
+                onTick("CLOSE  ").
+                onTick("CLOSE 3");
+    }
+
+}
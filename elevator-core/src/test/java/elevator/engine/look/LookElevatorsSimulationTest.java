@@ -0,0 +1,49 @@
+package elevator.engine.look;
+
+import elevator.BuildingDimension;
+import elevator.ConstantMaxNumberOfUsers;
+import elevator.engine.ElevatorEngine;
+import elevator.simulation.Simulation;
+import elevator.simulation.SimulationResult;
+import elevator.traffic.SplitMix64;
+import elevator.traffic.TrafficPattern;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+@RunWith(Parameterized.class)
+public class LookElevatorsSimulationTest {
+
+    private static final BuildingDimension BUILDING_DIMENSION = new BuildingDimension(-2, 12);
+
+    @Parameters(name = "{0}")
+    public static Collection<Object[]> elevatorEngines() {
+        return Arrays.asList(
+                new Object[]{"LookElevator", new LookElevator(BUILDING_DIMENSION)},
+                new Object[]{"CircularLookElevator", new CircularLookElevator(BUILDING_DIMENSION)},
+                new Object[]{"DestinationDispatchElevator", new DestinationDispatchElevator(BUILDING_DIMENSION)});
+    }
+
+    private final ElevatorEngine elevatorEngine;
+
+    public LookElevatorsSimulationTest(String name, ElevatorEngine elevatorEngine) {
+        this.elevatorEngine = elevatorEngine;
+    }
+
+    @Test
+    public void should_never_break_the_building() {
+        SimulationResult result = new Simulation(elevatorEngine, new ConstantMaxNumberOfUsers(), BUILDING_DIMENSION,
+                TrafficPattern.UP_PEAK.newTrafficGenerator(BUILDING_DIMENSION, new SplitMix64(0), 1, 2000))
+                .run(20000).result();
+
+        assertThat(result.resets).isZero();
+        assertThat(result.doneUsers).isGreaterThan(1000);
+    }
+
+}
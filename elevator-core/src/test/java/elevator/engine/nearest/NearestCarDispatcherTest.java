@@ -0,0 +1,67 @@
+package elevator.engine.nearest;
+
+import elevator.BuildingDimension;
+import elevator.engine.ElevatorEngine;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static elevator.Command.UP;
+import static elevator.Direction.DOWN;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NearestCarDispatcherTest {
+
+    @Mock
+    private ElevatorEngine firstCar;
+
+    @Mock
+    private ElevatorEngine secondCar;
+
+    private NearestCarDispatcher dispatcher;
+
+    @Before
+    public void initDispatcher() {
+        dispatcher = new NearestCarDispatcher(BuildingDimension.DEFAULT, firstCar, secondCar);
+    }
+
+    @Test
+    public void should_give_call_to_first_car_when_cars_are_at_the_same_floor() {
+        dispatcher.call(3, DOWN);
+
+        verify(firstCar).call(3, DOWN);
+        verify(secondCar, never()).call(3, DOWN);
+    }
+
+    @Test
+    public void should_give_call_to_nearest_car() {
+        when(secondCar.nextCommand()).thenReturn(UP);
+        dispatcher.nextCommand(1);
+        dispatcher.nextCommand(1);
+
+        dispatcher.call(3, DOWN);
+
+        verify(secondCar).call(3, DOWN);
+        verify(firstCar, never()).call(3, DOWN);
+    }
+
+    @Test
+    public void should_send_go_to_the_car_of_the_user() {
+        dispatcher.go(1, 4);
+
+        verify(secondCar).go(4);
+        verifyZeroInteractions(firstCar);
+    }
+
+    @Test
+    public void should_reset_every_car() {
+        dispatcher.reset("cause");
+
+        verify(firstCar).reset("cause");
+        verify(secondCar).reset("cause");
+    }
+
+}
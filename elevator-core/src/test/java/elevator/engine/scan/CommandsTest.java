@@ -54,4 +54,47 @@ public class CommandsTest {
         assertThat(commands.get(1)).isEqualTo("3 UP");
     }
 
+    @Test
+    public void should_get_first_added_command_when_commands_are_at_the_same_distance() throws Exception {
+        commands.add(new Command(HIGHER_FLOOR, DOWN))
+                .add(new Command(HIGHER_FLOOR, UP));
+
+        assertThat(commands.get(2)).isEqualTo("5 DOWN");
+    }
+
+    @Test
+    public void should_sweep_back_to_lowest_up_command() throws Exception {
+        commands.add(new Command(4, UP))
+                .add(new Command(1, UP));
+
+        assertThat(commands.get(5)).isEqualTo("1 UP");
+    }
+
+    @Test
+    public void should_keep_insertion_order_when_a_command_is_removed() throws Exception {
+        commands.add(new Command(2, UP))
+                .add(new Command(4, DOWN))
+                .add(new Command(1, UP));
+
+        commands.get(2);
+
+        assertThat(commands.get(3)).isEqualTo("4 DOWN");
+    }
+
+    @Test
+    public void should_get_commands_of_a_building_with_negative_floors() throws Exception {
+        commands = new Commands(-2, 3)
+                .add(new Command(-1, DOWN))
+                .add(new Command(2, UP));
+
+        assertThat(commands.get(-2)).isEqualTo("2 UP");
+        assertThat(commands.get(-1)).isEqualTo("-1 DOWN");
+        assertThat(commands).excludes(new Command(-1, DOWN));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_add_command_outside_of_the_building() throws Exception {
+        commands.add(new Command(HIGHER_FLOOR + 1, UP));
+    }
+
 }
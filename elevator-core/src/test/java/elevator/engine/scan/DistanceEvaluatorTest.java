@@ -46,4 +46,23 @@ public class DistanceEvaluatorTest {
         assertThat(comparator.getDistance(new Command(2, UP))).isEqualTo(9);
     }
 
+    @Test
+    public void should_measure_distances_in_a_building_with_basement() throws Exception {
+        DistanceEvaluator comparator = new DistanceEvaluator(new Command(-3, UP), -3, 4);
+
+        assertThat(comparator.getDistance(new Command(-2, UP))).isEqualTo(1);
+        assertThat(comparator.getDistance(new Command(4, DOWN))).isEqualTo(7);
+        assertThat(comparator.getDistance(new Command(3, DOWN))).isEqualTo(8);
+        assertThat(comparator.getDistance(new Command(-3, DOWN))).isEqualTo(14);
+    }
+
+    @Test
+    public void should_measure_distances_in_a_building_above_ground_floor() throws Exception {
+        DistanceEvaluator comparator = new DistanceEvaluator(new Command(5, DOWN), 3, 10);
+
+        assertThat(comparator.getDistance(new Command(3, DOWN))).isEqualTo(2);
+        assertThat(comparator.getDistance(new Command(3, UP))).isEqualTo(2);
+        assertThat(comparator.getDistance(new Command(6, UP))).isEqualTo(5);
+    }
+
 }
@@ -1,8 +1,17 @@
 package elevator.engine.scan;
 
+import elevator.BuildingDimension;
+import elevator.Command;
+import elevator.ConstantMaxNumberOfUsers;
+import elevator.simulation.Simulation;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static elevator.Direction.DOWN;
 import static elevator.Direction.UP;
 import static elevator.engine.assertions.Assertions.assertThat;
 import static org.fest.assertions.Assertions.assertThat;
@@ -114,4 +123,43 @@ public class ScanElevatorTest {
                 onTick("CLOSE  ");
     }
 
+    @Test
+    public void should_serve_calls_in_a_building_above_ground_floor() {
+        ScanElevator elevator = new ScanElevator(new BuildingDimension(3, 10));
+        elevator.call(6, DOWN);
+        elevator.call(5, UP);
+
+        assertThat(commands(elevator, 6)).isEqualTo(asList(Command.UP, Command.UP, Command.OPEN, Command.CLOSE, Command.UP, Command.OPEN));
+    }
+
+    @Test
+    public void should_serve_calls_in_a_building_with_basement() {
+        ScanElevator elevator = new ScanElevator(new BuildingDimension(-3, 4));
+        elevator.call(-1, DOWN);
+        elevator.call(1, UP);
+
+        assertThat(commands(elevator, 11)).isEqualTo(asList(Command.UP, Command.UP, Command.OPEN, Command.CLOSE, Command.UP, Command.UP, Command.OPEN, Command.CLOSE, Command.NOTHING, Command.NOTHING, Command.NOTHING));
+    }
+
+    @Test
+    public void should_carry_as_many_users_whatever_the_lower_floor() {
+        long doneUsers = simulate(new BuildingDimension(0, 7));
+
+        assertThat(simulate(new BuildingDimension(-3, 4))).isGreaterThan(doneUsers / 2);
+        assertThat(simulate(new BuildingDimension(3, 10))).isGreaterThan(doneUsers / 2);
+    }
+
+    private static long simulate(BuildingDimension buildingDimension) {
+        return new Simulation(new ScanElevator(buildingDimension), new ConstantMaxNumberOfUsers(), buildingDimension)
+                .run(10000).result().doneUsers;
+    }
+
+    private static List<Command> commands(ScanElevator elevator, int ticks) {
+        List<Command> commands = new ArrayList<>();
+        for (int tick = 0; tick < ticks; tick++) {
+            commands.add(elevator.nextCommand());
+        }
+        return commands;
+    }
+
 }
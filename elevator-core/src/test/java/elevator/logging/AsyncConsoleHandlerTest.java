@@ -0,0 +1,71 @@
+package elevator.logging;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class AsyncConsoleHandlerTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final AsyncConsoleHandler handler = new AsyncConsoleHandler(out, 4);
+
+    @Test
+    public void should_write_queued_records_in_order() {
+        handler.publish(record("first"));
+        handler.publish(record("second"));
+
+        assertThat(handler.drain()).isEqualTo(2);
+
+        assertThat(out.toString()).matches("(?s).* HTTPElevator first\\s+.* HTTPElevator second\\s+");
+        assertThat(handler.drain()).isEqualTo(0);
+    }
+
+    @Test
+    public void should_count_records_dropped_when_full_instead_of_waiting() {
+        for (int i = 0; i < 6; i++) {
+            handler.publish(record("record " + i));
+        }
+
+        assertThat(handler.droppedRecords()).isEqualTo(2);
+        assertThat(handler.drain()).isEqualTo(4);
+        assertThat(out.toString()).contains("2 log records dropped").doesNotContain("record 4");
+    }
+
+    @Test
+    public void should_reuse_slots_once_written() {
+        for (int i = 0; i < 3; i++) {
+            handler.publish(record("record " + i));
+        }
+        handler.drain();
+
+        for (int i = 3; i < 7; i++) {
+            handler.publish(record("record " + i));
+        }
+
+        assertThat(handler.droppedRecords()).isEqualTo(0);
+        assertThat(handler.drain()).isEqualTo(4);
+        assertThat(out.toString()).contains("record 6");
+    }
+
+    @Test
+    public void should_write_records_from_its_thread_until_closed() {
+        handler.start();
+        handler.publish(record("first"));
+        handler.publish(record("second"));
+
+        handler.close();
+
+        assertThat(out.toString()).contains("first").contains("second");
+    }
+
+    private static LogRecord record(String message) {
+        LogRecord record = new LogRecord(Level.INFO, message);
+        record.setLoggerName("HTTPElevator");
+        return record;
+    }
+
+}
@@ -0,0 +1,33 @@
+package elevator.logging;
+
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ElevatorFormatterTest {
+
+    private final ElevatorFormatter formatter = new ElevatorFormatter();
+
+    @Test
+    public void should_format_date_logger_and_message() {
+        assertThat(formatter.format(record(1371030672007L))).isEqualTo(expected(1371030672007L));
+        assertThat(formatter.format(record(1371030672250L))).isEqualTo(expected(1371030672250L));
+        assertThat(formatter.format(record(1371030673040L))).isEqualTo(expected(1371030673040L));
+    }
+
+    private static LogRecord record(long millis) {
+        LogRecord record = new LogRecord(Level.INFO, "/nextCommand UP");
+        record.setLoggerName("HTTPElevator");
+        record.setMillis(millis);
+        return record;
+    }
+
+    private static String expected(long millis) {
+        return String.format("%1$TF %1$TT.%1$TL %2$16s %3$s%n", new Date(millis), "HTTPElevator", "/nextCommand UP");
+    }
+
+}
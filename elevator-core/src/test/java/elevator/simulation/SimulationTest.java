@@ -0,0 +1,49 @@
+package elevator.simulation;
+
+import elevator.ConstantMaxNumberOfUsers;
+import elevator.engine.ElevatorEngine;
+import elevator.engine.queue.QueueElevator;
+import elevator.engine.scan.ScanElevator;
+import org.junit.Test;
+
+import static elevator.Command.DOWN;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SimulationTest {
+
+    @Test
+    public void should_score_users_brought_to_their_floor() {
+        SimulationResult result = new Simulation(new ScanElevator(), new ConstantMaxNumberOfUsers()).run(10000).result();
+
+        assertThat(result.ticks).isEqualTo(10000);
+        assertThat(result.resets).isZero();
+        assertThat(result.doneUsers).isGreaterThan(0);
+        assertThat(result.score).isGreaterThan(0);
+        assertThat(result.meanTickToWait()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    public void should_reset_broken_elevator_and_loose_points() {
+        ElevatorEngine elevatorEngine = mock(ElevatorEngine.class);
+        when(elevatorEngine.nextCommand()).thenReturn(DOWN);
+
+        SimulationResult result = new Simulation(elevatorEngine, new ConstantMaxNumberOfUsers()).run(3).result();
+
+        assertThat(result.resets).isEqualTo(3);
+        assertThat(result.score).isEqualTo(-30);
+        verify(elevatorEngine, times(4)).reset(anyString());
+    }
+
+    @Test
+    public void should_report_the_engine() {
+        SimulationResult result = new Simulation(new QueueElevator(), new ConstantMaxNumberOfUsers()).run(1).result();
+
+        assertThat(result.toString()).startsWith("QueueElevator: score ");
+    }
+
+}
@@ -0,0 +1,64 @@
+package elevator.simulation;
+
+import elevator.BuildingDimension;
+import elevator.ConstantMaxNumberOfUsers;
+import elevator.engine.ElevatorEngine;
+import elevator.engine.ElevatorEnginesTest;
+import elevator.engine.queue.QueueElevator;
+import elevator.engine.scan.ScanElevator;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class TournamentTest {
+
+    private final List<Class<? extends ElevatorEngine>> elevatorEngines =
+            Arrays.<Class<? extends ElevatorEngine>>asList(QueueElevator.class, ScanElevator.class);
+
+    @Test
+    public void should_rank_engines_by_mean_score() {
+        TournamentReport report = new Tournament(elevatorEngines, new ConstantMaxNumberOfUsers(),
+                BuildingDimension.DEFAULT, 3, 5000, 42).run(new ForkJoinPool(2));
+
+        assertThat(report.standings()).hasSize(2);
+        TournamentReport.Standing first = report.standings().get(0);
+        TournamentReport.Standing second = report.standings().get(1);
+        assertThat(first.elevatorEngine).isEqualTo("ScanElevator");
+        assertThat(first.scenarios).isEqualTo(3);
+        assertThat(first.meanScore).isGreaterThan(second.meanScore);
+        assertThat(first.p99TickToWait).isGreaterThanOrEqualTo((int) first.meanTickToWait);
+    }
+
+    @Test
+    public void should_replay_the_same_scenarios_with_the_same_seed() {
+        Tournament tournament = new Tournament(elevatorEngines, new ConstantMaxNumberOfUsers(),
+                BuildingDimension.DEFAULT, 2, 2000, 7);
+
+        TournamentReport.Standing standing = tournament.run(new ForkJoinPool(2)).standings().get(0);
+        TournamentReport.Standing replayedStanding = tournament.run(new ForkJoinPool(1)).standings().get(0);
+
+        assertThat(replayedStanding.meanScore).isEqualTo(standing.meanScore);
+        assertThat(replayedStanding.meanTickToWait).isEqualTo(standing.meanTickToWait);
+    }
+
+    @Test
+    public void should_create_engines_for_the_building_of_the_tournament() {
+        TournamentReport report = new Tournament(elevatorEngines, new ConstantMaxNumberOfUsers(),
+                new BuildingDimension(-3, 4), 2, 2000, 7).run(new ForkJoinPool(2));
+
+        for (TournamentReport.Standing standing : report.standings()) {
+            assertThat(standing.meanResets).isZero();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_run_engine_that_cant_play_in_the_building_of_the_tournament() {
+        new Tournament(Arrays.<Class<? extends ElevatorEngine>>asList(ElevatorEnginesTest.WithoutBuildingDimension.class),
+                new ConstantMaxNumberOfUsers(), new BuildingDimension(-3, 4), 2, 2000, 7);
+    }
+
+}
@@ -0,0 +1,88 @@
+package elevator.traffic;
+
+import elevator.BuildingDimension;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class PoissonTrafficGeneratorTest {
+
+    private final BuildingDimension buildingDimension = new BuildingDimension(-2, 10);
+
+    @Test
+    public void should_draw_mean_arrivals_per_tick() {
+        PoissonTrafficGenerator trafficGenerator = new PoissonTrafficGenerator(buildingDimension, new SplitMix64(0),
+                new double[]{1.5}, 1, .5, .5);
+
+        long arrivals = 0;
+        for (int tick = 0; tick < 100000; tick++) {
+            arrivals += trafficGenerator.arrivals();
+        }
+
+        assertThat(arrivals / 100000.).isGreaterThan(1.45).isLessThan(1.55);
+    }
+
+    @Test
+    public void should_follow_arrivals_of_each_slot_of_the_day() {
+        PoissonTrafficGenerator trafficGenerator = new PoissonTrafficGenerator(buildingDimension, new SplitMix64(0),
+                new double[]{0, 2}, 10, .5, .5);
+
+        for (int day = 0; day < 3; day++) {
+            for (int tick = 0; tick < 10; tick++) {
+                assertThat(trafficGenerator.arrivals()).isEqualTo(0);
+            }
+            int arrivals = 0;
+            for (int tick = 0; tick < 10; tick++) {
+                arrivals += trafficGenerator.arrivals();
+            }
+            assertThat(arrivals).isGreaterThan(0);
+        }
+    }
+
+    @Test
+    public void should_only_generate_incoming_trips() {
+        PoissonTrafficGenerator trafficGenerator = new PoissonTrafficGenerator(buildingDimension, new SplitMix64(0),
+                new double[]{1}, 1, 1, 0);
+
+        for (int i = 0; i < 1000; i++) {
+            Trip trip = trafficGenerator.nextTrip();
+            assertThat(trip.initialFloor).isEqualTo(-2);
+            assertThat(trip.floorToGo).isGreaterThan(-2).isLessThanOrEqualTo(10);
+        }
+    }
+
+    @Test
+    public void should_only_generate_outgoing_trips() {
+        PoissonTrafficGenerator trafficGenerator = new PoissonTrafficGenerator(buildingDimension, new SplitMix64(0),
+                new double[]{1}, 1, 0, 1);
+
+        for (int i = 0; i < 1000; i++) {
+            Trip trip = trafficGenerator.nextTrip();
+            assertThat(trip.initialFloor).isGreaterThan(-2).isLessThanOrEqualTo(10);
+            assertThat(trip.floorToGo).isEqualTo(-2);
+        }
+    }
+
+    @Test
+    public void should_generate_interfloor_trips_between_any_floors() {
+        PoissonTrafficGenerator trafficGenerator = new PoissonTrafficGenerator(new BuildingDimension(0, 1),
+                new SplitMix64(0), new double[]{1}, 1, 0, 0);
+
+        boolean up = false;
+        boolean down = false;
+        for (int i = 0; i < 100; i++) {
+            Trip trip = trafficGenerator.nextTrip();
+            up |= trip.initialFloor == 0 && trip.floorToGo == 1;
+            down |= trip.initialFloor == 1 && trip.floorToGo == 0;
+        }
+
+        assertThat(up).isTrue();
+        assertThat(down).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_accept_shares_over_one() {
+        new PoissonTrafficGenerator(buildingDimension, new SplitMix64(0), new double[]{1}, 1, .6, .6);
+    }
+
+}
@@ -0,0 +1,34 @@
+package elevator.traffic;
+
+import elevator.BuildingDimension;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class RandomTrafficGeneratorTest {
+
+    private final BuildingDimension buildingDimension = new BuildingDimension(-2, 10);
+
+    @Test
+    public void should_generate_trips_within_the_building() {
+        RandomTrafficGenerator trafficGenerator = new RandomTrafficGenerator(buildingDimension, new SplitMix64(0));
+
+        for (int i = 0; i < 1000; i++) {
+            Trip trip = trafficGenerator.nextTrip();
+            assertThat(trip.initialFloor).isGreaterThanOrEqualTo(-2).isLessThan(10);
+            assertThat(trip.floorToGo).isGreaterThanOrEqualTo(-2).isLessThanOrEqualTo(10);
+            assertThat(trip.floorToGo).isNotEqualTo(trip.initialFloor);
+        }
+    }
+
+    @Test
+    public void should_generate_the_same_trips_with_the_same_seed() {
+        RandomTrafficGenerator trafficGenerator = new RandomTrafficGenerator(buildingDimension, new SplitMix64(7));
+        RandomTrafficGenerator sameTrafficGenerator = new RandomTrafficGenerator(buildingDimension, new SplitMix64(7));
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(sameTrafficGenerator.nextTrip()).isEqualTo(trafficGenerator.nextTrip());
+        }
+    }
+
+}
@@ -0,0 +1,61 @@
+package elevator.traffic;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class SplitMix64Test {
+
+    @Test
+    public void should_produce_the_same_sequence_with_the_same_seed() {
+        SplitMix64 random = new SplitMix64(42);
+        SplitMix64 sameRandom = new SplitMix64(42);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(sameRandom.nextLong()).isEqualTo(random.nextLong());
+        }
+    }
+
+    @Test
+    public void should_produce_different_sequences_with_different_seeds() {
+        assertThat(new SplitMix64(1).nextLong()).isNotEqualTo(new SplitMix64(2).nextLong());
+    }
+
+    @Test
+    public void should_draw_int_within_bound() {
+        SplitMix64 random = new SplitMix64(0);
+        boolean[] drawn = new boolean[6];
+
+        for (int i = 0; i < 1000; i++) {
+            int value = random.nextInt(6);
+            assertThat(value).isGreaterThanOrEqualTo(0).isLessThan(6);
+            drawn[value] = true;
+        }
+
+        assertThat(drawn).isEqualTo(new boolean[]{true, true, true, true, true, true});
+    }
+
+    @Test
+    public void should_draw_double_between_zero_and_one() {
+        SplitMix64 random = new SplitMix64(0);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(random.nextDouble()).isGreaterThanOrEqualTo(0).isLessThan(1);
+        }
+    }
+
+    @Test
+    public void should_split_into_an_independent_generator() {
+        SplitMix64 random = new SplitMix64(42);
+        SplitMix64 split = random.split();
+
+        assertThat(split.nextLong()).isNotEqualTo(random.nextLong());
+        assertThat(new SplitMix64(42).split().nextLong()).isEqualTo(new SplitMix64(42).split().nextLong());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_draw_int_with_a_negative_bound() {
+        new SplitMix64(0).nextInt(-1);
+    }
+
+}
@@ -0,0 +1,54 @@
+package elevator.traffic;
+
+import elevator.BuildingDimension;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class TraceTrafficGeneratorTest {
+
+    @Rule
+    public ExpectedException expectedException = none();
+
+    @Test
+    public void should_replay_trips_at_their_tick_then_start_again() throws IOException {
+        TraceTrafficGenerator trafficGenerator = TraceTrafficGenerator.read(BuildingDimension.DEFAULT, new StringReader(""
+                + "# tick, initial floor, floor to go\n"
+                + "0, 0, 3\n"
+                + "\n"
+                + "2 4 0\n"
+                + "2 1 5\n"));
+
+        for (int day = 0; day < 2; day++) {
+            assertThat(trafficGenerator.arrivals()).isEqualTo(1);
+            assertThat(trafficGenerator.nextTrip()).isEqualTo(new Trip(0, 3));
+            assertThat(trafficGenerator.arrivals()).isEqualTo(0);
+            assertThat(trafficGenerator.arrivals()).isEqualTo(2);
+            assertThat(trafficGenerator.nextTrip()).isEqualTo(new Trip(4, 0));
+            assertThat(trafficGenerator.nextTrip()).isEqualTo(new Trip(1, 5));
+        }
+    }
+
+    @Test
+    public void should_not_read_floors_outside_of_the_building() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("line 2: floor 6 is outside of building 0..5");
+
+        TraceTrafficGenerator.read(BuildingDimension.DEFAULT, new StringReader("0 0 3\n1 6 0\n"));
+    }
+
+    @Test
+    public void should_not_read_ticks_in_descending_order() throws IOException {
+        expectedException.expect(IllegalArgumentException.class);
+        expectedException.expectMessage("ascending order");
+
+        TraceTrafficGenerator.read(BuildingDimension.DEFAULT, new StringReader("1 0 3\n0 4 0\n"));
+    }
+
+}
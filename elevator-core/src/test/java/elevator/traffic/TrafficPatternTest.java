@@ -0,0 +1,70 @@
+package elevator.traffic;
+
+import elevator.BuildingDimension;
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class TrafficPatternTest {
+
+    @Test
+    public void should_bring_most_users_up_from_the_lower_floor_during_up_peak() {
+        TrafficGenerator trafficGenerator = TrafficPattern.UP_PEAK.newTrafficGenerator(BuildingDimension.DEFAULT,
+                new SplitMix64(0), 1, 800);
+
+        int incoming = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (trafficGenerator.nextTrip().initialFloor == 0) {
+                incoming++;
+            }
+        }
+
+        assertThat(incoming).isGreaterThan(800);
+    }
+
+    @Test
+    public void should_bring_most_users_down_to_the_lower_floor_during_down_peak() {
+        TrafficGenerator trafficGenerator = TrafficPattern.DOWN_PEAK.newTrafficGenerator(BuildingDimension.DEFAULT,
+                new SplitMix64(0), 1, 800);
+
+        int outgoing = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (trafficGenerator.nextTrip().floorToGo == 0) {
+                outgoing++;
+            }
+        }
+
+        assertThat(outgoing).isGreaterThan(800);
+    }
+
+    @Test
+    public void should_ramp_arrivals_up_to_the_peak() {
+        TrafficGenerator trafficGenerator = TrafficPattern.UP_PEAK.newTrafficGenerator(BuildingDimension.DEFAULT,
+                new SplitMix64(0), 2, 8000);
+
+        int firstSlotArrivals = 0;
+        for (int tick = 0; tick < 1000; tick++) {
+            firstSlotArrivals += trafficGenerator.arrivals();
+        }
+        for (int tick = 1000; tick < 3000; tick++) {
+            trafficGenerator.arrivals();
+        }
+        int peakArrivals = 0;
+        for (int tick = 3000; tick < 4000; tick++) {
+            peakArrivals += trafficGenerator.arrivals();
+        }
+
+        assertThat(firstSlotArrivals).isGreaterThan(100).isLessThan(300);
+        assertThat(peakArrivals).isGreaterThan(1800).isLessThan(2200);
+    }
+
+    @Test
+    public void should_keep_one_user_per_tick_by_default() {
+        assertThat(TrafficPattern.fromSystemProperty()).isEqualTo(TrafficPattern.RANDOM);
+        TrafficGenerator trafficGenerator = TrafficPattern.RANDOM.newTrafficGenerator(BuildingDimension.DEFAULT,
+                new SplitMix64(0));
+
+        assertThat(trafficGenerator.arrivals()).isEqualTo(1);
+    }
+
+}
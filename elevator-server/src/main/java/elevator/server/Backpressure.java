@@ -0,0 +1,87 @@
+package elevator.server;
+
+import elevator.server.latency.Endpoint;
+
+import java.net.URL;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * What to do with an event when the queue of events waiting to be sent to a participant is full.
+ */
+enum Backpressure {
+
+    /**
+     * The new event is discarded.
+     */
+    DROP {
+        @Override
+        boolean offer(Deque<URL> events, int capacity, URL event) {
+            if (events.size() < capacity) {
+                events.addLast(event);
+            }
+            return true;
+        }
+    },
+
+    /**
+     * Duplicated waiting calls are merged into their first occurrence, then the new event is discarded if it is a call
+     * already waiting or if there is still no room for it. Only calls are merged: a call at a floor in a direction
+     * replaces the same call, whereas every {@code userHasEntered}, {@code userHasExited} or {@code go} event tells
+     * about another user.
+     */
+    COALESCE {
+        @Override
+        boolean offer(Deque<URL> events, int capacity, URL event) {
+            if (events.size() >= capacity) {
+                Set<String> waitingCalls = new LinkedHashSet<>();
+                for (Iterator<URL> waitingEvent = events.iterator(); waitingEvent.hasNext(); ) {
+                    URL waitingCall = waitingEvent.next();
+                    if (isCall(waitingCall) && !waitingCalls.add(waitingCall.toExternalForm())) {
+                        waitingEvent.remove();
+                    }
+                }
+                if (waitingCalls.contains(event.toExternalForm())) {
+                    return true;
+                }
+            }
+            return DROP.offer(events, capacity, event);
+        }
+
+        private boolean isCall(URL event) {
+            return Endpoint.fromPath(event.getPath()) == Endpoint.CALL;
+        }
+    },
+
+    /**
+     * The elevator is broken: the participant is too slow to follow the game.
+     */
+    BREAK {
+        @Override
+        boolean offer(Deque<URL> events, int capacity, URL event) {
+            if (events.size() >= capacity) {
+                return false;
+            }
+            events.addLast(event);
+            return true;
+        }
+    };
+
+    static final String ELEVATOR_HTTP_BACKPRESSURE_PROPERTY = "elevator.http.backpressure";
+
+    /**
+     * @return false when the elevator has to be considered as broken
+     */
+    abstract boolean offer(Deque<URL> events, int capacity, URL event);
+
+    static Backpressure fromSystemProperty() {
+        String backpressure = System.getProperty(ELEVATOR_HTTP_BACKPRESSURE_PROPERTY);
+        if (backpressure == null) {
+            return BREAK;
+        }
+        return valueOf(backpressure.trim().toUpperCase());
+    }
+
+}
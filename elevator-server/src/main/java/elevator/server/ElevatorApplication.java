@@ -4,6 +4,7 @@ import com.google.common.collect.Sets;
 import elevator.server.security.AdminAuthorizationFilter;
 import elevator.server.security.UserAuthorizationFilter;
 import org.codehaus.jackson.jaxrs.JacksonJsonProvider;
+import org.glassfish.jersey.media.sse.SseFeature;
 
 import javax.ws.rs.core.Application;
 import java.util.HashSet;
@@ -19,13 +20,14 @@ public class ElevatorApplication extends Application {
         ElevatorServer server = new ElevatorServer();
         singletons = newHashSet(
                 new WebResource(server),
+                new StreamResource(server),
                 new UserAuthorizationFilter(server),
                 new AdminAuthorizationFilter());
     }
 
     @Override
     public Set<Class<?>> getClasses() {
-        return Sets.<Class<?>>newHashSet(JacksonJsonProvider.class);
+        return Sets.<Class<?>>newHashSet(JacksonJsonProvider.class, SseFeature.class);
     }
 
     @Override
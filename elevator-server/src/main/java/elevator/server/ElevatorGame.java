@@ -2,6 +2,16 @@ package elevator.server;
 
 import elevator.*;
 import elevator.exception.ElevatorIsBrokenException;
+import elevator.server.http.CircuitBreaker;
+import elevator.server.http.ConnectionPool;
+import elevator.server.http.PooledURLStreamHandler;
+import elevator.server.http.Transport;
+import elevator.server.journal.Journal;
+import elevator.server.latency.Latencies;
+import elevator.server.metrics.BrokenCause;
+import elevator.server.metrics.Metrics;
+import elevator.traffic.RandomTrafficGenerator;
+import elevator.traffic.TrafficGenerator;
 
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -20,21 +30,55 @@ class ElevatorGame implements ClockListener {
     State state;
 
     private final Clock clock;
+    private final ConnectionPool connectionPool;
     private final HTTPElevator elevatorEngine;
+    private final JournalingElevatorEngine journalingElevatorEngine;
     private final Building building;
     private final Score score;
+    private final Metrics metrics;
 
-    ElevatorGame(Player player, URL url, MaxNumberOfUsers maxNumberOfUsers, Clock clock) throws MalformedURLException {
+    private volatile Journal journal;
+
+    static Builder builder(Player player, URL url, MaxNumberOfUsers maxNumberOfUsers, Clock clock) {
+        return new Builder(player, url, maxNumberOfUsers, clock);
+    }
+
+    private ElevatorGame(Builder builder) throws MalformedURLException {
+        Player player = builder.player;
+        URL url = builder.url;
+        Clock clock = builder.clock;
+        BuildingDimension buildingDimension = builder.buildingDimension;
+        Journal journal = builder.journal;
         if (!HTTP.equals(url.getProtocol())) {
             throw new IllegalArgumentException("http is the only supported protocol");
         }
         this.player = player;
-        this.elevatorEngine = new HTTPElevator(url, clock.EXECUTOR_SERVICE);
-        this.building = new Building(elevatorEngine, maxNumberOfUsers);
+        this.connectionPool = new ConnectionPool();
+        this.elevatorEngine = HTTPElevator.builder(url, clock.EXECUTOR_SERVICE)
+                .urlStreamHandler(new PooledURLStreamHandler(connectionPool))
+                .negotiateProtocol()
+                .buildingDimension(buildingDimension)
+                .metrics(builder.metrics)
+                .circuitBreaker(new CircuitBreaker(new CircuitBreaker.Listener() {
+                    @Override
+                    public void stateChanged(CircuitBreaker.State state, String message) {
+                        circuitBreakerStateChanged(state, message);
+                    }
+                }))
+                .client(Transport.fromSystemProperty().client())
+                .build();
+        TrafficGenerator trafficGenerator = builder.trafficGenerator == null
+                ? new RandomTrafficGenerator(buildingDimension) : builder.trafficGenerator;
+        this.journalingElevatorEngine = new JournalingElevatorEngine(elevatorEngine, journal, clock);
+        this.building = new Building(journalingElevatorEngine, builder.maxNumberOfUsers, buildingDimension,
+                trafficGenerator);
         this.clock = clock;
-        this.score = new Score();
+        this.score = builder.score;
+        this.metrics = builder.metrics;
+        this.journal = journal;
         this.lastErrorMessage = null;
         this.state = RESUME;
+        journal.start(clock.currentTick(), player.email, player.pseudo, buildingDimension, score.value());
         this.resume();
         this.resetElevatorEngine("the elevator is at the lowest level and its doors are closed");
     }
@@ -42,15 +86,40 @@ class ElevatorGame implements ClockListener {
     ElevatorGame stop() {
         clock.removeClockListener(this);
         state = PAUSE;
+        journal.paused(clock.currentTick());
         return this;
     }
 
     ElevatorGame resume() {
         clock.addClockListener(this);
         state = RESUME;
+        journal.resumed(clock.currentTick());
+        return this;
+    }
+
+    /**
+     * Starts recording this game in a journal, once it is known to be the game of its player: a game that loses the
+     * race to be added must not write into, nor close, the journal of the game that wins it.
+     */
+    ElevatorGame journal(Journal journal) {
+        journal.start(clock.currentTick(), player.email, player.pseudo, building.dimension(), score.value());
+        if (state == PAUSE) {
+            journal.paused(clock.currentTick());
+        }
+        this.journal = journal;
+        journalingElevatorEngine.journal(journal);
         return this;
     }
 
+    /**
+     * Stops this game for good, the player has left.
+     */
+    void close() {
+        stop();
+        connectionPool.close();
+        journal.close(clock.currentTick());
+    }
+
     int floor() {
         return building.floor();
     }
@@ -59,6 +128,18 @@ class ElevatorGame implements ClockListener {
         return building.travelingUsers();
     }
 
+    int pendingEvents() {
+        return elevatorEngine.pendingEvents();
+    }
+
+    Latencies latencies() {
+        return elevatorEngine.latencies();
+    }
+
+    int lowerFloor() {
+        return building.dimension().getLowerFloor();
+    }
+
     public int[] waitingUsersByFloors() {
         return building.waitingUsersByFloors();
     }
@@ -67,15 +148,34 @@ class ElevatorGame implements ClockListener {
         return Door.OPEN.equals(building.door());
     }
 
+    CircuitBreaker.State circuitBreakerState() {
+        return elevatorEngine.circuitBreakerState();
+    }
+
+    int timeoutInMillis() {
+        return elevatorEngine.timeoutInMillis();
+    }
+
+    ConnectionPool connectionPool() {
+        return connectionPool;
+    }
+
     @Override
     public ClockListener onTick() {
+        if (elevatorEngine.skipsTick()) {
+            return this;
+        }
         try {
             building.addUser();
             Set<User> doneUsers = building.updateBuildingState();
             for (User doneUser : doneUsers) {
+                int previousScore = score.value();
                 score.success(doneUser);
+                journal.userDone(clock.currentTick(), doneUser, score.value() - previousScore);
             }
         } catch (ElevatorIsBrokenException e) {
+            metrics.elevatorIsBroken(e instanceof ParticipantServerException
+                    ? ((ParticipantServerException) e).getBrokenCause() : BrokenCause.ILLEGAL_COMMAND);
             reset(e.getMessage());
         }
         return this;
@@ -101,25 +201,120 @@ class ElevatorGame implements ClockListener {
     }
 
     Integer score() {
-        return score.score;
+        return score.value();
     }
 
-    void reset(String message) {
+    /**
+     * @return score lost by the reset, including the penalty of an elevator that breaks while being reset
+     */
+    int reset(String message) {
+        int previousScore = score.value();
         building.reset();
         score.loose();
         lastErrorMessage = message;
-        resetElevatorEngine(lastErrorMessage);
+        journal.reset(clock.currentTick(), previousScore - score.value(), message);
+        return previousScore - score.value() + resetElevatorEngine(lastErrorMessage);
+    }
+
+    /**
+     * Once the participant server answers again, the building and the elevator are reset so that they agree, without
+     * any penalty: the player has already lost points when the elevator broke.
+     */
+    private void circuitBreakerStateChanged(CircuitBreaker.State state, String message) {
+        metrics.circuitBreakerStateChanged(state);
+        lastErrorMessage = message;
+        if (state == CircuitBreaker.State.CLOSED) {
+            building.reset();
+            journal.reset(clock.currentTick(), 0, message);
+            resetElevatorEngine(message);
+        }
     }
 
-    private void resetElevatorEngine(String cause) {
+    /**
+     * @return score lost because the elevator has broken while being reset
+     */
+    private int resetElevatorEngine(String cause) {
         try {
             elevatorEngine.reset(cause);
+            return 0;
         } catch (ElevatorIsBrokenException e) {
+            int previousScore = score.value();
             score.loose();
+            journal.scoreLost(clock.currentTick(), previousScore - score.value());
+            return previousScore - score.value();
         }
     }
 
     enum State {
         RESUME, PAUSE
     }
+
+    static class Builder {
+
+        private final Player player;
+        private final URL url;
+        private final MaxNumberOfUsers maxNumberOfUsers;
+        private final Clock clock;
+
+        private BuildingDimension buildingDimension;
+        private TrafficGenerator trafficGenerator;
+        private Metrics metrics;
+        private Journal journal;
+        private Score score;
+
+        private Builder(Player player, URL url, MaxNumberOfUsers maxNumberOfUsers, Clock clock) {
+            this.player = player;
+            this.url = url;
+            this.maxNumberOfUsers = maxNumberOfUsers;
+            this.clock = clock;
+            this.buildingDimension = BuildingDimension.DEFAULT;
+            this.trafficGenerator = null;
+            this.metrics = new Metrics();
+            this.journal = Journal.NONE;
+            this.score = new Score();
+        }
+
+        Builder buildingDimension(BuildingDimension buildingDimension) {
+            this.buildingDimension = buildingDimension;
+            return this;
+        }
+
+        /**
+         * @param trafficGenerator brings users into the building, random in the building dimension if not given
+         */
+        Builder trafficGenerator(TrafficGenerator trafficGenerator) {
+            this.trafficGenerator = trafficGenerator;
+            return this;
+        }
+
+        /**
+         * @param metrics counts broken elevators and transport errors, shared with other games
+         */
+        Builder metrics(Metrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * @param journal records every tick of this game, closed by {@link ElevatorGame#close()}
+         */
+        Builder journal(Journal journal) {
+            this.journal = journal;
+            return this;
+        }
+
+        /**
+         * @param score score of the player so far, when its game is restored after a restart of the server
+         */
+        Builder score(Score score) {
+            this.score = score;
+            return this;
+        }
+
+        ElevatorGame build() throws MalformedURLException {
+            return new ElevatorGame(this);
+        }
+
+    }
+
 }
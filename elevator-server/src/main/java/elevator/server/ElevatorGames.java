@@ -0,0 +1,95 @@
+package elevator.server;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Collections.unmodifiableCollection;
+
+/**
+ * Games by email of their player. Lookups go through a hash map, the leaderboard iterates a skip list sorted by email;
+ * both are read without any lock, while request threads add and remove games and the clock ticks them. Additions and
+ * removals of a given email are serialized on one of a few striped locks, so that both maps always agree. A version is
+ * incremented by every addition and removal, so that readers can tell whether games have changed since they last looked.
+ */
+class ElevatorGames {
+
+    private static final int STRIPES = 16;
+
+    private final ConcurrentMap<String, ElevatorGame> gamesByEmail = new ConcurrentHashMap<>();
+    private final ConcurrentNavigableMap<String, ElevatorGame> sortedGames = new ConcurrentSkipListMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    private final AtomicLong version = new AtomicLong();
+
+    ElevatorGames() {
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            locks[stripe] = new Object();
+        }
+    }
+
+    boolean contains(String email) {
+        return gamesByEmail.containsKey(email);
+    }
+
+    /**
+     * @return game of the player with this email, null if there is none
+     */
+    ElevatorGame get(String email) {
+        return gamesByEmail.get(email);
+    }
+
+    /**
+     * @return false if there is already a game for this player, in which case the given game is not added
+     */
+    boolean add(ElevatorGame elevatorGame) {
+        String email = elevatorGame.player.email;
+        synchronized (lock(email)) {
+            if (gamesByEmail.putIfAbsent(email, elevatorGame) != null) {
+                return false;
+            }
+            sortedGames.put(email, elevatorGame);
+            version.incrementAndGet();
+            return true;
+        }
+    }
+
+    /**
+     * @return removed game, null if there was none
+     */
+    ElevatorGame remove(String email) {
+        synchronized (lock(email)) {
+            ElevatorGame elevatorGame = gamesByEmail.remove(email);
+            if (elevatorGame != null) {
+                sortedGames.remove(email);
+                version.incrementAndGet();
+            }
+            return elevatorGame;
+        }
+    }
+
+    /**
+     * @return games sorted by email; iterating them never fails while games are added or removed
+     */
+    Collection<ElevatorGame> values() {
+        return unmodifiableCollection(sortedGames.values());
+    }
+
+    int size() {
+        return gamesByEmail.size();
+    }
+
+    /**
+     * @return number of additions and removals so far
+     */
+    long version() {
+        return version.get();
+    }
+
+    private Object lock(String email) {
+        return locks[(email.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+}
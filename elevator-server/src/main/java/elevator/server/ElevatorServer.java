@@ -1,15 +1,41 @@
 package elevator.server;
 
+import elevator.BuildingDimension;
 import elevator.Clock;
+import elevator.Score;
+import elevator.clock.DaemonThreadFactory;
+import elevator.clock.ExecutionMode;
+import elevator.clock.TickReport;
+import elevator.logging.ElevatorLogger;
+import elevator.server.http.CircuitBreaker;
+import elevator.server.http.ConnectionPool;
+import elevator.server.journal.Journals;
+import elevator.server.latency.LatencyStatistics;
+import elevator.server.metrics.BrokenCause;
+import elevator.server.metrics.HttpClientError;
+import elevator.server.metrics.Metrics;
+import elevator.server.metrics.PrometheusText;
+import elevator.server.registry.Registration;
+import elevator.server.registry.Registry;
+import elevator.server.security.StoredPassword;
 import elevator.server.security.UserPasswordValidator;
+import elevator.traffic.SplitMix64;
+import elevator.traffic.TrafficPattern;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
@@ -17,29 +43,144 @@ import static java.util.concurrent.TimeUnit.SECONDS;
 
 class ElevatorServer implements UserPasswordValidator {
 
-    private final Map<Player, ElevatorGame> elevatorGames = new TreeMap<>();
-    private final Clock clock = new Clock();
+    private static final long REGISTRY_SNAPSHOT_PERIOD = 60;
+    /**
+     * A stalled subscriber holds one writer thread until its write fails, so writers are bounded: once they are all
+     * busy, the writes of other subscribers wait in the queue, which holds at most one write per subscriber.
+     */
+    private static final int EVENT_STREAM_WRITERS = 16;
+
+    private final ElevatorGames elevatorGames = new ElevatorGames();
+    private final Clock clock = new Clock(ExecutionMode.fromSystemProperty());
+    private final BuildingDimension buildingDimension = BuildingDimension.fromSystemProperties();
+    private final TrafficPattern trafficPattern = TrafficPattern.fromSystemProperty();
+    private final Leaderboard leaderboard = new Leaderboard(elevatorGames, clock);
+    private final ExecutorService eventStreamsExecutorService =
+            Executors.newFixedThreadPool(EVENT_STREAM_WRITERS, new DaemonThreadFactory("elevator-event-streams"));
+    private final EventStreams eventStreams = new EventStreams(eventStreamsExecutorService);
+    private final Metrics metrics = new Metrics();
+    private final Journals journals = Journals.fromSystemProperty();
+    private final Registry registry = Registry.fromSystemProperty();
+    private final Logger logger = new ElevatorLogger("ElevatorServer").logger();
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("elevator-server-scheduler"));
+    private final ScheduledExecutorService registrySnapshots =
+            Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("elevator-registry-snapshot"));
 
     private MaxNumberOfUsers maxNumberOfUsers = new MaxNumberOfUsers();
 
     ElevatorServer() {
-        Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(new Runnable() {
+        scheduler.scheduleAtFixedRate(new Runnable() {
             @Override
             public void run() {
                 clock.tick();
             }
         }, 0, 1, SECONDS);
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    eventStreams.publish(leaderboard.snapshot());
+                } catch (RuntimeException e) {
+                    // an exception would cancel every following publication
+                }
+            }
+        }, 0, 1, SECONDS);
+        restoreElevatorGames();
+    }
+
+    /**
+     * Reads registered players from disk, then restores their games in the background: each game asks its
+     * participant server for its protocol, which may take a while.
+     */
+    private void restoreElevatorGames() {
+        Collection<Registration> registrations;
+        try {
+            registrations = registry.restore();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "can't restore registered players", e);
+            return;
+        }
+        for (final Registration registration : registrations) {
+            clock.EXECUTOR_SERVICE.execute(new Runnable() {
+                @Override
+                public void run() {
+                    restoreElevatorGame(registration);
+                }
+            });
+        }
+        if (registry.isPersistent()) {
+            registrySnapshots.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    Map<String, Integer> scores = new HashMap<>();
+                    for (ElevatorGame elevatorGame : elevatorGames.values()) {
+                        scores.put(elevatorGame.player.email, elevatorGame.score());
+                    }
+                    registry.snapshot(scores);
+                }
+            }, REGISTRY_SNAPSHOT_PERIOD, REGISTRY_SNAPSHOT_PERIOD, SECONDS);
+        }
+    }
+
+    /**
+     * Stops the clock, the leaderboard publications and the registry snapshots. Games are not closed: they are
+     * restored from the registry on next start.
+     */
+    void shutdown() {
+        scheduler.shutdownNow();
+        registrySnapshots.shutdownNow();
+        eventStreamsExecutorService.shutdownNow();
+        clock.shutdown();
+    }
+
+    private void restoreElevatorGame(Registration registration) {
+        Player player = new Player(registration.email, registration.pseudo, new StoredPassword(registration.password));
+        try {
+            ElevatorGame elevatorGame = ElevatorGame.builder(player, new URL(registration.serverURL),
+                    maxNumberOfUsers, clock)
+                    .buildingDimension(buildingDimension)
+                    .trafficGenerator(trafficPattern.newTrafficGenerator(buildingDimension, new SplitMix64()))
+                    .metrics(metrics)
+                    .score(new Score(registration.score))
+                    .build();
+            if (!elevatorGames.add(elevatorGame)) {
+                // the player has registered again before its game has been restored
+                elevatorGame.close();
+                return;
+            }
+            elevatorGame.journal(journals.open(player.email));
+            if (registration.paused) {
+                elevatorGame.stop();
+            }
+        } catch (MalformedURLException | RuntimeException e) {
+            logger.log(Level.WARNING, "can't restore game of " + player, e);
+        }
     }
 
     public ElevatorServer addElevatorGame(Player player, URL server) throws MalformedURLException {
-        if (elevatorGames.containsKey(player)) {
-            throw new IllegalStateException("a game with player " + player + " has already have been added");
+        if (elevatorGames.contains(player.email)) {
+            throw alreadyAdded(player);
         }
-        ElevatorGame elevatorGame = new ElevatorGame(player, server, maxNumberOfUsers, clock);
-        elevatorGames.put(player, elevatorGame);
+        ElevatorGame elevatorGame = ElevatorGame.builder(player, server, maxNumberOfUsers, clock)
+                .buildingDimension(buildingDimension)
+                .trafficGenerator(trafficPattern.newTrafficGenerator(buildingDimension, new SplitMix64()))
+                .metrics(metrics)
+                .build();
+        if (!elevatorGames.add(elevatorGame)) {
+            // the same player has subscribed twice at the same time
+            elevatorGame.close();
+            throw alreadyAdded(player);
+        }
+        elevatorGame.journal(journals.open(player.email));
+        registry.registered(player.email, player.pseudo, player.password.value(), server.toString());
         return this;
     }
 
+    private static IllegalStateException alreadyAdded(Player player) {
+        return new IllegalStateException("a game with player " + player + " has already have been added");
+    }
+
     @Override
     public Boolean validate(String email, String password) {
         ElevatorGame elevatorGame = elevatorGame(email, FALSE);
@@ -51,31 +192,169 @@ class ElevatorServer implements UserPasswordValidator {
     }
 
     void removeElevatorGame(String email) {
-        ElevatorGame elevatorGame = elevatorGame(email, FALSE);
+        ElevatorGame elevatorGame = elevatorGames.remove(email);
         if (elevatorGame != null) {
-            elevatorGame.stop();
-            elevatorGames.remove(elevatorGame.player);
+            elevatorGame.close();
+            registry.unregistered(email);
         }
     }
 
     void pauseElevatorGame(String email) {
         elevatorGame(email).stop();
+        registry.paused(email);
     }
 
     void resumeElevatorGame(String email) {
         elevatorGame(email).resume();
+        registry.resumed(email);
     }
 
     PlayerInfo getPlayerInfo(String email) throws PlayerNotFoundException {
         return elevatorGame(email).getPlayerInfo();
     }
 
+    PlayerInfoChanges getPlayerInfoChanges(String email, Long since) throws PlayerNotFoundException {
+        return leaderboard.playerInfoChanges(email, since);
+    }
+
     void resetPlayer(String email) {
-        elevatorGame(email).reset("player has requested a reset");
+        int lostScore = elevatorGame(email).reset("player has requested a reset");
+        registry.reset(email, lostScore);
     }
 
     public Collection<ElevatorGame> getUnmodifiableElevatorGames() {
-        return Collections.unmodifiableCollection(elevatorGames.values());
+        return elevatorGames.values();
+    }
+
+    Leaderboard.Snapshot leaderboard() {
+        return leaderboard.snapshot();
+    }
+
+    EventStreams eventStreams() {
+        return eventStreams;
+    }
+
+    /**
+     * @return latency statistics by endpoint, by email of players
+     */
+    Map<String, Map<String, LatencyStatistics>> getLatencies() {
+        Map<String, Map<String, LatencyStatistics>> latencies = new LinkedHashMap<>();
+        for (ElevatorGame elevatorGame : elevatorGames.values()) {
+            latencies.put(elevatorGame.player.email, elevatorGame.latencies().statistics());
+        }
+        return latencies;
+    }
+
+    /**
+     * @return metrics of the clock, of the executors, of the games and of participant servers, in the Prometheus text
+     * format
+     */
+    String getMetrics() {
+        PrometheusText metrics = new PrometheusText();
+
+        long currentTick = clock.currentTick();
+        TickReport lastTickReport = clock.lastTickReport();
+        metrics.counter("elevator_clock_ticks_total", "Ticks started since the server has started")
+                .sample("elevator_clock_ticks_total", currentTick);
+        metrics.gauge("elevator_clock_tick_lag", "Ticks started but not completed yet")
+                .sample("elevator_clock_tick_lag", currentTick - (lastTickReport == null ? 0 : lastTickReport.tick));
+        if (lastTickReport != null) {
+            metrics.gauge("elevator_clock_tick_duration_seconds", "Duration of the last completed tick")
+                    .sample("elevator_clock_tick_duration_seconds", lastTickReport.durationInMillis / 1000d);
+            metrics.gauge("elevator_clock_tick_skipped_listeners", "Games skipped by the last completed tick because their previous tick was still running")
+                    .sample("elevator_clock_tick_skipped_listeners", lastTickReport.skippedListeners);
+        }
+
+        metrics.gauge("elevator_executor_queue_depth", "Tasks waiting for a thread");
+        executorQueueDepth(metrics, "tasks", clock.EXECUTOR_SERVICE);
+        executorQueueDepth(metrics, "ticks", clock.tickExecutorService());
+        executorQueueDepth(metrics, "streams", eventStreamsExecutorService);
+        metrics.gauge("elevator_executor_active_threads", "Threads running a task");
+        executorActiveThreads(metrics, "tasks", clock.EXECUTOR_SERVICE);
+        executorActiveThreads(metrics, "ticks", clock.tickExecutorService());
+        executorActiveThreads(metrics, "streams", eventStreamsExecutorService);
+
+        Map<ElevatorGame.State, Integer> games = new EnumMap<>(ElevatorGame.State.class);
+        for (ElevatorGame.State state : ElevatorGame.State.values()) {
+            games.put(state, 0);
+        }
+        Map<CircuitBreaker.State, Integer> circuitBreakers = new EnumMap<>(CircuitBreaker.State.class);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            circuitBreakers.put(state, 0);
+        }
+        metrics.gauge("elevator_participant_timeout_seconds", "Connect and read timeout of requests, by participant server");
+        for (ElevatorGame elevatorGame : elevatorGames.values()) {
+            CircuitBreaker.State circuitBreakerState = elevatorGame.circuitBreakerState();
+            circuitBreakers.put(circuitBreakerState, circuitBreakers.get(circuitBreakerState) + 1);
+            metrics.sample("elevator_participant_timeout_seconds", elevatorGame.timeoutInMillis() / 1000d,
+                    "player", elevatorGame.player.email);
+        }
+        metrics.counter("elevator_http_pool_leases_total", "Connections leased from the pool of each participant server, by result");
+        for (ElevatorGame elevatorGame : elevatorGames.values()) {
+            ConnectionPool connectionPool = elevatorGame.connectionPool();
+            metrics.sample("elevator_http_pool_leases_total", connectionPool.hits(), "player", elevatorGame.player.email, "result", "hit")
+                    .sample("elevator_http_pool_leases_total", connectionPool.misses(), "player", elevatorGame.player.email, "result", "miss");
+        }
+        metrics.counter("elevator_http_pool_evictions_total", "Idle connections closed by the pool of each participant server");
+        for (ElevatorGame elevatorGame : elevatorGames.values()) {
+            metrics.sample("elevator_http_pool_evictions_total", elevatorGame.connectionPool().evictions(),
+                    "player", elevatorGame.player.email);
+        }
+        metrics.gauge("elevator_http_pool_idle_connections", "Idle connections in the pool of each participant server");
+        for (ElevatorGame elevatorGame : elevatorGames.values()) {
+            metrics.sample("elevator_http_pool_idle_connections", elevatorGame.connectionPool().idleConnections(),
+                    "player", elevatorGame.player.email);
+        }
+        metrics.gauge("elevator_building_users", "Users waiting for the elevator or traveling in it, by building");
+        for (ElevatorGame elevatorGame : elevatorGames.values()) {
+            games.put(elevatorGame.state, games.get(elevatorGame.state) + 1);
+            int waitingUsers = 0;
+            for (int waitingUsersAtFloor : elevatorGame.waitingUsersByFloors()) {
+                waitingUsers += waitingUsersAtFloor;
+            }
+            metrics.sample("elevator_building_users", waitingUsers, "player", elevatorGame.player.email, "state", "waiting")
+                    .sample("elevator_building_users", elevatorGame.travelingUsers(), "player", elevatorGame.player.email, "state", "traveling");
+        }
+        metrics.gauge("elevator_games", "Games by state");
+        for (Map.Entry<ElevatorGame.State, Integer> gamesByState : games.entrySet()) {
+            metrics.sample("elevator_games", gamesByState.getValue(), "state", gamesByState.getKey().name());
+        }
+
+        metrics.counter("elevator_broken_total", "Elevators reset because they are broken, by cause");
+        for (BrokenCause cause : BrokenCause.values()) {
+            metrics.sample("elevator_broken_total", this.metrics.brokenElevators(cause), "cause", cause.name());
+        }
+        metrics.counter("elevator_http_client_errors_total", "Failed requests to participant servers, by error");
+        for (HttpClientError error : HttpClientError.values()) {
+            metrics.sample("elevator_http_client_errors_total", this.metrics.httpClientErrors(error), "error", error.name());
+        }
+        metrics.gauge("elevator_circuit_breakers", "Circuit breakers of participant servers, by state");
+        for (Map.Entry<CircuitBreaker.State, Integer> circuitBreakersByState : circuitBreakers.entrySet()) {
+            metrics.sample("elevator_circuit_breakers", circuitBreakersByState.getValue(),
+                    "state", circuitBreakersByState.getKey().name());
+        }
+        metrics.counter("elevator_circuit_breaker_transitions_total", "Changes of state of circuit breakers, by new state");
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            metrics.sample("elevator_circuit_breaker_transitions_total", this.metrics.circuitBreakerTransitions(state),
+                    "state", state.name());
+        }
+        metrics.counter("elevator_log_records_dropped_total", "Log records dropped because the console was too slow")
+                .sample("elevator_log_records_dropped_total", ElevatorLogger.droppedRecords());
+        return metrics.toString();
+    }
+
+    private static void executorQueueDepth(PrometheusText metrics, String executor, ExecutorService executorService) {
+        if (executorService instanceof ThreadPoolExecutor) {
+            metrics.sample("elevator_executor_queue_depth", ((ThreadPoolExecutor) executorService).getQueue().size(),
+                    "executor", executor);
+        }
+    }
+
+    private static void executorActiveThreads(PrometheusText metrics, String executor, ExecutorService executorService) {
+        if (executorService instanceof ThreadPoolExecutor) {
+            metrics.sample("elevator_executor_active_threads", ((ThreadPoolExecutor) executorService).getActiveCount(),
+                    "executor", executor);
+        }
     }
 
     Integer getMaxNumberOfUsers() {
@@ -95,14 +374,11 @@ class ElevatorServer implements UserPasswordValidator {
     }
 
     private ElevatorGame elevatorGame(String email, Boolean failOnError) {
-        Player player = new Player(email);
-        if (!elevatorGames.containsKey(player)) {
-            if (failOnError) {
-                throw new PlayerNotFoundException(player.email);
-            }
-            return null;
+        ElevatorGame elevatorGame = elevatorGames.get(email);
+        if (elevatorGame == null && failOnError) {
+            throw new PlayerNotFoundException(email);
         }
-        return elevatorGames.get(player);
+        return elevatorGame;
     }
 
 }
@@ -0,0 +1,177 @@
+package elevator.server;
+
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Events waiting to be sent to one participant. They are sent one at a time and in the order they were offered: at
+ * most one task per participant drains the queue on the shared executor. The queue holds at most {@code capacity}
+ * events; what happens beyond is decided by a {@link Backpressure} policy.
+ * <p>
+ * An {@link AsyncSender} returns before its event is sent: the queue is then drained again by the thread that tells
+ * the event has been sent, so that no thread waits while an event is on its way.
+ */
+class EventQueue {
+
+    static final String ELEVATOR_HTTP_QUEUE_CAPACITY_PROPERTY = "elevator.http.queueCapacity";
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private final Executor executor;
+    private final int capacity;
+    private final Backpressure backpressure;
+    private final AsyncSender sender;
+    private final Deque<URL> events;
+    private final Runnable drain;
+
+    private boolean draining;
+    private boolean overflowed;
+
+    EventQueue(Executor executor, Sender sender) {
+        this(executor, asynchronous(sender));
+    }
+
+    EventQueue(Executor executor, AsyncSender sender) {
+        this(executor, Integer.getInteger(ELEVATOR_HTTP_QUEUE_CAPACITY_PROPERTY, DEFAULT_CAPACITY),
+                Backpressure.fromSystemProperty(), sender);
+    }
+
+    EventQueue(Executor executor, int capacity, Backpressure backpressure, Sender sender) {
+        this(executor, capacity, backpressure, asynchronous(sender));
+    }
+
+    EventQueue(Executor executor, int capacity, Backpressure backpressure, AsyncSender sender) {
+        this.executor = executor;
+        this.capacity = capacity;
+        this.backpressure = backpressure;
+        this.sender = sender;
+        this.events = new ArrayDeque<>(capacity);
+        this.drain = new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        };
+        this.draining = false;
+        this.overflowed = false;
+    }
+
+    /**
+     * @return false when the queue is full and the policy is to break the elevator
+     */
+    boolean offer(URL event) {
+        synchronized (this) {
+            if (!backpressure.offer(events, capacity, event)) {
+                overflowed = true;
+                events.clear();
+                return false;
+            }
+            if (draining || events.isEmpty()) {
+                return true;
+            }
+            draining = true;
+        }
+        try {
+            executor.execute(drain);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                draining = false;
+            }
+            throw e;
+        }
+        return true;
+    }
+
+    synchronized void clear() {
+        events.clear();
+        overflowed = false;
+    }
+
+    synchronized int size() {
+        return events.size();
+    }
+
+    synchronized boolean overflowed() {
+        return overflowed;
+    }
+
+    private void drain() {
+        while (true) {
+            URL event;
+            synchronized (this) {
+                event = events.pollFirst();
+                if (event == null) {
+                    draining = false;
+                    return;
+                }
+            }
+            Sent sent = new Sent();
+            try {
+                sender.send(event, sent);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    draining = false;
+                }
+                throw e;
+            }
+            if (!sent.beforeReturn()) {
+                return;
+            }
+        }
+    }
+
+    private static AsyncSender asynchronous(final Sender sender) {
+        return new AsyncSender() {
+            @Override
+            public void send(URL event, Runnable sent) {
+                sender.send(event);
+                sent.run();
+            }
+        };
+    }
+
+    interface Sender {
+
+        void send(URL event);
+
+    }
+
+    interface AsyncSender {
+
+        /**
+         * @param sent to run once the event is sent, whether it has succeeded or not
+         */
+        void send(URL event, Runnable sent);
+
+    }
+
+    /**
+     * Tells whether an event was sent before its sender returned, in which case the draining thread goes on with the
+     * next event; otherwise the thread telling the event has been sent drains the rest of the queue.
+     */
+    private class Sent implements Runnable {
+
+        private static final int SENDING = 0;
+        private static final int SENT = 1;
+        private static final int RETURNED = 2;
+
+        private final AtomicInteger state = new AtomicInteger(SENDING);
+
+        @Override
+        public void run() {
+            if (!state.compareAndSet(SENDING, SENT)) {
+                drain();
+            }
+        }
+
+        boolean beforeReturn() {
+            return !state.compareAndSet(SENDING, RETURNED);
+        }
+
+    }
+
+}
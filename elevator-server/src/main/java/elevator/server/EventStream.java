@@ -0,0 +1,135 @@
+package elevator.server;
+
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.newSetFromMap;
+
+/**
+ * Server-sent events pushed to every subscriber of a stream. An event is published once for all subscribers, then
+ * each subscriber is written by its own task, so that a slow subscriber never delays the others. A subscriber only
+ * keeps the latest event that has not been written to it yet: a slow subscriber skips intermediate events instead of
+ * buffering them, and is sent the whole state instead of a change it could not apply.
+ */
+class EventStream {
+
+    private final Executor executor;
+    private final Set<Subscriber> subscribers;
+
+    private OutboundEvent lastState;
+    private boolean closed;
+
+    EventStream(Executor executor) {
+        this.executor = executor;
+        this.subscribers = newSetFromMap(new ConcurrentHashMap<Subscriber, Boolean>());
+        this.lastState = null;
+        this.closed = false;
+    }
+
+    /**
+     * Sends the last published state to the new subscriber, if any, then every following event.
+     *
+     * @return false if this stream has been closed, in which case the subscriber is not added
+     */
+    synchronized boolean subscribe(EventOutput eventOutput) {
+        if (closed) {
+            return false;
+        }
+        Subscriber subscriber = new Subscriber(eventOutput);
+        subscribers.add(subscriber);
+        if (lastState != null) {
+            subscriber.offer(lastState, lastState);
+        }
+        return true;
+    }
+
+    /**
+     * @param change event sent to subscribers that have been sent every previous event
+     * @param state  event holding the whole state, sent to subscribers that have skipped an event
+     */
+    synchronized void publish(OutboundEvent change, OutboundEvent state) {
+        lastState = state;
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(change, state);
+        }
+    }
+
+    synchronized boolean hasPublished() {
+        return lastState != null;
+    }
+
+    /**
+     * @return true if this stream has no subscriber and has been closed
+     */
+    synchronized boolean closeIfUnsubscribed() {
+        closed = subscribers.isEmpty();
+        return closed;
+    }
+
+    int subscribers() {
+        return subscribers.size();
+    }
+
+    private class Subscriber implements Runnable {
+
+        private final EventOutput eventOutput;
+        private final AtomicReference<OutboundEvent> pendingEvent;
+        private final AtomicBoolean writing;
+
+        private Subscriber(EventOutput eventOutput) {
+            this.eventOutput = eventOutput;
+            this.pendingEvent = new AtomicReference<>();
+            this.writing = new AtomicBoolean();
+        }
+
+        private void offer(OutboundEvent change, OutboundEvent state) {
+            OutboundEvent skippedEvent;
+            do {
+                skippedEvent = pendingEvent.get();
+            } while (!pendingEvent.compareAndSet(skippedEvent, skippedEvent == null ? change : state));
+            write();
+        }
+
+        private void write() {
+            if (writing.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (OutboundEvent event = pendingEvent.getAndSet(null); event != null; event = pendingEvent.getAndSet(null)) {
+                    eventOutput.write(event);
+                }
+            } catch (IOException | RuntimeException e) {
+                unsubscribe();
+                return;
+            } finally {
+                writing.set(false);
+            }
+            // an event may have been offered between the last read and the end of writing
+            if (pendingEvent.get() != null) {
+                write();
+            }
+        }
+
+        private void unsubscribe() {
+            subscribers.remove(this);
+            try {
+                eventOutput.close();
+            } catch (IOException e) {
+                // the subscriber has already gone away
+            }
+        }
+
+    }
+
+}
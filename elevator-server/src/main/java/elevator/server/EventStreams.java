@@ -0,0 +1,158 @@
+package elevator.server;
+
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Pushes the leaderboard and the info of each player to browsers, instead of having every browser poll them every
+ * second. Once per tick, changes are computed from the leaderboard snapshot and published once to every subscriber:
+ * leaderboard subscribers are sent the players whose rank or info have changed, player subscribers are sent their
+ * player info when it has changed. Only changed fields are sent, subscribers that have skipped an event are sent
+ * everything again.
+ */
+class EventStreams {
+
+    static final String LEADERBOARD = "leaderboard";
+    static final String LEADERBOARD_CHANGES = "ranks";
+    static final String PLAYER = "player";
+    static final String PLAYER_CHANGES = "playerChanges";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Executor executor;
+    private final ObjectWriter objectWriter;
+    private final EventStream leaderboardStream;
+    private final ConcurrentMap<String, EventStream> playerStreams;
+
+    private Leaderboard.Snapshot lastSnapshot;
+
+    EventStreams(Executor executor) {
+        this.executor = executor;
+        this.objectWriter = new ObjectMapper().writer();
+        this.leaderboardStream = new EventStream(executor);
+        this.playerStreams = new ConcurrentHashMap<>();
+        this.lastSnapshot = null;
+    }
+
+    void subscribeLeaderboard(EventOutput eventOutput) {
+        leaderboardStream.subscribe(eventOutput);
+    }
+
+    void subscribePlayer(String email, EventOutput eventOutput) {
+        while (true) {
+            EventStream playerStream = playerStreams.get(email);
+            if (playerStream == null) {
+                EventStream newPlayerStream = new EventStream(executor);
+                playerStream = playerStreams.putIfAbsent(email, newPlayerStream);
+                if (playerStream == null) {
+                    playerStream = newPlayerStream;
+                }
+            }
+            if (playerStream.subscribe(eventOutput)) {
+                return;
+            }
+            // closed by publish because it had no subscriber
+            playerStreams.remove(email, playerStream);
+        }
+    }
+
+    /**
+     * Publishes what has changed since the last published snapshot, nothing if it is the same snapshot.
+     */
+    synchronized void publish(Leaderboard.Snapshot snapshot) {
+        if (snapshot == lastSnapshot) {
+            return;
+        }
+        Map<String, Integer> lastRanks = new HashMap<>();
+        if (lastSnapshot != null) {
+            List<PlayerInfo> players = lastSnapshot.players();
+            for (int rank = 0; rank < players.size(); rank++) {
+                lastRanks.put(players.get(rank).email, rank);
+            }
+        }
+        publishLeaderboard(snapshot, lastRanks);
+        publishPlayers(snapshot);
+        lastSnapshot = snapshot;
+    }
+
+    private void publishLeaderboard(Leaderboard.Snapshot snapshot, Map<String, Integer> lastRanks) {
+        List<LeaderboardChanges.RankedPlayer> ranks = new ArrayList<>();
+        Set<String> emails = new HashSet<>();
+        List<PlayerInfo> players = snapshot.players();
+        for (int rank = 0; rank < players.size(); rank++) {
+            PlayerInfo player = players.get(rank);
+            PlayerInfo lastPlayer = lastSnapshot == null ? null : lastSnapshot.player(player.email);
+            if (!player.equals(lastPlayer) || !Integer.valueOf(rank).equals(lastRanks.get(player.email))) {
+                ranks.add(new LeaderboardChanges.RankedPlayer(rank, player.email, player.changesSince(lastPlayer)));
+            }
+            emails.add(player.email);
+        }
+        List<String> removed = new ArrayList<>();
+        for (String email : lastRanks.keySet()) {
+            if (!emails.contains(email)) {
+                removed.add(email);
+            }
+        }
+        Collections.sort(removed);
+
+        LeaderboardChanges changes = new LeaderboardChanges(snapshot.tick(), ranks, removed);
+        if (changes.isEmpty() && leaderboardStream.hasPublished()) {
+            return;
+        }
+        OutboundEvent state = event(LEADERBOARD, snapshot.tick(), new String(snapshot.json(), UTF_8));
+        leaderboardStream.publish(event(LEADERBOARD_CHANGES, snapshot.tick(), json(changes)), state);
+    }
+
+    private void publishPlayers(Leaderboard.Snapshot snapshot) {
+        for (Map.Entry<String, EventStream> playerStream : playerStreams.entrySet()) {
+            String email = playerStream.getKey();
+            EventStream stream = playerStream.getValue();
+            if (stream.closeIfUnsubscribed()) {
+                playerStreams.remove(email, stream);
+                continue;
+            }
+            PlayerInfo player = snapshot.player(email);
+            if (player == null) {
+                continue;
+            }
+            PlayerInfo lastPlayer = lastSnapshot == null ? null : lastSnapshot.player(email);
+            if (lastPlayer == null || !stream.hasPublished()) {
+                OutboundEvent state = event(PLAYER, snapshot.tick(), json(player));
+                stream.publish(state, state);
+            } else if (!player.equals(lastPlayer)) {
+                PlayerInfoChanges changes = new PlayerInfoChanges(snapshot.tick(), lastSnapshot.tick(),
+                        player.changesSince(lastPlayer));
+                stream.publish(event(PLAYER_CHANGES, snapshot.tick(), json(changes)),
+                        event(PLAYER, snapshot.tick(), json(player)));
+            }
+        }
+    }
+
+    private String json(Object value) {
+        try {
+            return objectWriter.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("can't serialize " + value, e);
+        }
+    }
+
+    private static OutboundEvent event(String name, long tick, String json) {
+        return new OutboundEvent.Builder().name(name).id(String.valueOf(tick)).data(String.class, json).build();
+    }
+
+}
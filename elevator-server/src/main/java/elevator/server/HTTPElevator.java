@@ -1,19 +1,32 @@
 package elevator.server;
 
+import elevator.BuildingDimension;
 import elevator.Command;
 import elevator.Direction;
 import elevator.User;
 import elevator.engine.ElevatorEngine;
 import elevator.exception.ElevatorIsBrokenException;
 import elevator.logging.ElevatorLogger;
+import elevator.server.http.CircuitBreaker;
+import elevator.server.http.ParticipantClient;
+import elevator.server.http.URLConnectionClient;
+import elevator.server.latency.AdaptiveTimeout;
+import elevator.server.latency.Endpoint;
+import elevator.server.latency.Latencies;
+import elevator.server.metrics.Metrics;
 
 import java.io.*;
 import java.net.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static elevator.server.metrics.BrokenCause.INVALID_RESPONSE;
+import static elevator.server.metrics.BrokenCause.TRANSPORT;
 import static java.lang.String.format;
 import static java.net.URLEncoder.encode;
 import static java.nio.charset.Charset.defaultCharset;
@@ -21,73 +34,150 @@ import static java.nio.charset.Charset.defaultCharset;
 class HTTPElevator implements ElevatorEngine {
 
     private final URL server;
-    private final ExecutorService executor;
+    private final EventQueue events;
     private final URLStreamHandler urlStreamHandler;
     private final URL nextCommand;
-    private final URL userHasEntered;
-    private final URL userHasExited;
+    private final URL batch;
     private final URL reset;
+    private final Protocol protocol;
+    private final BuildingDimension buildingDimension;
+    private final List<String> pendingEvents;
     private final Pattern errorStatusMessage;
     private final String validCommands;
     private final Logger logger;
+    private final Latencies latencies;
+    private final Metrics metrics;
+    private final CircuitBreaker circuitBreaker;
+    private final AdaptiveTimeout timeout;
+    private final ParticipantClient client;
 
-    private String transportErrorMessage;
+    private volatile String transportErrorMessage;
 
-    HTTPElevator(URL server, ExecutorService executor) throws MalformedURLException {
-        this(server, executor, null);
+    /**
+     * @param server URL of the participant server
+     * @param executor sends the events to the participant server
+     */
+    static Builder builder(URL server, ExecutorService executor) {
+        return new Builder(server, executor);
     }
 
-    HTTPElevator(URL server, ExecutorService executor, URLStreamHandler urlStreamHandler) throws MalformedURLException {
-        this.executor = executor;
+    private HTTPElevator(Builder builder) throws MalformedURLException {
+        URL server = builder.server;
+        URLStreamHandler urlStreamHandler = builder.urlStreamHandler;
+        this.events = new EventQueue(builder.executor, new EventQueue.AsyncSender() {
+            @Override
+            public void send(URL event, Runnable sent) {
+                sendEvent(event, sent);
+            }
+        });
         this.urlStreamHandler = urlStreamHandler;
         this.server = new URL(server, "", urlStreamHandler);
         this.nextCommand = new URL(server, "nextCommand", urlStreamHandler);
-        this.userHasEntered = new URL(server, "userHasEntered", urlStreamHandler);
-        this.userHasExited = new URL(server, "userHasExited", urlStreamHandler);
+        this.batch = new URL(server, "batch", urlStreamHandler);
         this.reset = new URL(server, "reset", urlStreamHandler);
+        this.buildingDimension = builder.buildingDimension;
+        this.pendingEvents = new ArrayList<>();
         this.errorStatusMessage = Pattern.compile("Server returned HTTP response code: (\\d+).+");
         this.validCommands = "valid commands are [UP|DOWN|OPEN|CLOSE|NOTHING] with case sensitive";
         this.logger = new ElevatorLogger("HTTPElevator").logger();
+        this.latencies = new Latencies();
+        this.metrics = builder.metrics;
+        this.circuitBreaker = builder.circuitBreaker;
+        this.timeout = new AdaptiveTimeout();
+        this.client = builder.client;
+        if (builder.negotiatesProtocol) {
+            URL negotiation = new URL(server, Protocol.NEGOTIATION_PATH, urlStreamHandler);
+            this.protocol = Protocol.negotiate(negotiation, client, timeout.millis());
+        } else {
+            this.protocol = builder.protocol;
+        }
     }
 
     @Override
     public ElevatorEngine call(Integer atFloor, Direction to) throws ElevatorIsBrokenException {
         checkTransportError();
-        httpGet("call?atFloor=" + atFloor + "&to=" + to);
+        event("call?atFloor=" + atFloor + "&to=" + to);
         return this;
     }
 
     @Override
     public ElevatorEngine go(Integer floorToGo) throws ElevatorIsBrokenException {
         checkTransportError();
-        httpGet("go?floorToGo=" + floorToGo);
+        event("go?floorToGo=" + floorToGo);
         return this;
     }
 
     @Override
     public Command nextCommand() throws ElevatorIsBrokenException {
         checkTransportError();
-        StringBuilder out = new StringBuilder(nextCommand.toString());
+        if (protocol == Protocol.BATCH) {
+            return command(batch, drainPendingEvents());
+        }
+        return command(nextCommand, null);
+    }
+
+    /**
+     * While the circuit breaker is open, ticks are skipped without sending any request. Once it is time to probe, the
+     * next command is requested and ignored: the tick is skipped as well, the elevator being reset if the participant
+     * server has answered.
+     *
+     * @return true if this tick should be skipped
+     */
+    boolean skipsTick() {
+        if (circuitBreaker.allowsRequest()) {
+            return false;
+        }
+        if (circuitBreaker.tryProbe(System.nanoTime())) {
+            try {
+                // the timeout may have been shortened by answers the participant server is not as fast to give anymore
+                if (protocol == Protocol.BATCH) {
+                    command(batch, Collections.<String>emptyList(), AdaptiveTimeout.MAX_MILLIS);
+                } else {
+                    command(nextCommand, null, AdaptiveTimeout.MAX_MILLIS);
+                }
+            } catch (ParticipantServerException e) {
+                // the circuit breaker has been told whether the participant server has answered
+            }
+        }
+        return true;
+    }
+
+    private Command command(URL url, List<String> events) throws ElevatorIsBrokenException {
+        return command(url, events, timeout.millis());
+    }
+
+    private Command command(URL url, List<String> events, int timeoutInMillis) throws ElevatorIsBrokenException {
+        StringBuilder out = new StringBuilder(url.toString());
         String commandFromResponse = "";
+        boolean timedOut = false;
+        long start = System.nanoTime();
         try {
-            URLConnection urlConnection = getUrlConnection(nextCommand);
-            try (BufferedReader in = new BufferedReader(new InputStreamReader(urlConnection.getInputStream()))) {
-                commandFromResponse = in.readLine();
-                if (commandFromResponse == null) {
-                    throw new ElevatorIsBrokenException(format("No command was provided; %s", validCommands));
-                }
-                transportErrorMessage = null;
-                Command command = Command.valueOf(commandFromResponse);
-                out.append(" ").append(command);
-                return command;
+            if (events != null) {
+                out.append(" ").append(events);
+            }
+            commandFromResponse = client.exchange(url, events == null ? null : body(events), timeoutInMillis);
+            timeout.record(System.nanoTime() - start);
+            circuitBreaker.success();
+            if (commandFromResponse == null) {
+                throw new ParticipantServerException(INVALID_RESPONSE, format("No command was provided; %s", validCommands));
             }
+            transportErrorMessage = null;
+            Command command = Command.valueOf(commandFromResponse);
+            out.append(" ").append(command);
+            return command;
         } catch (IllegalArgumentException e) {
             out.append(" ").append(commandFromResponse);
-            throw new ElevatorIsBrokenException(format("Command \"%s\" is not a valid command; %s", commandFromResponse, validCommands));
+            throw new ParticipantServerException(INVALID_RESPONSE, format("Command \"%s\" is not a valid command; %s", commandFromResponse, validCommands));
         } catch (IOException e) {
-            transportErrorMessage = createErrorMessage(nextCommand, e);
-            throw new ElevatorIsBrokenException(transportErrorMessage);
+            timedOut = e instanceof SocketTimeoutException;
+            if (timedOut) {
+                timeout.timedOut(timeoutInMillis);
+            }
+            metrics.httpClientError(e);
+            transportErrorMessage = circuitBreaker.failure(System.nanoTime(), createErrorMessage(url, e));
+            throw new ParticipantServerException(TRANSPORT, transportErrorMessage);
         } finally {
+            latencies.record(url == batch ? Endpoint.BATCH : Endpoint.NEXT_COMMAND, System.nanoTime() - start, timedOut);
             logger.info(out.toString());
         }
     }
@@ -95,59 +185,178 @@ class HTTPElevator implements ElevatorEngine {
     @Override
     public ElevatorEngine userHasEntered(User user) throws ElevatorIsBrokenException {
         checkTransportError();
-        httpGet(userHasEntered);
+        event("userHasEntered");
         return this;
     }
 
     @Override
     public ElevatorEngine userHasExited(User user) throws ElevatorIsBrokenException {
         checkTransportError();
-        httpGet(userHasExited);
+        event("userHasExited");
         return this;
     }
 
     @Override
     public ElevatorEngine reset(String cause) throws ElevatorIsBrokenException {
         // do not check transport error
-        httpGet(reset + "?cause=" + urlEncode(cause));
+        drainPendingEvents();
+        events.clear();
+        URL url = url(reset + "?cause=" + urlEncode(cause)
+                + "&lowerFloor=" + buildingDimension.getLowerFloor()
+                + "&higherFloor=" + buildingDimension.getHigherFloor());
+        if (protocol == Protocol.BATCH) {
+            // the next batch is sent from the tick thread, it must not reach the participant before this reset
+            sendEventNow(url);
+        } else {
+            httpGet(url);
+        }
         return this;
     }
 
+    private void event(String pathAndParameters) throws ElevatorIsBrokenException {
+        if (protocol == Protocol.BATCH) {
+            synchronized (pendingEvents) {
+                pendingEvents.add(pathAndParameters);
+            }
+            return;
+        }
+        httpGet(pathAndParameters);
+    }
+
+    private List<String> drainPendingEvents() {
+        synchronized (pendingEvents) {
+            List<String> events = new ArrayList<>(pendingEvents);
+            pendingEvents.clear();
+            return events;
+        }
+    }
+
+    private String body(List<String> events) {
+        StringBuilder body = new StringBuilder();
+        for (String event : events) {
+            body.append(event).append('\n');
+        }
+        return body.toString();
+    }
+
     private void httpGet(String pathAndParameters) throws ElevatorIsBrokenException {
+        httpGet(url(pathAndParameters));
+    }
+
+    private URL url(String pathAndParameters) {
         try {
-            httpGet(new URL(server, pathAndParameters, urlStreamHandler));
+            return new URL(server, pathAndParameters, urlStreamHandler);
         } catch (MalformedURLException e) {
             throw new RuntimeException(e);
         }
     }
 
-    private void httpGet(final URL url) throws ElevatorIsBrokenException {
+    private void httpGet(URL url) throws ElevatorIsBrokenException {
         logger.info(url.toString());
-        executor.execute(new Runnable() {
+        if (!events.offer(url)) {
+            transportErrorMessage = "Too many events are waiting to be sent; the elevator cannot keep up with the game";
+        }
+    }
+
+    private void sendEvent(final URL url, final Runnable sent) {
+        if (!circuitBreaker.allowsRequest()) {
+            // the participant server is considered down, the elevator will be reset once it answers again
+            sent.run();
+            return;
+        }
+        final long start = System.nanoTime();
+        final int timeoutInMillis = timeout.millis();
+        client.send(url, timeoutInMillis, new ParticipantClient.Callback() {
             @Override
-            public void run() {
+            public void completed() {
                 try {
-                    URLConnection urlConnection = getUrlConnection(url);
-                    try (InputStream in = urlConnection.getInputStream()) {
-                        transportErrorMessage = null;
-                    }
-                } catch (IOException e) {
-                    transportErrorMessage = createErrorMessage(url, e);
+                    eventSent(url, start);
+                } finally {
+                    sent.run();
+                }
+            }
+
+            @Override
+            public void failed(IOException e) {
+                try {
+                    eventFailed(url, start, timeoutInMillis, e);
+                } finally {
+                    sent.run();
                 }
             }
         });
     }
 
-    private URLConnection getUrlConnection(URL url) throws IOException {
-        URLConnection urlConnection = url.openConnection();
-        urlConnection.setConnectTimeout(1000);
-        urlConnection.setReadTimeout(1000);
-        return urlConnection;
+    /**
+     * Sends this event from the calling thread, ahead of every event still waiting in the queue.
+     */
+    private void sendEventNow(URL url) {
+        logger.info(url.toString());
+        if (!circuitBreaker.allowsRequest()) {
+            // the participant server is considered down, the elevator will be reset once it answers again
+            return;
+        }
+        long start = System.nanoTime();
+        int timeoutInMillis = timeout.millis();
+        try {
+            client.exchange(url, null, timeoutInMillis);
+        } catch (IOException e) {
+            eventFailed(url, start, timeoutInMillis, e);
+            return;
+        }
+        eventSent(url, start);
+    }
+
+    private void eventSent(URL url, long start) {
+        try {
+            timeout.record(System.nanoTime() - start);
+            circuitBreaker.success();
+            if (!events.overflowed()) {
+                transportErrorMessage = null;
+            }
+        } finally {
+            recordLatency(url, start, false);
+        }
+    }
+
+    private void eventFailed(URL url, long start, int timeoutInMillis, IOException e) {
+        try {
+            if (e instanceof SocketTimeoutException) {
+                timeout.timedOut(timeoutInMillis);
+            }
+            metrics.httpClientError(e);
+            transportErrorMessage = circuitBreaker.failure(System.nanoTime(), createErrorMessage(url, e));
+        } finally {
+            recordLatency(url, start, e instanceof SocketTimeoutException);
+        }
+    }
+
+    private void recordLatency(URL url, long start, boolean timedOut) {
+        Endpoint endpoint = Endpoint.fromPath(url.getPath());
+        if (endpoint != null) {
+            latencies.record(endpoint, System.nanoTime() - start, timedOut);
+        }
+    }
+
+    int pendingEvents() {
+        return events.size();
+    }
+
+    Latencies latencies() {
+        return latencies;
+    }
+
+    CircuitBreaker.State circuitBreakerState() {
+        return circuitBreaker.state();
+    }
+
+    int timeoutInMillis() {
+        return timeout.millis();
     }
 
     private void checkTransportError() {
         if (transportErrorMessage != null) {
-            throw new ElevatorIsBrokenException(transportErrorMessage);
+            throw new ParticipantServerException(TRANSPORT, transportErrorMessage);
         }
     }
 
@@ -180,4 +389,87 @@ class HTTPElevator implements ElevatorEngine {
         return format("%s://%s%s", url.getProtocol(), url.getAuthority(), url.getPath());
     }
 
+    static class Builder {
+
+        private final URL server;
+        private final ExecutorService executor;
+
+        private URLStreamHandler urlStreamHandler;
+        private Protocol protocol;
+        private boolean negotiatesProtocol;
+        private BuildingDimension buildingDimension;
+        private Metrics metrics;
+        private CircuitBreaker circuitBreaker;
+        private ParticipantClient client;
+
+        private Builder(URL server, ExecutorService executor) {
+            this.server = server;
+            this.executor = executor;
+            this.urlStreamHandler = null;
+            this.protocol = Protocol.EVENTS;
+            this.negotiatesProtocol = false;
+            this.buildingDimension = BuildingDimension.DEFAULT;
+            this.metrics = new Metrics();
+            this.circuitBreaker = new CircuitBreaker();
+            this.client = new URLConnectionClient();
+        }
+
+        /**
+         * @param urlStreamHandler opens the URLs of the participant server, the default handler of http if null
+         */
+        Builder urlStreamHandler(URLStreamHandler urlStreamHandler) {
+            this.urlStreamHandler = urlStreamHandler;
+            return this;
+        }
+
+        Builder protocol(Protocol protocol) {
+            this.protocol = protocol;
+            this.negotiatesProtocol = false;
+            return this;
+        }
+
+        /**
+         * Asks the participant server for its protocol when the elevator is built, with the client and the timeout
+         * of every other request.
+         */
+        Builder negotiateProtocol() {
+            this.negotiatesProtocol = true;
+            return this;
+        }
+
+        Builder buildingDimension(BuildingDimension buildingDimension) {
+            this.buildingDimension = buildingDimension;
+            return this;
+        }
+
+        /**
+         * @param metrics counts transport errors, shared with other participant servers
+         */
+        Builder metrics(Metrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * @param circuitBreaker stops requesting this participant server while it keeps failing
+         */
+        Builder circuitBreaker(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            return this;
+        }
+
+        /**
+         * @param client sends requests to this participant server, the URLs being opened with the stream handler
+         */
+        Builder client(ParticipantClient client) {
+            this.client = client;
+            return this;
+        }
+
+        HTTPElevator build() throws MalformedURLException {
+            return new HTTPElevator(this);
+        }
+
+    }
+
 }
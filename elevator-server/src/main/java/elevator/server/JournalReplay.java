@@ -0,0 +1,71 @@
+package elevator.server;
+
+import elevator.Command;
+import elevator.server.journal.GameReplay;
+import elevator.server.journal.Journals;
+import org.codehaus.jackson.map.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * Rebuilds the leaderboard from the journals of a stopped server, see {@link Journals}. Run its main method with the
+ * journal directory: it prints the info of every player still playing as JSON, as the leaderboard would serve it. With
+ * {@code --stats}, it prints what each engine has done instead, for an offline analysis of engines.
+ */
+public class JournalReplay {
+
+    private final List<GameReplay> games;
+
+    JournalReplay(Journals journals) throws IOException {
+        this.games = new ArrayList<>();
+        for (File file : journals.files()) {
+            GameReplay game = GameReplay.read(file);
+            if (game.isPlaying()) {
+                games.add(game);
+            }
+        }
+    }
+
+    List<PlayerInfo> leaderboard() {
+        List<PlayerInfo> players = new ArrayList<>(games.size());
+        for (GameReplay game : games) {
+            players.add(new PlayerInfo(game));
+        }
+        Collections.sort(players, Leaderboard.BY_SCORE);
+        return players;
+    }
+
+    String statistics() {
+        StringBuilder statistics = new StringBuilder(format("%-32s %8s %10s %8s %8s %8s %8s %8s %8s%n",
+                "player", "score", "last tick", "resets", "users", "wait", "go", "moves", "opens"));
+        for (GameReplay game : games) {
+            long users = game.doneUsers();
+            statistics.append(format("%-32s %8d %10d %8d %8d %8.1f %8.1f %8d %8d%n",
+                    game.email(), game.score(), game.lastTick(), game.resets(), users,
+                    users == 0 ? 0 : game.ticksToWait() / (double) users,
+                    users == 0 ? 0 : game.ticksToGo() / (double) users,
+                    game.commands(Command.UP) + game.commands(Command.DOWN),
+                    game.commands(Command.OPEN)));
+        }
+        return statistics.toString();
+    }
+
+    public static void main(String... args) throws IOException {
+        if (args.length < 1) {
+            throw new IllegalArgumentException("usage: JournalReplay <journal directory> [--stats]");
+        }
+        JournalReplay journalReplay = new JournalReplay(new Journals(new File(args[0])));
+        if (args.length > 1 && "--stats".equals(args[1])) {
+            System.out.print(journalReplay.statistics());
+        } else {
+            System.out.println(new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(journalReplay.leaderboard()));
+        }
+    }
+
+}
@@ -0,0 +1,71 @@
+package elevator.server;
+
+import elevator.Clock;
+import elevator.Command;
+import elevator.Direction;
+import elevator.User;
+import elevator.engine.ElevatorEngine;
+import elevator.exception.ElevatorIsBrokenException;
+import elevator.server.journal.Journal;
+
+/**
+ * Records in the journal of the game what the building tells the elevator engine and the commands it answers, once
+ * the engine has accepted them.
+ */
+class JournalingElevatorEngine implements ElevatorEngine {
+
+    private final ElevatorEngine elevatorEngine;
+    private final Clock clock;
+
+    private volatile Journal journal;
+
+    JournalingElevatorEngine(ElevatorEngine elevatorEngine, Journal journal, Clock clock) {
+        this.elevatorEngine = elevatorEngine;
+        this.clock = clock;
+        this.journal = journal;
+    }
+
+    void journal(Journal journal) {
+        this.journal = journal;
+    }
+
+    @Override
+    public ElevatorEngine call(Integer atFloor, Direction to) throws ElevatorIsBrokenException {
+        elevatorEngine.call(atFloor, to);
+        journal.userCreated(clock.currentTick(), atFloor, to);
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine go(Integer floorToGo) throws ElevatorIsBrokenException {
+        elevatorEngine.go(floorToGo);
+        return this;
+    }
+
+    @Override
+    public Command nextCommand() throws ElevatorIsBrokenException {
+        Command command = elevatorEngine.nextCommand();
+        journal.command(clock.currentTick(), command);
+        return command;
+    }
+
+    @Override
+    public ElevatorEngine userHasEntered(User user) throws ElevatorIsBrokenException {
+        elevatorEngine.userHasEntered(user);
+        journal.userEntered(clock.currentTick(), user);
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine userHasExited(User user) throws ElevatorIsBrokenException {
+        elevatorEngine.userHasExited(user);
+        return this;
+    }
+
+    @Override
+    public ElevatorEngine reset(String cause) throws ElevatorIsBrokenException {
+        elevatorEngine.reset(cause);
+        return this;
+    }
+
+}
@@ -0,0 +1,208 @@
+package elevator.server;
+
+import elevator.Clock;
+import elevator.clock.TickReport;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.codehaus.jackson.map.ObjectWriter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Players sorted by score, as served to every browser once per second. Scores only change when the clock ticks, so
+ * players are read, sorted and serialized at most once per tick and once per addition or removal of a game, by the
+ * first request that needs it; every other request is served the same JSON bytes. Players are sorted starting from
+ * the previous ranking, which is almost sorted already, so that sorting them is close to linear.
+ * <p>
+ * The info of a player is read once per tick: ranking games again because one has been added or removed keeps the info
+ * read earlier during this tick. The last snapshots are kept by tick, so that a client can be sent what has changed
+ * since the tick of the info it already has.
+ */
+class Leaderboard {
+
+    static final Comparator<PlayerInfo> BY_SCORE = new Comparator<PlayerInfo>() {
+        @Override
+        public int compare(PlayerInfo player, PlayerInfo other) {
+            if (player.score != other.score) {
+                return player.score > other.score ? -1 : 1;
+            }
+            return player.email.compareTo(other.email);
+        }
+    };
+
+    static final int HISTORY_LENGTH = 32;
+
+    private final ElevatorGames elevatorGames;
+    private final Clock clock;
+    private final ObjectWriter objectWriter;
+    private final Snapshot[] history;
+
+    private volatile Snapshot snapshot;
+
+    Leaderboard(ElevatorGames elevatorGames, Clock clock) {
+        this.elevatorGames = elevatorGames;
+        this.clock = clock;
+        this.objectWriter = new ObjectMapper().writer();
+        this.history = new Snapshot[HISTORY_LENGTH];
+        this.snapshot = new Snapshot(Long.MIN_VALUE, Long.MIN_VALUE, Collections.<PlayerInfo>emptyList(), null);
+    }
+
+    /**
+     * @return leaderboard as of the last completed tick
+     */
+    Snapshot snapshot() {
+        TickReport lastTickReport = clock.lastTickReport();
+        return snapshot(lastTickReport == null ? -1 : lastTickReport.tick);
+    }
+
+    Snapshot snapshot(long tick) {
+        long version = elevatorGames.version();
+        Snapshot snapshot = this.snapshot;
+        if (snapshot.isUpToDate(tick, version)) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = this.snapshot;
+            if (!snapshot.isUpToDate(tick, version)) {
+                snapshot = this.snapshot = rank(tick, version, snapshot.players);
+                if (tick >= 0) {
+                    history[(int) (tick % HISTORY_LENGTH)] = snapshot;
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    /**
+     * @param since tick of the info the client already has, null if it has none
+     * @throws PlayerNotFoundException if the player is not in the leaderboard
+     */
+    PlayerInfoChanges playerInfoChanges(String email, Long since) throws PlayerNotFoundException {
+        return playerInfoChanges(snapshot(), email, since);
+    }
+
+    PlayerInfoChanges playerInfoChanges(Snapshot snapshot, String email, Long since) throws PlayerNotFoundException {
+        PlayerInfo player = snapshot.player(email);
+        if (player == null) {
+            throw new PlayerNotFoundException(email);
+        }
+        Snapshot sinceSnapshot = since == null ? null : snapshotAt(since);
+        PlayerInfo sincePlayer = sinceSnapshot == null ? null : sinceSnapshot.player(email);
+        if (sincePlayer == null) {
+            return new PlayerInfoChanges(snapshot.tick, null, player.changesSince(null));
+        }
+        return new PlayerInfoChanges(snapshot.tick, since, player.changesSince(sincePlayer));
+    }
+
+    /**
+     * @return snapshot of this tick, null if it is older than the kept history
+     */
+    private synchronized Snapshot snapshotAt(long tick) {
+        if (tick < 0) {
+            return null;
+        }
+        Snapshot snapshot = history[(int) (tick % HISTORY_LENGTH)];
+        return snapshot != null && snapshot.tick == tick ? snapshot : null;
+    }
+
+    private Snapshot rank(long tick, long version, List<PlayerInfo> previousPlayers) {
+        List<PlayerInfo> players = new ArrayList<>(elevatorGames.size());
+        Set<String> rankedEmails = new HashSet<>();
+        for (PlayerInfo previousPlayer : previousPlayers) {
+            ElevatorGame elevatorGame = elevatorGames.get(previousPlayer.email);
+            if (elevatorGame != null) {
+                players.add(tick == this.snapshot.tick ? previousPlayer : elevatorGame.getPlayerInfo());
+                rankedEmails.add(previousPlayer.email);
+            }
+        }
+        if (version != this.snapshot.version) {
+            for (ElevatorGame elevatorGame : elevatorGames.values()) {
+                if (!rankedEmails.contains(elevatorGame.player.email)) {
+                    players.add(elevatorGame.getPlayerInfo());
+                }
+            }
+        }
+        Collections.sort(players, BY_SCORE);
+        try {
+            return new Snapshot(tick, version, unmodifiableList(players), objectWriter.writeValueAsBytes(players));
+        } catch (IOException e) {
+            throw new IllegalStateException("can't serialize leaderboard", e);
+        }
+    }
+
+    static class Snapshot {
+
+        private final long tick;
+        private final long version;
+        private final List<PlayerInfo> players;
+        private final Map<String, PlayerInfo> playersByEmail;
+        private final byte[] json;
+        private final String etag;
+
+        private Snapshot(long tick, long version, List<PlayerInfo> players, byte[] json) {
+            this.tick = tick;
+            this.version = version;
+            this.players = players;
+            this.playersByEmail = new HashMap<>();
+            for (PlayerInfo player : players) {
+                playersByEmail.put(player.email, player);
+            }
+            this.json = json;
+            this.etag = json == null ? null : etag(json);
+        }
+
+        private boolean isUpToDate(long tick, long version) {
+            return this.tick == tick && this.version == version;
+        }
+
+        long tick() {
+            return tick;
+        }
+
+        /**
+         * @return players sorted by score, a player's rank being its index
+         */
+        List<PlayerInfo> players() {
+            return players;
+        }
+
+        /**
+         * @return info of the player with this email, null if there is none
+         */
+        PlayerInfo player(String email) {
+            return playersByEmail.get(email);
+        }
+
+        /**
+         * @return players serialized as JSON, must not be modified
+         */
+        byte[] json() {
+            return json;
+        }
+
+        /**
+         * @return a tag that only changes when the JSON changes, whatever the tick
+         */
+        String etag() {
+            return etag;
+        }
+
+        private static String etag(byte[] json) {
+            CRC32 crc32 = new CRC32();
+            crc32.update(json);
+            return Long.toHexString(crc32.getValue()) + '-' + Integer.toHexString(json.length);
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package elevator.server;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Players whose rank or info have changed since the previous tick, and players that have left the leaderboard. Only
+ * the fields of a player's info that have changed are sent, as a JSON merge patch, every field for a new player.
+ */
+public class LeaderboardChanges implements Serializable {
+
+    public final long tick;
+    public final List<RankedPlayer> ranks;
+    public final List<String> removed;
+
+    LeaderboardChanges(long tick, List<RankedPlayer> ranks, List<String> removed) {
+        this.tick = tick;
+        this.ranks = ranks;
+        this.removed = removed;
+    }
+
+    boolean isEmpty() {
+        return ranks.isEmpty() && removed.isEmpty();
+    }
+
+    public static class RankedPlayer implements Serializable {
+
+        public final int rank;
+        public final String email;
+        public final Map<String, Object> changes;
+
+        RankedPlayer(int rank, String email, Map<String, Object> changes) {
+            this.rank = rank;
+            this.email = email;
+            this.changes = changes;
+        }
+
+    }
+
+}
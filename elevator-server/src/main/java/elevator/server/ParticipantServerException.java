@@ -0,0 +1,24 @@
+package elevator.server;
+
+import elevator.exception.ElevatorIsBrokenException;
+import elevator.server.metrics.BrokenCause;
+
+/**
+ * The participant server is at fault, rather than the command it has sent.
+ */
+class ParticipantServerException extends ElevatorIsBrokenException {
+
+    private static final long serialVersionUID = -2470394578390562208L;
+
+    private final BrokenCause brokenCause;
+
+    ParticipantServerException(BrokenCause brokenCause, String message) {
+        super(message);
+        this.brokenCause = brokenCause;
+    }
+
+    BrokenCause getBrokenCause() {
+        return brokenCause;
+    }
+
+}
@@ -10,15 +10,13 @@ class Player implements Comparable<Player> {
     final Password password;
 
     Player(String email, String pseudo) {
-        this.email = email;
-        this.pseudo = pseudo;
-        this.password = new RandomPassword();
+        this(email, pseudo, new RandomPassword());
     }
 
-    Player(String email) {
+    Player(String email, String pseudo, Password password) {
         this.email = email;
-        this.pseudo = null;
-        this.password = null;
+        this.pseudo = pseudo;
+        this.password = password;
     }
 
     @Override
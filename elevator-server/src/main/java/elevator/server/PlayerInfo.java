@@ -1,29 +1,126 @@
 package elevator.server;
 
+import elevator.server.journal.GameReplay;
+
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class PlayerInfo implements Serializable {
 
     public final String pseudo;
     public final String email;
     public final int score;
+    public final int lowerFloor;
     public final int[] peopleWaitingTheElevator;
     public final int elevatorAtFloor;
     public final int peopleInTheElevator;
     public final boolean doorIsOpen;
     public final String lastErrorMessage;
     public final String state;
+    public final int pendingEvents;
 
     public PlayerInfo(ElevatorGame game, Player player) {
         email = player.email;
         pseudo = player.pseudo;
         score = game.score();
+        lowerFloor = game.lowerFloor();
         peopleWaitingTheElevator = game.waitingUsersByFloors();
         elevatorAtFloor = game.floor();
         peopleInTheElevator = game.travelingUsers();
         doorIsOpen = game.doorIsOpen();
         lastErrorMessage = game.lastErrorMessage;
         state = game.state.toString();
+        pendingEvents = game.pendingEvents();
+    }
+
+    /**
+     * Info of a game rebuilt from its journal, no event waits to be sent to its participant server.
+     */
+    public PlayerInfo(GameReplay game) {
+        email = game.email();
+        pseudo = game.pseudo();
+        score = game.score();
+        lowerFloor = game.lowerFloor();
+        peopleWaitingTheElevator = game.waitingUsersByFloors();
+        elevatorAtFloor = game.floor();
+        peopleInTheElevator = game.travelingUsers();
+        doorIsOpen = game.doorIsOpen();
+        lastErrorMessage = game.lastErrorMessage();
+        state = (game.isPaused() ? ElevatorGame.State.PAUSE : ElevatorGame.State.RESUME).toString();
+        pendingEvents = 0;
+    }
+
+    /**
+     * @param previous info of the same player, null if unknown
+     * @return fields that differ from {@code previous} by name, every field if {@code previous} is null
+     */
+    Map<String, Object> changesSince(PlayerInfo previous) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (previous == null || !pseudo.equals(previous.pseudo)) {
+            changes.put("pseudo", pseudo);
+        }
+        if (previous == null || !email.equals(previous.email)) {
+            changes.put("email", email);
+        }
+        if (previous == null || score != previous.score) {
+            changes.put("score", score);
+        }
+        if (previous == null || lowerFloor != previous.lowerFloor) {
+            changes.put("lowerFloor", lowerFloor);
+        }
+        if (previous == null || !Arrays.equals(peopleWaitingTheElevator, previous.peopleWaitingTheElevator)) {
+            changes.put("peopleWaitingTheElevator", peopleWaitingTheElevator);
+        }
+        if (previous == null || elevatorAtFloor != previous.elevatorAtFloor) {
+            changes.put("elevatorAtFloor", elevatorAtFloor);
+        }
+        if (previous == null || peopleInTheElevator != previous.peopleInTheElevator) {
+            changes.put("peopleInTheElevator", peopleInTheElevator);
+        }
+        if (previous == null || doorIsOpen != previous.doorIsOpen) {
+            changes.put("doorIsOpen", doorIsOpen);
+        }
+        if (previous == null || !equal(lastErrorMessage, previous.lastErrorMessage)) {
+            changes.put("lastErrorMessage", lastErrorMessage);
+        }
+        if (previous == null || !state.equals(previous.state)) {
+            changes.put("state", state);
+        }
+        if (previous == null || pendingEvents != previous.pendingEvents) {
+            changes.put("pendingEvents", pendingEvents);
+        }
+        return changes;
+    }
+
+    private static boolean equal(String string, String other) {
+        return string == null ? other == null : string.equals(other);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PlayerInfo that = (PlayerInfo) o;
+
+        return score == that.score
+                && lowerFloor == that.lowerFloor
+                && elevatorAtFloor == that.elevatorAtFloor
+                && peopleInTheElevator == that.peopleInTheElevator
+                && doorIsOpen == that.doorIsOpen
+                && pendingEvents == that.pendingEvents
+                && email.equals(that.email)
+                && pseudo.equals(that.pseudo)
+                && Arrays.equals(peopleWaitingTheElevator, that.peopleWaitingTheElevator)
+                && equal(lastErrorMessage, that.lastErrorMessage)
+                && state.equals(that.state);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * email.hashCode() + score;
     }
 
 }
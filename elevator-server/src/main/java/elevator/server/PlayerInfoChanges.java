@@ -0,0 +1,23 @@
+package elevator.server;
+
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * Fields of a {@link PlayerInfo} that have changed since a tick known by the client, to be merged into the info it
+ * already has as a JSON merge patch. When the client's tick is unknown or too old, every field is sent and
+ * {@code since} is null: the changes are the whole info.
+ */
+public class PlayerInfoChanges implements Serializable {
+
+    public final long tick;
+    public final Long since;
+    public final Map<String, Object> changes;
+
+    PlayerInfoChanges(long tick, Long since, Map<String, Object> changes) {
+        this.tick = tick;
+        this.since = since;
+        this.changes = changes;
+    }
+
+}
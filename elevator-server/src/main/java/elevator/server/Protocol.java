@@ -0,0 +1,63 @@
+package elevator.server;
+
+import elevator.server.http.ParticipantClient;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Version of the protocol spoken with a participant, negotiated when the participant registers: the server asks
+ * {@code /protocol?versions=1,2} and the participant answers with the version it has chosen. Participants that do
+ * not answer with a known version keep the original protocol.
+ */
+enum Protocol {
+
+    /**
+     * One HTTP GET per event, then a blocking {@code /nextCommand}.
+     */
+    EVENTS(1),
+
+    /**
+     * Events of a tick are buffered and POSTed to {@code /batch}, one per line; the response is the next command.
+     */
+    BATCH(2);
+
+    static final String NEGOTIATION_PATH = "protocol?versions=" + versions();
+
+    final int version;
+
+    Protocol(int version) {
+        this.version = version;
+    }
+
+    /**
+     * @param negotiation URL of {@link #NEGOTIATION_PATH} on the participant server
+     */
+    static Protocol negotiate(URL negotiation, ParticipantClient client, int timeoutInMillis) {
+        try {
+            return fromVersion(client.exchange(negotiation, null, timeoutInMillis));
+        } catch (IOException | RuntimeException e) {
+            return EVENTS;
+        }
+    }
+
+    private static Protocol fromVersion(String version) {
+        if (version != null) {
+            for (Protocol protocol : values()) {
+                if (String.valueOf(protocol.version).equals(version.trim())) {
+                    return protocol;
+                }
+            }
+        }
+        return EVENTS;
+    }
+
+    private static String versions() {
+        StringBuilder versions = new StringBuilder();
+        for (Protocol protocol : values()) {
+            versions.append(versions.length() == 0 ? "" : ",").append(protocol.version);
+        }
+        return versions.toString();
+    }
+
+}
@@ -0,0 +1,56 @@
+package elevator.server;
+
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.SseFeature;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+
+/**
+ * Server-sent events streams, pushing once per tick what {@link WebResource} serves to browsers that poll.
+ */
+@Path("/stream")
+public class StreamResource {
+
+    private final ElevatorServer server;
+
+    public StreamResource(ElevatorServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Sends the whole leaderboard as a {@code leaderboard} event, then the players whose rank or info have changed as
+     * {@code ranks} events, or the whole leaderboard again when changes have been skipped.
+     */
+    @GET
+    @Path("/leaderboard")
+    @Produces(SseFeature.SERVER_SENT_EVENTS)
+    public EventOutput leaderboard() {
+        EventOutput eventOutput = new EventOutput();
+        server.eventStreams().subscribeLeaderboard(eventOutput);
+        return eventOutput;
+    }
+
+    /**
+     * Sends the player info as a {@code player} event each time it changes. As for the leaderboard, player info is
+     * public.
+     */
+    @GET
+    @Path("/player")
+    @Produces(SseFeature.SERVER_SENT_EVENTS)
+    public EventOutput player(@QueryParam("email") String email) {
+        if (email == null) {
+            throw new WebApplicationException(Response.status(BAD_REQUEST).entity("email is mandatory").build());
+        }
+        EventOutput eventOutput = new EventOutput();
+        server.eventStreams().subscribePlayer(email, eventOutput);
+        return eventOutput;
+    }
+
+}
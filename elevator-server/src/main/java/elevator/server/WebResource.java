@@ -1,15 +1,20 @@
 package elevator.server;
 
+import elevator.server.latency.LatencyStatistics;
+import elevator.server.metrics.PrometheusText;
 import elevator.server.security.AdminAuthorization;
 import elevator.server.security.UserAuthorization;
 
 import javax.ws.rs.*;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Map;
 
 import static javax.ws.rs.core.Response.Status.FORBIDDEN;
 
@@ -71,15 +76,30 @@ public class WebResource {
         return server.getPlayerInfo(email);
     }
 
+    /**
+     * @param since tick of the player info the client already has, every field is sent if it is missing or too old
+     */
+    @GET
+    @Path("/player/changes")
+    @Produces(MediaType.APPLICATION_JSON)
+    @UserAuthorization
+    public PlayerInfoChanges playerInfoChanges(@QueryParam("email") String email, @QueryParam("since") Long since) {
+        return server.getPlayerInfoChanges(email, since);
+    }
+
     @GET
     @Path("/leaderboard")
     @Produces(MediaType.APPLICATION_JSON)
-    public Collection<PlayerInfo> leaderboard() {
-        Collection<PlayerInfo> players = new ArrayList<>();
-        for (ElevatorGame game : server.getUnmodifiableElevatorGames()) {
-            players.add(game.getPlayerInfo());
+    public Response leaderboard(@Context Request request) {
+        Leaderboard.Snapshot leaderboard = server.leaderboard();
+        EntityTag entityTag = new EntityTag(leaderboard.etag());
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setNoCache(true);
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            return notModified.cacheControl(cacheControl).build();
         }
-        return players;
+        return Response.ok(leaderboard.json()).tag(entityTag).cacheControl(cacheControl).build();
     }
 
     @GET
@@ -89,6 +109,25 @@ public class WebResource {
         return String.valueOf(server.getMaxNumberOfUsers());
     }
 
+    /**
+     * @return latencies of participant servers in milliseconds, by endpoint, by email of players
+     */
+    @GET
+    @Path("/admin/latencies")
+    @Produces(MediaType.APPLICATION_JSON)
+    @AdminAuthorization
+    public Map<String, Map<String, LatencyStatistics>> latencies() {
+        return server.getLatencies();
+    }
+
+    @GET
+    @Path("/admin/metrics")
+    @Produces(PrometheusText.CONTENT_TYPE)
+    @AdminAuthorization
+    public String metrics() {
+        return server.getMetrics();
+    }
+
     @GET
     @Path("/admin/increaseMaxNumberOfUsers")
     @AdminAuthorization
@@ -0,0 +1,128 @@
+package elevator.server.http;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Stops requesting a participant server that keeps failing. After {@link #FAILURES_TO_OPEN} transport errors in a
+ * row, the breaker opens: no request is sent until it is time to probe the server with a single request. If the probe
+ * succeeds the breaker closes, otherwise it opens again for twice as long, up to {@link #MAX_OPEN_NANOS}.
+ * <p>
+ * The listener is told about every change of state, outside of the lock of the breaker.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+
+        /**
+         * Requests are sent.
+         */
+        CLOSED,
+
+        /**
+         * No request is sent until it is time to probe.
+         */
+        OPEN,
+
+        /**
+         * The probe is on its way, no other request is sent.
+         */
+        HALF_OPEN,;
+
+    }
+
+    public interface Listener {
+
+        void stateChanged(State state, String message);
+
+    }
+
+    static final int FAILURES_TO_OPEN = 3;
+    static final long MIN_OPEN_NANOS = SECONDS.toNanos(2);
+    static final long MAX_OPEN_NANOS = SECONDS.toNanos(64);
+
+    private static final Listener NO_LISTENER = new Listener() {
+        @Override
+        public void stateChanged(State state, String message) {
+        }
+    };
+
+    private final Listener listener;
+
+    private State state;
+    private int failures;
+    private long openNanos;
+    private long probeAt;
+
+    public CircuitBreaker() {
+        this(NO_LISTENER);
+    }
+
+    public CircuitBreaker(Listener listener) {
+        this.listener = listener;
+        this.state = State.CLOSED;
+        this.failures = 0;
+        this.openNanos = MIN_OPEN_NANOS;
+        this.probeAt = 0;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized boolean allowsRequest() {
+        return state == State.CLOSED;
+    }
+
+    /**
+     * @return true if the breaker was open and it is time to probe, in which case it is now half open
+     */
+    public boolean tryProbe(long nanoTime) {
+        synchronized (this) {
+            if (state != State.OPEN || nanoTime - probeAt < 0) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+        }
+        listener.stateChanged(State.HALF_OPEN, "the participant server is probed with a request for the next command");
+        return true;
+    }
+
+    public void success() {
+        synchronized (this) {
+            failures = 0;
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            state = State.CLOSED;
+            openNanos = MIN_OPEN_NANOS;
+        }
+        listener.stateChanged(State.CLOSED, "the participant server responds again; the elevator has been reset");
+    }
+
+    /**
+     * @param error why the request has failed
+     * @return why the request has failed, telling that the breaker has opened if it just has
+     */
+    public String failure(long nanoTime, String error) {
+        int failures;
+        long openSeconds;
+        synchronized (this) {
+            failures = ++this.failures;
+            if (state == State.HALF_OPEN) {
+                openNanos = Math.min(openNanos * 2, MAX_OPEN_NANOS);
+            } else if (state == State.OPEN || failures < FAILURES_TO_OPEN) {
+                return error;
+            }
+            state = State.OPEN;
+            probeAt = nanoTime + openNanos;
+            openSeconds = NANOSECONDS.toSeconds(openNanos);
+        }
+        String message = format("%s; the participant server has failed %d times in a row, it won't be requested for %d s",
+                error, failures, openSeconds);
+        listener.stateChanged(State.OPEN, message);
+        return message;
+    }
+
+}
@@ -0,0 +1,150 @@
+package elevator.server.http;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keep-alive connections to one participant server. At most {@code maxConnections} connections are pooled; when
+ * they are all leased, extra requests get a connection that is closed after use. Idle connections are evicted
+ * lazily, when a connection is leased or released. Once the pool is closed, its idle connections are closed and no
+ * connection is pooled anymore.
+ */
+public class ConnectionPool {
+
+    public static final String ELEVATOR_HTTP_MAX_CONNECTIONS_PROPERTY = "elevator.http.maxConnections";
+    public static final String ELEVATOR_HTTP_IDLE_TIMEOUT_PROPERTY = "elevator.http.idleTimeout";
+
+    private static final int DEFAULT_MAX_CONNECTIONS = 4;
+    private static final long DEFAULT_IDLE_TIMEOUT_IN_MILLIS = 5000;
+
+    private final int maxConnections;
+    private final long idleTimeoutInMillis;
+    private final Deque<PooledConnection> idleConnections;
+    private final AtomicLong hits;
+    private final AtomicLong misses;
+    private final AtomicLong evictions;
+
+    private int pooledConnections;
+    private boolean closed;
+
+    public ConnectionPool() {
+        this(Integer.getInteger(ELEVATOR_HTTP_MAX_CONNECTIONS_PROPERTY, DEFAULT_MAX_CONNECTIONS),
+                Long.getLong(ELEVATOR_HTTP_IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT_IN_MILLIS));
+    }
+
+    public ConnectionPool(int maxConnections, long idleTimeoutInMillis) {
+        this.maxConnections = maxConnections;
+        this.idleTimeoutInMillis = idleTimeoutInMillis;
+        this.idleConnections = new ArrayDeque<>();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+        this.pooledConnections = 0;
+        this.closed = false;
+    }
+
+    PooledConnection lease(InetSocketAddress address, int connectTimeout) throws IOException {
+        boolean pooled;
+        synchronized (this) {
+            evictIdleConnections();
+            PooledConnection idleConnection = idleConnections.pollFirst();
+            if (idleConnection != null) {
+                hits.incrementAndGet();
+                return idleConnection;
+            }
+            pooled = !closed && pooledConnections < maxConnections;
+            if (pooled) {
+                pooledConnections++;
+            }
+        }
+        misses.incrementAndGet();
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(address, connectTimeout);
+            return new PooledConnection(socket, pooled);
+        } catch (IOException e) {
+            closeQuietly(socket);
+            if (pooled) {
+                synchronized (this) {
+                    pooledConnections--;
+                }
+            }
+            throw e;
+        }
+    }
+
+    void release(PooledConnection connection, boolean reusable) {
+        synchronized (this) {
+            if (reusable && connection.pooled && !closed && !connection.socket.isClosed()) {
+                connection.idleSince = System.currentTimeMillis();
+                idleConnections.offerFirst(connection);
+                evictIdleConnections();
+                return;
+            }
+            if (connection.pooled) {
+                pooledConnections--;
+            }
+        }
+        closeQuietly(connection.socket);
+    }
+
+    /**
+     * Closes idle connections; leased connections are closed when they are released.
+     */
+    public void close() {
+        Deque<PooledConnection> closedConnections;
+        synchronized (this) {
+            closed = true;
+            closedConnections = new ArrayDeque<>(idleConnections);
+            pooledConnections -= idleConnections.size();
+            idleConnections.clear();
+        }
+        for (PooledConnection connection : closedConnections) {
+            closeQuietly(connection.socket);
+        }
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public synchronized int idleConnections() {
+        return idleConnections.size();
+    }
+
+    private void evictIdleConnections() {
+        long now = System.currentTimeMillis();
+        for (Iterator<PooledConnection> iterator = idleConnections.iterator(); iterator.hasNext(); ) {
+            PooledConnection connection = iterator.next();
+            if (now - connection.idleSince >= idleTimeoutInMillis) {
+                iterator.remove();
+                pooledConnections--;
+                evictions.incrementAndGet();
+                closeQuietly(connection.socket);
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // nothing more to do with this socket
+        }
+    }
+
+}
@@ -0,0 +1,173 @@
+package elevator.server.http;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.FutureResponseListener;
+import org.eclipse.jetty.client.util.StringContentProvider;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.io.SelectorManager;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ScheduledExecutorScheduler;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.UnknownHostException;
+import java.nio.channels.UnresolvedAddressException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Sends requests with Jetty's non-blocking {@link HttpClient}: connections of every participant are multiplexed by a
+ * few selector threads, and no thread waits for a response to an event. The callback of an event is called by one of
+ * the few threads of the client, it must not block.
+ */
+public class JettyParticipantClient implements ParticipantClient {
+
+    static final int SELECTORS = 2;
+    static final int MAX_THREADS = 32;
+
+    private static JettyParticipantClient shared;
+
+    private final HttpClient httpClient;
+
+    /**
+     * @return the client shared by every game, started on first call
+     */
+    public static synchronized JettyParticipantClient shared() {
+        if (shared == null) {
+            shared = new JettyParticipantClient();
+            shared.start();
+            Runtime.getRuntime().addShutdownHook(new Thread("elevator-http-shutdown") {
+                @Override
+                public void run() {
+                    shared.stop();
+                }
+            });
+        }
+        return shared;
+    }
+
+    JettyParticipantClient() {
+        QueuedThreadPool executor = new QueuedThreadPool(MAX_THREADS);
+        executor.setName("elevator-http");
+        executor.setDaemon(true);
+        this.httpClient = new HttpClient() {
+            @Override
+            protected SelectorManager newSelectorManager() {
+                return new ClientSelectorManager(getExecutor(), getScheduler(), SELECTORS);
+            }
+        };
+        httpClient.setExecutor(executor);
+        httpClient.setScheduler(new ScheduledExecutorScheduler("elevator-http-scheduler", true));
+    }
+
+    void start() {
+        try {
+            httpClient.start();
+        } catch (Exception e) {
+            throw new IllegalStateException("can't start HTTP client", e);
+        }
+    }
+
+    void stop() {
+        try {
+            httpClient.stop();
+        } catch (Exception e) {
+            throw new IllegalStateException("can't stop HTTP client", e);
+        }
+    }
+
+    @Override
+    public String exchange(URL url, String body, int timeoutInMillis) throws IOException {
+        Request request = httpClient.newRequest(url.toString()).timeout(timeoutInMillis, MILLISECONDS);
+        if (body != null) {
+            request.method(HttpMethod.POST).content(new StringContentProvider(body, "UTF-8"), "text/plain; charset=UTF-8");
+        }
+        FutureResponseListener response = new FutureResponseListener(request);
+        request.send(response);
+        ContentResponse contentResponse;
+        try {
+            contentResponse = response.get(timeoutInMillis, MILLISECONDS);
+        } catch (TimeoutException e) {
+            request.abort(e);
+            throw ioException(url, e);
+        } catch (ExecutionException e) {
+            throw ioException(url, e.getCause());
+        } catch (InterruptedException e) {
+            request.abort(e);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(e.getMessage());
+        }
+        IOException statusException = statusException(url, contentResponse.getStatus());
+        if (statusException != null) {
+            throw statusException;
+        }
+        return firstLine(contentResponse.getContentAsString());
+    }
+
+    @Override
+    public void send(final URL url, int timeoutInMillis, final Callback callback) {
+        httpClient.newRequest(url.toString()).timeout(timeoutInMillis, MILLISECONDS).send(new Response.CompleteListener() {
+            @Override
+            public void onComplete(Result result) {
+                if (result.isFailed()) {
+                    callback.failed(ioException(url, result.getFailure()));
+                    return;
+                }
+                IOException statusException = statusException(url, result.getResponse().getStatus());
+                if (statusException != null) {
+                    callback.failed(statusException);
+                    return;
+                }
+                callback.completed();
+            }
+        });
+    }
+
+    private static IOException ioException(URL url, Throwable failure) {
+        if (failure instanceof TimeoutException) {
+            return new SocketTimeoutException("Read timed out");
+        }
+        if (failure instanceof UnresolvedAddressException) {
+            return new UnknownHostException(url.getHost());
+        }
+        if (failure instanceof IOException) {
+            return (IOException) failure;
+        }
+        return new IOException(String.valueOf(failure.getMessage()), failure);
+    }
+
+    /**
+     * @return the exception {@link java.net.HttpURLConnection} would throw for this status, null if it is not an error
+     */
+    private static IOException statusException(URL url, int status) {
+        if (status == 404 || status == 410) {
+            return new FileNotFoundException(url.toString());
+        }
+        if (status >= 400) {
+            return new IOException(format("Server returned HTTP response code: %d for URL: %s", status, url));
+        }
+        return null;
+    }
+
+    private static String firstLine(String content) {
+        if (content.isEmpty()) {
+            return null;
+        }
+        int end = 0;
+        while (end < content.length() && content.charAt(end) != '\n' && content.charAt(end) != '\r') {
+            end++;
+        }
+        return content.substring(0, end);
+    }
+
+}
@@ -0,0 +1,34 @@
+package elevator.server.http;
+
+import java.io.IOException;
+import java.net.URL;
+
+/**
+ * Sends requests to a participant server. Failures are reported as the {@link IOException}s
+ * {@link java.net.HttpURLConnection} would throw, so that they are told to the player the same way whatever the client.
+ */
+public interface ParticipantClient {
+
+    /**
+     * Waits for the response.
+     *
+     * @param body lines POSTed as text, null to GET the URL
+     * @return first line of the response, null if it is empty
+     */
+    String exchange(URL url, String body, int timeoutInMillis) throws IOException;
+
+    /**
+     * GETs the URL and ignores the response. The callback may be called before this method returns, or later by
+     * another thread.
+     */
+    void send(URL url, int timeoutInMillis, Callback callback);
+
+    interface Callback {
+
+        void completed();
+
+        void failed(IOException e);
+
+    }
+
+}
@@ -0,0 +1,26 @@
+package elevator.server.http;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+
+class PooledConnection {
+
+    final Socket socket;
+    final boolean pooled;
+    final InputStream in;
+    final OutputStream out;
+
+    long idleSince;
+
+    PooledConnection(Socket socket, boolean pooled) throws IOException {
+        this.socket = socket;
+        this.pooled = pooled;
+        this.in = new BufferedInputStream(socket.getInputStream());
+        this.out = new BufferedOutputStream(socket.getOutputStream());
+    }
+
+}
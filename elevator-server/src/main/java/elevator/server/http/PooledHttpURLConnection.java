@@ -0,0 +1,409 @@
+package elevator.server.http;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.net.SocketException;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal HTTP/1.1 client connection that borrows its socket from a {@link ConnectionPool} and gives it back once
+ * the response body has been read or closed. Error statuses are reported with the same exceptions and messages as
+ * the JDK implementation. A GET failing on an idle connection the participant has closed meanwhile is sent again on
+ * another connection; a POST is not, the participant may have processed it.
+ */
+class PooledHttpURLConnection extends HttpURLConnection {
+
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+    /**
+     * Longest status line, header or chunk size read from a participant, which could otherwise send a line without end.
+     */
+    private static final int MAX_LINE_LENGTH = 8192;
+
+    private final ConnectionPool connectionPool;
+    private final Map<String, String> responseHeaders;
+
+    private ByteArrayOutputStream requestBody;
+    private PooledConnection connection;
+    private InputStream responseBody;
+    private boolean executed;
+
+    PooledHttpURLConnection(URL url, ConnectionPool connectionPool) {
+        super(url);
+        this.connectionPool = connectionPool;
+        this.responseHeaders = new HashMap<>();
+    }
+
+    @Override
+    public void connect() throws IOException {
+        // the request is sent when its response is asked for, after an eventual body has been written
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        if (!getDoOutput()) {
+            throw new ProtocolException("cannot write to a URLConnection if doOutput=false - call setDoOutput(true)");
+        }
+        if ("GET".equals(method)) {
+            method = "POST";
+        }
+        if (requestBody == null) {
+            requestBody = new ByteArrayOutputStream();
+        }
+        return requestBody;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        execute();
+        if (responseCode == HTTP_NOT_FOUND || responseCode == HTTP_GONE) {
+            throw new FileNotFoundException(url.toString());
+        }
+        if (responseCode >= HTTP_BAD_REQUEST) {
+            throw new IOException("Server returned HTTP response code: " + responseCode + " for URL: " + url.toString());
+        }
+        return responseBody;
+    }
+
+    @Override
+    public int getResponseCode() throws IOException {
+        execute();
+        return responseCode;
+    }
+
+    @Override
+    public String getHeaderField(String name) {
+        return name == null ? null : responseHeaders.get(name.toLowerCase());
+    }
+
+    @Override
+    public void disconnect() {
+        if (connection != null) {
+            connectionPool.release(connection, false);
+            connection = null;
+        }
+    }
+
+    @Override
+    public boolean usingProxy() {
+        return false;
+    }
+
+    private void execute() throws IOException {
+        if (executed) {
+            return;
+        }
+        InetSocketAddress address = new InetSocketAddress(url.getHost(), url.getPort() == -1 ? url.getDefaultPort() : url.getPort());
+        byte[] request = request();
+        while (true) {
+            PooledConnection pooledConnection = connectionPool.lease(address, getConnectTimeout());
+            boolean reused = pooledConnection.idleSince != 0;
+            try {
+                pooledConnection.socket.setSoTimeout(getReadTimeout());
+                pooledConnection.out.write(request);
+                pooledConnection.out.flush();
+                readResponse(pooledConnection);
+                executed = true;
+                connected = true;
+                return;
+            } catch (IOException e) {
+                connectionPool.release(pooledConnection, false);
+                if (!reused || !retryable(e)) {
+                    throw e;
+                }
+                // the participant has closed this idle connection before we reused it, try with another one
+            } catch (RuntimeException e) {
+                connectionPool.release(pooledConnection, false);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * @return true if the request may be sent again on another connection: it is idempotent, and the participant has
+     * either closed the connection or has not answered anything, which a timeout does not tell
+     */
+    private boolean retryable(IOException e) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return false;
+        }
+        return e instanceof StaleConnectionException || e instanceof SocketException && responseCode == -1;
+    }
+
+    private byte[] request() throws IOException {
+        String file = url.getFile().isEmpty() ? "/" : url.getFile();
+        StringBuilder head = new StringBuilder();
+        head.append(method).append(' ').append(file).append(" HTTP/1.1\r\n");
+        head.append("Host: ").append(url.getAuthority()).append("\r\n");
+        head.append("Connection: keep-alive\r\n");
+        for (Map.Entry<String, List<String>> requestProperty : getRequestProperties().entrySet()) {
+            for (String value : requestProperty.getValue()) {
+                head.append(requestProperty.getKey()).append(": ").append(value).append("\r\n");
+            }
+        }
+        if (requestBody != null) {
+            head.append("Content-Length: ").append(requestBody.size()).append("\r\n");
+        }
+        head.append("\r\n");
+
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        request.write(head.toString().getBytes(ISO_8859_1));
+        if (requestBody != null) {
+            requestBody.writeTo(request);
+        }
+        return request.toByteArray();
+    }
+
+    private void readResponse(PooledConnection pooledConnection) throws IOException {
+        String statusLine = readLine(pooledConnection.in);
+        if (statusLine == null) {
+            throw new StaleConnectionException();
+        }
+        String[] status = statusLine.split(" ", 3);
+        if (status.length < 2 || !status[0].startsWith("HTTP/")) {
+            throw new IOException("Invalid Http response");
+        }
+        long statusCode = parse(status[1], 10);
+        if (statusCode > 999) {
+            throw new IOException("Invalid Http response");
+        }
+        responseCode = (int) statusCode;
+        responseMessage = status.length == 3 ? status[2] : "";
+
+        String header;
+        while ((header = readLine(pooledConnection.in)) != null && !header.isEmpty()) {
+            int colon = header.indexOf(':');
+            if (colon > 0) {
+                responseHeaders.put(header.substring(0, colon).trim().toLowerCase(), header.substring(colon + 1).trim());
+            }
+        }
+
+        String connectionHeader = responseHeaders.get("connection");
+        boolean keepAlive = "HTTP/1.1".equals(status[0])
+                ? !"close".equalsIgnoreCase(connectionHeader)
+                : "keep-alive".equalsIgnoreCase(connectionHeader);
+
+        connection = pooledConnection;
+        responseBody = body(pooledConnection, keepAlive);
+        if (responseCode >= HTTP_BAD_REQUEST) {
+            responseBody.close();
+        }
+    }
+
+    private InputStream body(PooledConnection pooledConnection, boolean keepAlive) throws IOException {
+        if ("HEAD".equals(method) || responseCode == HTTP_NO_CONTENT || responseCode == HTTP_NOT_MODIFIED) {
+            return new FixedLengthInputStream(pooledConnection, 0, keepAlive);
+        }
+        if ("chunked".equalsIgnoreCase(responseHeaders.get("transfer-encoding"))) {
+            return new ChunkedInputStream(pooledConnection, keepAlive);
+        }
+        String contentLength = responseHeaders.get("content-length");
+        if (contentLength != null) {
+            return new FixedLengthInputStream(pooledConnection, parse(contentLength, 10), keepAlive);
+        }
+        return new FixedLengthInputStream(pooledConnection, Long.MAX_VALUE, false);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(64);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                byte[] bytes = line.toByteArray();
+                int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                return new String(bytes, 0, length, ISO_8859_1);
+            }
+            if (line.size() == MAX_LINE_LENGTH) {
+                throw new IOException("Invalid Http response");
+            }
+            line.write(b);
+        }
+        return line.size() == 0 ? null : new String(line.toByteArray(), ISO_8859_1);
+    }
+
+    /**
+     * @return the number, not negative, written in this part of the response
+     * @throws IOException as the JDK implementation does when the response is not valid HTTP
+     */
+    private static long parse(String number, int radix) throws IOException {
+        long value;
+        try {
+            value = Long.parseLong(number.trim(), radix);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid Http response", e);
+        }
+        if (value < 0) {
+            throw new IOException("Invalid Http response");
+        }
+        return value;
+    }
+
+    private void release(PooledConnection pooledConnection, boolean reusable) {
+        if (connection == pooledConnection) {
+            connection = null;
+            connectionPool.release(pooledConnection, reusable);
+        }
+    }
+
+    private static class StaleConnectionException extends IOException {
+
+        private static final long serialVersionUID = -2253290457215442107L;
+
+        private StaleConnectionException() {
+            super("Unexpected end of file from server");
+        }
+
+    }
+
+    /**
+     * Body delimited by a Content-Length header, or by the end of the stream when {@code remaining} is
+     * {@link Long#MAX_VALUE}, in which case the connection cannot be reused.
+     */
+    private class FixedLengthInputStream extends InputStream {
+
+        private final PooledConnection pooledConnection;
+        private final boolean keepAlive;
+
+        private long remaining;
+        private boolean closed;
+
+        private FixedLengthInputStream(PooledConnection pooledConnection, long length, boolean keepAlive) {
+            this.pooledConnection = pooledConnection;
+            this.remaining = length;
+            this.keepAlive = keepAlive;
+            if (length == 0) {
+                endOfBody();
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (closed || remaining == 0) {
+                return -1;
+            }
+            int read = pooledConnection.in.read(b, off, (int) Math.min(len, remaining));
+            if (read == -1) {
+                remaining = 0;
+                closed = true;
+                release(pooledConnection, false);
+                return -1;
+            }
+            remaining -= read;
+            if (remaining == 0) {
+                endOfBody();
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            try {
+                byte[] buffer = new byte[512];
+                while (remaining != Long.MAX_VALUE && read(buffer, 0, buffer.length) != -1) {
+                    // drain what the caller has not read so that the connection can be reused
+                }
+            } finally {
+                closed = true;
+                release(pooledConnection, false);
+            }
+        }
+
+        private void endOfBody() {
+            closed = true;
+            release(pooledConnection, keepAlive);
+        }
+
+    }
+
+    private class ChunkedInputStream extends InputStream {
+
+        private final PooledConnection pooledConnection;
+        private final boolean keepAlive;
+
+        private long remainingInChunk;
+        private boolean closed;
+
+        private ChunkedInputStream(PooledConnection pooledConnection, boolean keepAlive) {
+            this.pooledConnection = pooledConnection;
+            this.keepAlive = keepAlive;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (closed) {
+                return -1;
+            }
+            if (remainingInChunk == 0 && !nextChunk()) {
+                return -1;
+            }
+            int read = pooledConnection.in.read(b, off, (int) Math.min(len, remainingInChunk));
+            if (read == -1) {
+                closed = true;
+                release(pooledConnection, false);
+                throw new EOFException("Premature end of chunked body");
+            }
+            remainingInChunk -= read;
+            if (remainingInChunk == 0) {
+                readLine(pooledConnection.in);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            try {
+                byte[] buffer = new byte[512];
+                while (read(buffer, 0, buffer.length) != -1) {
+                    // drain what the caller has not read so that the connection can be reused
+                }
+            } finally {
+                closed = true;
+                release(pooledConnection, false);
+            }
+        }
+
+        private boolean nextChunk() throws IOException {
+            String chunkSize = readLine(pooledConnection.in);
+            if (chunkSize == null) {
+                throw new EOFException("Premature end of chunked body");
+            }
+            int extension = chunkSize.indexOf(';');
+            remainingInChunk = parse(extension == -1 ? chunkSize : chunkSize.substring(0, extension), 16);
+            if (remainingInChunk > 0) {
+                return true;
+            }
+            String trailer;
+            while ((trailer = readLine(pooledConnection.in)) != null && !trailer.isEmpty()) {
+                // trailers are ignored
+            }
+            closed = true;
+            release(pooledConnection, keepAlive);
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,29 @@
+package elevator.server.http;
+
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+
+public class PooledURLStreamHandler extends URLStreamHandler {
+
+    private final ConnectionPool connectionPool;
+
+    public PooledURLStreamHandler(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
+
+    @Override
+    protected URLConnection openConnection(URL url) {
+        return new PooledHttpURLConnection(url, connectionPool);
+    }
+
+    @Override
+    protected int getDefaultPort() {
+        return 80;
+    }
+
+    public ConnectionPool connectionPool() {
+        return connectionPool;
+    }
+
+}
@@ -0,0 +1,40 @@
+package elevator.server.http;
+
+/**
+ * How requests are sent to participant servers, read from {@link #ELEVATOR_HTTP_TRANSPORT_PROPERTY}.
+ */
+public enum Transport {
+
+    /**
+     * Each request holds a thread until its response, over connections pooled per participant.
+     */
+    BLOCKING {
+        @Override
+        public ParticipantClient client() {
+            return new URLConnectionClient();
+        }
+    },
+
+    /**
+     * Requests of every participant are multiplexed by a few selector threads, events don't hold any thread.
+     */
+    ASYNC {
+        @Override
+        public ParticipantClient client() {
+            return JettyParticipantClient.shared();
+        }
+    },;
+
+    public static final String ELEVATOR_HTTP_TRANSPORT_PROPERTY = "elevator.http.transport";
+
+    public abstract ParticipantClient client();
+
+    public static Transport fromSystemProperty() {
+        String transport = System.getProperty(ELEVATOR_HTTP_TRANSPORT_PROPERTY);
+        if (transport == null) {
+            return BLOCKING;
+        }
+        return valueOf(transport.trim().toUpperCase());
+    }
+
+}
@@ -0,0 +1,49 @@
+package elevator.server.http;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLConnection;
+
+/**
+ * Sends requests with the {@link URLConnection} of their URL, the calling thread waiting for each response.
+ */
+public class URLConnectionClient implements ParticipantClient {
+
+    @Override
+    public String exchange(URL url, String body, int timeoutInMillis) throws IOException {
+        URLConnection urlConnection = openConnection(url, timeoutInMillis);
+        if (body != null) {
+            urlConnection.setDoOutput(true);
+            urlConnection.setRequestProperty("Content-Type", "text/plain; charset=UTF-8");
+            try (OutputStream out = urlConnection.getOutputStream()) {
+                out.write(body.getBytes("UTF-8"));
+            }
+        }
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(urlConnection.getInputStream()))) {
+            return in.readLine();
+        }
+    }
+
+    @Override
+    public void send(URL url, int timeoutInMillis, Callback callback) {
+        try (InputStream in = openConnection(url, timeoutInMillis).getInputStream()) {
+            // the response is ignored
+        } catch (IOException e) {
+            callback.failed(e);
+            return;
+        }
+        callback.completed();
+    }
+
+    private URLConnection openConnection(URL url, int timeoutInMillis) throws IOException {
+        URLConnection urlConnection = url.openConnection();
+        urlConnection.setConnectTimeout(timeoutInMillis);
+        urlConnection.setReadTimeout(timeoutInMillis);
+        return urlConnection;
+    }
+
+}
@@ -0,0 +1,199 @@
+package elevator.server.journal;
+
+import elevator.Command;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * State of the last game of a journal, rebuilt by applying its records in order. Besides what is shown to the player,
+ * it counts what an offline analysis of the elevator engine needs: commands, users carried and their ticks.
+ */
+public class GameReplay {
+
+    private String email;
+    private String pseudo;
+    private int score;
+    private int lowerFloor;
+    private int[] waitingUsersByFloors;
+    private int floor;
+    private int travelingUsers;
+    private boolean doorIsOpen;
+    private String lastErrorMessage;
+    private boolean paused;
+    private boolean ended;
+    private long lastTick;
+
+    private final Map<Command, Long> commands = new EnumMap<>(Command.class);
+    private long doneUsers;
+    private long ticksToWait;
+    private long ticksToGo;
+    private long resets;
+
+    public static GameReplay read(File file) throws IOException {
+        GameReplay gameReplay = new GameReplay();
+        try (JournalReader reader = new JournalReader(file)) {
+            for (JournalRecord record = reader.next(); record != null; record = reader.next()) {
+                gameReplay.apply(record);
+            }
+        }
+        return gameReplay;
+    }
+
+    void apply(JournalRecord record) {
+        lastTick = record.tick;
+        switch (record.type) {
+            case START:
+                email = record.text.substring(0, record.c);
+                pseudo = record.text.substring(record.c);
+                score = record.d;
+                lowerFloor = record.a;
+                waitingUsersByFloors = new int[record.b - record.a + 1];
+                lastErrorMessage = null;
+                paused = false;
+                ended = false;
+                commands.clear();
+                doneUsers = 0;
+                ticksToWait = 0;
+                ticksToGo = 0;
+                resets = 0;
+                resetBuilding();
+                break;
+            case COMMAND:
+                Command command = Command.values()[record.a];
+                Long count = commands.get(command);
+                commands.put(command, count == null ? 1 : count + 1);
+                switch (command) {
+                    case UP:
+                        floor++;
+                        break;
+                    case DOWN:
+                        floor--;
+                        break;
+                    case OPEN:
+                        doorIsOpen = true;
+                        break;
+                    case CLOSE:
+                        doorIsOpen = false;
+                        break;
+                }
+                break;
+            case USER_CREATED:
+                waitingUsersByFloors[record.a - lowerFloor]++;
+                break;
+            case USER_ENTERED:
+                waitingUsersByFloors[record.a - lowerFloor]--;
+                travelingUsers++;
+                break;
+            case USER_DONE:
+                travelingUsers--;
+                score += record.e;
+                doneUsers++;
+                ticksToWait += record.c;
+                ticksToGo += record.d;
+                break;
+            case RESET:
+                score -= record.a;
+                lastErrorMessage = record.text;
+                resets++;
+                resetBuilding();
+                break;
+            case SCORE_LOST:
+                score -= record.a;
+                break;
+            case PAUSE:
+                paused = true;
+                break;
+            case RESUME:
+                paused = false;
+                break;
+            case END:
+                ended = true;
+                break;
+        }
+    }
+
+    private void resetBuilding() {
+        floor = lowerFloor;
+        doorIsOpen = false;
+        travelingUsers = 0;
+        for (int i = 0; i < waitingUsersByFloors.length; i++) {
+            waitingUsersByFloors[i] = 0;
+        }
+    }
+
+    /**
+     * @return true if the journal holds a game that the player has not left
+     */
+    public boolean isPlaying() {
+        return email != null && !ended;
+    }
+
+    public String email() {
+        return email;
+    }
+
+    public String pseudo() {
+        return pseudo;
+    }
+
+    public int score() {
+        return score;
+    }
+
+    public int lowerFloor() {
+        return lowerFloor;
+    }
+
+    public int[] waitingUsersByFloors() {
+        return waitingUsersByFloors.clone();
+    }
+
+    public int floor() {
+        return floor;
+    }
+
+    public int travelingUsers() {
+        return travelingUsers;
+    }
+
+    public boolean doorIsOpen() {
+        return doorIsOpen;
+    }
+
+    public String lastErrorMessage() {
+        return lastErrorMessage;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public long lastTick() {
+        return lastTick;
+    }
+
+    public long commands(Command command) {
+        Long count = commands.get(command);
+        return count == null ? 0 : count;
+    }
+
+    public long doneUsers() {
+        return doneUsers;
+    }
+
+    public long ticksToWait() {
+        return ticksToWait;
+    }
+
+    public long ticksToGo() {
+        return ticksToGo;
+    }
+
+    public long resets() {
+        return resets;
+    }
+
+}
@@ -0,0 +1,91 @@
+package elevator.server.journal;
+
+import elevator.BuildingDimension;
+import elevator.Command;
+import elevator.Direction;
+import elevator.User;
+
+/**
+ * What happens to a game, tick by tick, so that its state can be rebuilt after the server has stopped. See
+ * {@link JournalRecord} for the records written by each method.
+ */
+public interface Journal {
+
+    /**
+     * Records nothing.
+     */
+    Journal NONE = new Journal() {
+        @Override
+        public void start(long tick, String email, String pseudo, BuildingDimension buildingDimension, int score) {
+        }
+
+        @Override
+        public void command(long tick, Command command) {
+        }
+
+        @Override
+        public void userCreated(long tick, int atFloor, Direction to) {
+        }
+
+        @Override
+        public void userEntered(long tick, User user) {
+        }
+
+        @Override
+        public void userDone(long tick, User user, int score) {
+        }
+
+        @Override
+        public void reset(long tick, int lostScore, String cause) {
+        }
+
+        @Override
+        public void scoreLost(long tick, int lostScore) {
+        }
+
+        @Override
+        public void paused(long tick) {
+        }
+
+        @Override
+        public void resumed(long tick) {
+        }
+
+        @Override
+        public void close(long tick) {
+        }
+    };
+
+    /**
+     * @param score score of the player when the game starts, not 0 if it has been restored
+     */
+    void start(long tick, String email, String pseudo, BuildingDimension buildingDimension, int score);
+
+    void command(long tick, Command command);
+
+    void userCreated(long tick, int atFloor, Direction to);
+
+    void userEntered(long tick, User user);
+
+    /**
+     * @param score points won by carrying this user
+     */
+    void userDone(long tick, User user, int score);
+
+    /**
+     * The building has been reset: users are gone, the elevator is back at the lower floor with its doors closed.
+     */
+    void reset(long tick, int lostScore, String cause);
+
+    void scoreLost(long tick, int lostScore);
+
+    void paused(long tick);
+
+    void resumed(long tick);
+
+    /**
+     * Records the end of the game, nothing is recorded afterwards.
+     */
+    void close(long tick);
+
+}
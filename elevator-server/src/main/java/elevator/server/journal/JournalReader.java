@@ -0,0 +1,78 @@
+package elevator.server.journal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import static elevator.server.journal.JournalRecord.SIZE;
+import static elevator.server.journal.JournalRecord.UTF_8;
+import static elevator.server.journal.JournalRecord.blocks;
+
+/**
+ * Reads the records of a journal in order, until the first record that has not been entirely written: a record is
+ * only complete once its type has been written, see {@link MappedJournal}.
+ */
+public class JournalReader implements Closeable {
+
+    private final DataInputStream in;
+
+    private long position;
+    private boolean ended;
+
+    public JournalReader(File file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+        this.position = 0;
+        this.ended = false;
+    }
+
+    /**
+     * @return next record, null after the last one
+     */
+    public JournalRecord next() throws IOException {
+        if (ended) {
+            return null;
+        }
+        try {
+            long tick = in.readLong();
+            JournalRecord.Type type = JournalRecord.Type.of(in.readByte());
+            in.skipBytes(3);
+            int a = in.readInt();
+            int b = in.readInt();
+            int c = in.readInt();
+            int d = in.readInt();
+            int e = in.readInt();
+            if (type == null) {
+                ended = true;
+                return null;
+            }
+            String text = null;
+            if (type.hasText) {
+                byte[] block = new byte[blocks(e) * SIZE];
+                in.readFully(block);
+                text = new String(block, 0, e, UTF_8);
+            }
+            position += SIZE + (type.hasText ? blocks(e) * SIZE : 0);
+            return new JournalRecord(tick, type, a, b, c, d, e, text);
+        } catch (EOFException e) {
+            ended = true;
+            return null;
+        }
+    }
+
+    /**
+     * @return position of the byte following the last record read
+     */
+    long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+}
@@ -0,0 +1,128 @@
+package elevator.server.journal;
+
+import java.nio.charset.Charset;
+
+/**
+ * A record of a journal. Every record is {@link #SIZE} bytes long, big-endian:
+ * <pre>
+ * 0  tick   long
+ * 8  type   byte, 0 after the last record
+ * 9  unused 3 bytes
+ * 12 a      int
+ * 16 b      int
+ * 20 c      int
+ * 24 d      int
+ * 28 e      int
+ * </pre>
+ * The meaning of {@code a} to {@code e} depends on the type. Records of a type that holds text are followed by as
+ * many blocks of {@link #SIZE} bytes as needed by the UTF-8 bytes of the text, whose length is {@code e}.
+ */
+public class JournalRecord {
+
+    public static final int SIZE = 32;
+
+    static final int TICK = 0;
+    static final int TYPE = 8;
+    static final int A = 12;
+    static final int B = 16;
+    static final int C = 20;
+    static final int D = 24;
+    static final int E = 28;
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public enum Type {
+
+        /**
+         * A game has started: {@code a} lower floor, {@code b} higher floor, {@code c} number of chars of the email, {@code d}
+         * score, text is the email followed by the pseudo.
+         */
+        START(1, true),
+
+        /**
+         * Next command of the elevator: {@code a} ordinal of the {@link elevator.Command}.
+         */
+        COMMAND(2, false),
+
+        /**
+         * A user has called the elevator: {@code a} floor, {@code b} ordinal of the {@link elevator.Direction}.
+         */
+        USER_CREATED(3, false),
+
+        /**
+         * A user has entered the elevator: {@code a} initial floor, {@code b} floor to go.
+         */
+        USER_ENTERED(4, false),
+
+        /**
+         * A user has exited the elevator at its floor: {@code a} initial floor, {@code b} floor to go, {@code c} ticks
+         * waited, {@code d} ticks traveled, {@code e} score won.
+         */
+        USER_DONE(5, false),
+
+        /**
+         * The building has been reset: {@code a} score lost, text is the cause.
+         */
+        RESET(6, true),
+
+        /**
+         * The elevator engine could not be reset: {@code a} score lost.
+         */
+        SCORE_LOST(7, false),
+
+        PAUSE(8, false),
+
+        RESUME(9, false),
+
+        /**
+         * The player has left the game.
+         */
+        END(10, false),;
+
+        final byte code;
+        final boolean hasText;
+
+        private Type(int code, boolean hasText) {
+            this.code = (byte) code;
+            this.hasText = hasText;
+        }
+
+        static Type of(byte code) {
+            for (Type type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            return null;
+        }
+
+    }
+
+    public final long tick;
+    public final Type type;
+    public final int a;
+    public final int b;
+    public final int c;
+    public final int d;
+    public final int e;
+    /**
+     * null unless the type holds text
+     */
+    public final String text;
+
+    JournalRecord(long tick, Type type, int a, int b, int c, int d, int e, String text) {
+        this.tick = tick;
+        this.type = type;
+        this.a = a;
+        this.b = b;
+        this.c = c;
+        this.d = d;
+        this.e = e;
+        this.text = text;
+    }
+
+    static int blocks(int textLength) {
+        return (textLength + SIZE - 1) / SIZE;
+    }
+
+}
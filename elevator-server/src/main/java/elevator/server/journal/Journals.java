@@ -0,0 +1,84 @@
+package elevator.server.journal;
+
+import elevator.logging.ElevatorLogger;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.util.Collections.newSetFromMap;
+
+/**
+ * Journals of every game, one file per player in a directory. Games are not journaled unless a directory is given by
+ * {@code -Delevator.journal.directory}.
+ */
+public class Journals {
+
+    public static final String ELEVATOR_JOURNAL_DIRECTORY_PROPERTY = "elevator.journal.directory";
+
+    static final String EXTENSION = ".journal";
+
+    private final File directory;
+    private final Set<File> openFiles;
+    private final Logger logger;
+
+    public Journals(File directory) {
+        this.directory = directory;
+        this.openFiles = newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+        this.logger = new ElevatorLogger("Journals").logger();
+    }
+
+    public static Journals fromSystemProperty() {
+        String directory = System.getProperty(ELEVATOR_JOURNAL_DIRECTORY_PROPERTY);
+        return new Journals(directory == null ? null : new File(directory));
+    }
+
+    /**
+     * @return journal of this player's game, {@link Journal#NONE} if games are not journaled, if it can't be opened
+     *         or if it is already open because the same player is subscribing twice
+     */
+    public Journal open(String email) {
+        if (directory == null) {
+            return Journal.NONE;
+        }
+        File file = file(email);
+        if (!openFiles.add(file)) {
+            return Journal.NONE;
+        }
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("can't create directory " + directory);
+            }
+            return new MappedJournal(file, openFiles);
+        } catch (IOException e) {
+            openFiles.remove(file);
+            logger.log(Level.WARNING, "can't open journal " + file + ", game of " + email + " won't be journaled", e);
+            return Journal.NONE;
+        }
+    }
+
+    File file(String email) {
+        return new File(directory, email.replaceAll("[^A-Za-z0-9@._-]", "_") + EXTENSION);
+    }
+
+    /**
+     * @return journal files of every player
+     */
+    public List<File> files() {
+        File[] files = directory == null ? null : directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(EXTENSION);
+            }
+        });
+        return files == null ? Collections.<File>emptyList() : Arrays.asList(files);
+    }
+
+}
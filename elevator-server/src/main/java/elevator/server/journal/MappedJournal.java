@@ -0,0 +1,180 @@
+package elevator.server.journal;
+
+import elevator.BuildingDimension;
+import elevator.Command;
+import elevator.Direction;
+import elevator.User;
+import elevator.logging.ElevatorLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static elevator.server.journal.JournalRecord.*;
+
+/**
+ * Appends records to a file mapped in memory, one chunk of {@link #CHUNK_SIZE} bytes at a time. Writing a record is
+ * a few stores in memory, the operating system writes them to the file: they are not lost when the server crashes,
+ * only when the machine does. The type of a record is written last, so that a record being written when the server
+ * crashes is ignored by {@link JournalReader}.
+ * <p>
+ * A journal that already exists is appended to: the records of a game start from its last {@link Type#START}
+ * record. A journal that can't be written anymore stops recording, the game goes on.
+ */
+public class MappedJournal implements Journal {
+
+    static final int CHUNK_SIZE = 1 << 20;
+    static final int MAX_TEXT_LENGTH = 1024;
+
+    private final File file;
+    private final Set<File> openFiles;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private final Logger logger;
+
+    private long chunkStart;
+    private MappedByteBuffer chunk;
+    private boolean closed;
+
+    public MappedJournal(File file) throws IOException {
+        this(file, new HashSet<File>());
+    }
+
+    /**
+     * @param openFiles files of the journals being written, this file is removed from it once closed
+     */
+    MappedJournal(File file, Set<File> openFiles) throws IOException {
+        long end;
+        try (JournalReader reader = new JournalReader(file.exists() ? file : createEmpty(file))) {
+            while (reader.next() != null) {
+                // skips records of previous games
+            }
+            end = reader.position();
+        }
+        this.file = file;
+        this.openFiles = openFiles;
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        this.channel = randomAccessFile.getChannel();
+        this.logger = new ElevatorLogger("MappedJournal").logger();
+        this.chunkStart = end;
+        this.chunk = channel.map(FileChannel.MapMode.READ_WRITE, chunkStart, CHUNK_SIZE);
+        this.closed = false;
+    }
+
+    private static File createEmpty(File file) throws IOException {
+        if (!file.createNewFile()) {
+            throw new IOException("can't create " + file);
+        }
+        return file;
+    }
+
+    @Override
+    public void start(long tick, String email, String pseudo, BuildingDimension buildingDimension, int score) {
+        append(tick, Type.START, buildingDimension.getLowerFloor(), buildingDimension.getHigherFloor(),
+                email.length(), score, email + pseudo);
+    }
+
+    @Override
+    public void command(long tick, Command command) {
+        append(tick, Type.COMMAND, command.ordinal(), 0, 0, 0, null);
+    }
+
+    @Override
+    public void userCreated(long tick, int atFloor, Direction to) {
+        append(tick, Type.USER_CREATED, atFloor, to.ordinal(), 0, 0, null);
+    }
+
+    @Override
+    public void userEntered(long tick, User user) {
+        append(tick, Type.USER_ENTERED, user.getInitialFloor(), user.getFloorToGo(), 0, 0, null);
+    }
+
+    @Override
+    public void userDone(long tick, User user, int score) {
+        append(tick, Type.USER_DONE, user.getInitialFloor(), user.getFloorToGo(), user.getTickToWait(),
+                user.getTickToGo(), score, null);
+    }
+
+    @Override
+    public void reset(long tick, int lostScore, String cause) {
+        append(tick, Type.RESET, lostScore, 0, 0, 0, cause == null ? "" : cause);
+    }
+
+    @Override
+    public void scoreLost(long tick, int lostScore) {
+        append(tick, Type.SCORE_LOST, lostScore, 0, 0, 0, null);
+    }
+
+    @Override
+    public void paused(long tick) {
+        append(tick, Type.PAUSE, 0, 0, 0, 0, null);
+    }
+
+    @Override
+    public void resumed(long tick) {
+        append(tick, Type.RESUME, 0, 0, 0, 0, null);
+    }
+
+    @Override
+    public synchronized void close(long tick) {
+        append(tick, Type.END, 0, 0, 0, 0, null);
+        stop();
+    }
+
+    private void append(long tick, Type type, int a, int b, int c, int d, String text) {
+        byte[] bytes = text == null ? null : truncate(text).getBytes(UTF_8);
+        append(tick, type, a, b, c, d, bytes == null ? 0 : bytes.length, bytes);
+    }
+
+    private synchronized void append(long tick, Type type, int a, int b, int c, int d, int e, byte[] text) {
+        if (closed) {
+            return;
+        }
+        int size = SIZE + (text == null ? 0 : blocks(text.length) * SIZE);
+        try {
+            if (chunk.remaining() < size) {
+                chunkStart += chunk.position();
+                chunk = channel.map(FileChannel.MapMode.READ_WRITE, chunkStart, CHUNK_SIZE);
+            }
+        } catch (IOException exception) {
+            logger.log(Level.WARNING, "can't write journal " + file + " anymore", exception);
+            stop();
+            return;
+        }
+        int start = chunk.position();
+        if (text != null) {
+            for (int i = 0; i < text.length; i++) {
+                chunk.put(start + SIZE + i, text[i]);
+            }
+        }
+        chunk.putLong(start + TICK, tick)
+                .putInt(start + A, a)
+                .putInt(start + B, b)
+                .putInt(start + C, c)
+                .putInt(start + D, d)
+                .putInt(start + E, e)
+                .put(start + TYPE, type.code);
+        chunk.position(start + size);
+    }
+
+    private static String truncate(String text) {
+        return text.length() <= MAX_TEXT_LENGTH ? text : text.substring(0, MAX_TEXT_LENGTH);
+    }
+
+    private void stop() {
+        closed = true;
+        try {
+            randomAccessFile.close();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "can't close journal " + file, e);
+        }
+        openFiles.remove(file);
+    }
+
+}
@@ -0,0 +1,52 @@
+package elevator.server.latency;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connect and read timeout of the requests sent to one participant server, derived from its latest latencies: a few
+ * times their 99th percentile, between {@link #MIN_MILLIS} and {@link #MAX_MILLIS}. A server that usually answers in a
+ * few milliseconds is given up on sooner than one that is slow but steady.
+ * <p>
+ * Latencies are counted by windows of {@link #SAMPLES}, the timeout being computed again from each full window only,
+ * so that a server that has slowed down is not judged on its past. A request that has timed out counts as a latency of
+ * the timeout it was given: a few of them in a window are enough to raise the timeout again. The timeout is
+ * {@link #MAX_MILLIS} until a first window is full.
+ */
+public class AdaptiveTimeout {
+
+    static final int MIN_MILLIS = 200;
+    public static final int MAX_MILLIS = 1000;
+    static final int SAMPLES = 64;
+    private static final int PERCENTILE_FACTOR = 4;
+
+    private LatencyHistogram window;
+
+    private volatile int millis;
+
+    public AdaptiveTimeout() {
+        this.window = new LatencyHistogram();
+        this.millis = MAX_MILLIS;
+    }
+
+    public synchronized AdaptiveTimeout record(long durationInNanos) {
+        window.record(TimeUnit.NANOSECONDS.toMicros(durationInNanos));
+        if (window.count() >= SAMPLES) {
+            long p99InMillis = TimeUnit.MICROSECONDS.toMillis(window.percentile(99));
+            millis = (int) Math.min(Math.max(p99InMillis * PERCENTILE_FACTOR, MIN_MILLIS), MAX_MILLIS);
+            window = new LatencyHistogram();
+        }
+        return this;
+    }
+
+    /**
+     * @param timeoutInMillis timeout the request has been given
+     */
+    public AdaptiveTimeout timedOut(int timeoutInMillis) {
+        return record(TimeUnit.MILLISECONDS.toNanos(timeoutInMillis));
+    }
+
+    public int millis() {
+        return millis;
+    }
+
+}
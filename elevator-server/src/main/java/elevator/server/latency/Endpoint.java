@@ -0,0 +1,34 @@
+package elevator.server.latency;
+
+/**
+ * Resources of a participant server that the game requests.
+ */
+public enum Endpoint {
+    NEXT_COMMAND("nextCommand"),
+    BATCH("batch"),
+    CALL("call"),
+    GO("go"),
+    USER_HAS_ENTERED("userHasEntered"),
+    USER_HAS_EXITED("userHasExited"),
+    RESET("reset"),;
+
+    public final String path;
+
+    Endpoint(String path) {
+        this.path = path;
+    }
+
+    /**
+     * @return endpoint whose path is the last segment of {@code path}, null if there is none
+     */
+    public static Endpoint fromPath(String path) {
+        String lastSegment = path.substring(path.lastIndexOf('/') + 1);
+        for (Endpoint endpoint : values()) {
+            if (endpoint.path.equals(lastSegment)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+}
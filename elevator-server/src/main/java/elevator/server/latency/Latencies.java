@@ -0,0 +1,53 @@
+package elevator.server.latency;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Latencies of the requests sent to one participant server, by endpoint, with the number of requests that have timed
+ * out.
+ */
+public class Latencies {
+
+    private final Map<Endpoint, LatencyHistogram> histograms;
+    private final Map<Endpoint, AtomicLong> timeouts;
+
+    public Latencies() {
+        this.histograms = new EnumMap<>(Endpoint.class);
+        this.timeouts = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            histograms.put(endpoint, new LatencyHistogram());
+            timeouts.put(endpoint, new AtomicLong());
+        }
+    }
+
+    /**
+     * @param durationInNanos time elapsed from connection to response, or to failure
+     */
+    public Latencies record(Endpoint endpoint, long durationInNanos, boolean timedOut) {
+        histograms.get(endpoint).record(NANOSECONDS.toMicros(durationInNanos));
+        if (timedOut) {
+            timeouts.get(endpoint).incrementAndGet();
+        }
+        return this;
+    }
+
+    /**
+     * @return statistics of endpoints that have been requested, by endpoint path
+     */
+    public Map<String, LatencyStatistics> statistics() {
+        Map<String, LatencyStatistics> statistics = new LinkedHashMap<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            LatencyHistogram histogram = histograms.get(endpoint);
+            if (histogram.count() > 0) {
+                statistics.put(endpoint.path, new LatencyStatistics(histogram, timeouts.get(endpoint).get()));
+            }
+        }
+        return statistics;
+    }
+
+}
@@ -0,0 +1,88 @@
+package elevator.server.latency;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in microseconds within log-linear buckets, as HdrHistogram does: each power of two is split into
+ * {@code 16} buckets, so that a percentile is reported with an error below {@code 1/16} whatever its magnitude, in a few
+ * kilobytes. Latencies are recorded without locking by concurrent threads; percentiles read while latencies are
+ * recorded may miss the latest ones.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+    /**
+     * Latencies above about an hour are counted as an hour.
+     */
+    static final long HIGHEST_TRACKABLE_VALUE = (1L << 32) - 1;
+
+    private final AtomicLongArray counts;
+    private final AtomicLong totalCount;
+    private final AtomicLong maxValue;
+
+    public LatencyHistogram() {
+        this.counts = new AtomicLongArray(index(HIGHEST_TRACKABLE_VALUE) + 1);
+        this.totalCount = new AtomicLong();
+        this.maxValue = new AtomicLong();
+    }
+
+    public LatencyHistogram record(long valueInMicros) {
+        long value = Math.min(Math.max(valueInMicros, 0), HIGHEST_TRACKABLE_VALUE);
+        counts.incrementAndGet(index(value));
+        totalCount.incrementAndGet();
+        long max;
+        do {
+            max = maxValue.get();
+        } while (value > max && !maxValue.compareAndSet(max, value));
+        return this;
+    }
+
+    public long count() {
+        return totalCount.get();
+    }
+
+    public long max() {
+        return maxValue.get();
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return highest latency of the bucket holding this percentile, 0 if no latency has been recorded
+     */
+    public long percentile(double percentile) {
+        long count = totalCount.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulativeCount = 0;
+        for (int index = 0; index < counts.length(); index++) {
+            cumulativeCount += counts.get(index);
+            if (cumulativeCount >= rank) {
+                return Math.min(highestValue(index), maxValue.get());
+            }
+        }
+        return maxValue.get();
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return exponent * HALF_SUB_BUCKETS + (int) (value >>> exponent);
+    }
+
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / HALF_SUB_BUCKETS - 1;
+        long mantissa = index - exponent * HALF_SUB_BUCKETS;
+        return ((mantissa + 1) << exponent) - 1;
+    }
+
+}
@@ -0,0 +1,30 @@
+package elevator.server.latency;
+
+import java.io.Serializable;
+
+/**
+ * Percentiles of the latencies of an endpoint, in milliseconds.
+ */
+public class LatencyStatistics implements Serializable {
+
+    public final long count;
+    public final long timeouts;
+    public final double p50;
+    public final double p99;
+    public final double p999;
+    public final double max;
+
+    LatencyStatistics(LatencyHistogram histogram, long timeouts) {
+        this.count = histogram.count();
+        this.timeouts = timeouts;
+        this.p50 = millis(histogram.percentile(50));
+        this.p99 = millis(histogram.percentile(99));
+        this.p999 = millis(histogram.percentile(99.9));
+        this.max = millis(histogram.max());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000d;
+    }
+
+}
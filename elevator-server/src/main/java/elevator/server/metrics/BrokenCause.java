@@ -0,0 +1,19 @@
+package elevator.server.metrics;
+
+/**
+ * Why an elevator has been reset.
+ */
+public enum BrokenCause {
+    /**
+     * The command of the participant server can't be applied, such as opening opened doors.
+     */
+    ILLEGAL_COMMAND,
+    /**
+     * The participant server has not answered a command.
+     */
+    INVALID_RESPONSE,
+    /**
+     * The participant server could not be reached, or it can't keep up with the events.
+     */
+    TRANSPORT,;
+}
@@ -0,0 +1,49 @@
+package elevator.server.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter incremented by many threads without contention, in the spirit of Java 8's {@code LongAdder}: each thread
+ * adds to one of a few cells picked from its id, cells being a cache line apart so that threads adding to different
+ * cells do not invalidate each other's cache. Reading the counter sums the cells, so it is slower than incrementing it.
+ */
+public class Counter {
+
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+    /**
+     * Number of longs in a 64 bytes cache line.
+     */
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+    public Counter increment() {
+        return add(1);
+    }
+
+    public Counter add(long value) {
+        cells.getAndAdd(cell(Thread.currentThread().getId()), value);
+        return this;
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            sum += cells.get(stripe * PADDING);
+        }
+        return sum;
+    }
+
+    private static int cell(long threadId) {
+        int stripe = (int) ((threadId * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+        return stripe * PADDING;
+    }
+
+    /**
+     * @return a power of two at least twice the number of processors
+     */
+    private static int stripes(int processors) {
+        return Integer.highestOneBit(Math.max(1, processors * 2 - 1)) << 1;
+    }
+
+}
@@ -0,0 +1,35 @@
+package elevator.server.metrics;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+
+/**
+ * Failures of requests sent to participant servers.
+ */
+public enum HttpClientError {
+    TIMEOUT,
+    CONNECTION_REFUSED,
+    UNKNOWN_HOST,
+    NOT_FOUND,
+    OTHER,;
+
+    public static HttpClientError of(IOException e) {
+        if (e instanceof SocketTimeoutException) {
+            return TIMEOUT;
+        }
+        if (e instanceof ConnectException) {
+            return CONNECTION_REFUSED;
+        }
+        if (e instanceof UnknownHostException) {
+            return UNKNOWN_HOST;
+        }
+        if (e instanceof FileNotFoundException) {
+            return NOT_FOUND;
+        }
+        return OTHER;
+    }
+
+}
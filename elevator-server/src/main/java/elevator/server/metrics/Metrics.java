@@ -0,0 +1,64 @@
+package elevator.server.metrics;
+
+import elevator.server.http.CircuitBreaker;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counters shared by every game of the server. They are incremented on the tick path by many threads at once, so
+ * they are {@link Counter}s.
+ */
+public class Metrics {
+
+    private final Map<BrokenCause, Counter> brokenElevators;
+    private final Map<HttpClientError, Counter> httpClientErrors;
+    private final Map<CircuitBreaker.State, Counter> circuitBreakerTransitions;
+
+    public Metrics() {
+        this.brokenElevators = new EnumMap<>(BrokenCause.class);
+        for (BrokenCause cause : BrokenCause.values()) {
+            brokenElevators.put(cause, new Counter());
+        }
+        this.httpClientErrors = new EnumMap<>(HttpClientError.class);
+        for (HttpClientError error : HttpClientError.values()) {
+            httpClientErrors.put(error, new Counter());
+        }
+        this.circuitBreakerTransitions = new EnumMap<>(CircuitBreaker.State.class);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            circuitBreakerTransitions.put(state, new Counter());
+        }
+    }
+
+    public Metrics elevatorIsBroken(BrokenCause cause) {
+        brokenElevators.get(cause).increment();
+        return this;
+    }
+
+    public Metrics httpClientError(IOException e) {
+        httpClientErrors.get(HttpClientError.of(e)).increment();
+        return this;
+    }
+
+    public Metrics circuitBreakerStateChanged(CircuitBreaker.State state) {
+        circuitBreakerTransitions.get(state).increment();
+        return this;
+    }
+
+    public long brokenElevators(BrokenCause cause) {
+        return brokenElevators.get(cause).sum();
+    }
+
+    public long httpClientErrors(HttpClientError error) {
+        return httpClientErrors.get(error).sum();
+    }
+
+    /**
+     * @return number of times circuit breakers have changed to this state
+     */
+    public long circuitBreakerTransitions(CircuitBreaker.State state) {
+        return circuitBreakerTransitions.get(state).sum();
+    }
+
+}
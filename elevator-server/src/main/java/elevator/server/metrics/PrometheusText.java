@@ -0,0 +1,62 @@
+package elevator.server.metrics;
+
+/**
+ * Writes metrics in the Prometheus text exposition format, version 0.0.4: each family of metrics is declared with its
+ * type and help, then followed by its samples.
+ */
+public class PrometheusText {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder text = new StringBuilder();
+
+    public PrometheusText counter(String name, String help) {
+        return family(name, "counter", help);
+    }
+
+    public PrometheusText gauge(String name, String help) {
+        return family(name, "gauge", help);
+    }
+
+    /**
+     * @param labels label names and values, alternately
+     */
+    public PrometheusText sample(String name, double value, String... labels) {
+        text.append(name);
+        if (labels.length > 0) {
+            text.append('{');
+            for (int label = 0; label < labels.length; label += 2) {
+                if (label > 0) {
+                    text.append(',');
+                }
+                text.append(labels[label]).append("=\"").append(escape(labels[label + 1])).append('"');
+            }
+            text.append('}');
+        }
+        text.append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    private PrometheusText family(String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return this;
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+
+}
@@ -0,0 +1,32 @@
+package elevator.server.registry;
+
+/**
+ * What is needed to restore the game of a registered player.
+ */
+public class Registration {
+
+    public final String email;
+    public final String pseudo;
+    public final String password;
+    public final String serverURL;
+    public final boolean paused;
+    public final int score;
+
+    public Registration(String email, String pseudo, String password, String serverURL, boolean paused, int score) {
+        this.email = email;
+        this.pseudo = pseudo;
+        this.password = password;
+        this.serverURL = serverURL;
+        this.paused = paused;
+        this.score = score;
+    }
+
+    Registration paused(boolean paused) {
+        return new Registration(email, pseudo, password, serverURL, paused, score);
+    }
+
+    Registration score(int score) {
+        return new Registration(email, pseudo, password, serverURL, paused, score);
+    }
+
+}
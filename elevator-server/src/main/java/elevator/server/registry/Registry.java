@@ -0,0 +1,316 @@
+package elevator.server.registry;
+
+import elevator.logging.ElevatorLogger;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Registered players, kept on disk so that they don't have to register again when the server restarts. Every
+ * operation on a player is appended to a write-ahead log before the request returns. From time to time, the whole
+ * registry is written to a snapshot, so that logs don't grow forever: logs are numbered by generation, a snapshot
+ * tells the first generation to replay after it, and each snapshot starts a new generation. The older log is only
+ * deleted once the snapshot that replaces it has been written, so that a crash while writing a snapshot loses nothing.
+ * <p>
+ * Scores are those of the last snapshot, minus the scores lost by the resets logged afterwards. Players are not kept on disk unless a
+ * directory is given by {@code -Delevator.registry.directory}.
+ */
+public class Registry {
+
+    public static final String ELEVATOR_REGISTRY_DIRECTORY_PROPERTY = "elevator.registry.directory";
+
+    static final String SNAPSHOT = "registry.snapshot";
+    private static final Pattern LOG = Pattern.compile("registry-(\\d+)\\.log");
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final byte REGISTER = 1;
+    private static final byte UNREGISTER = 2;
+    private static final byte PAUSE = 3;
+    private static final byte RESUME = 4;
+    private static final byte RESET = 5;
+
+    private final File directory;
+    private final Logger logger;
+    private final Map<String, Registration> registrations;
+    private final Object snapshotLock;
+
+    private long generation;
+    private DataOutputStream log;
+
+    public Registry(File directory) {
+        this.directory = directory;
+        this.logger = new ElevatorLogger("Registry").logger();
+        this.registrations = new LinkedHashMap<>();
+        this.snapshotLock = new Object();
+        this.generation = 0;
+        this.log = null;
+    }
+
+    public static Registry fromSystemProperty() {
+        String directory = System.getProperty(ELEVATOR_REGISTRY_DIRECTORY_PROPERTY);
+        return new Registry(directory == null ? null : new File(directory));
+    }
+
+    public boolean isPersistent() {
+        return directory != null;
+    }
+
+    /**
+     * Reads the last snapshot and replays the logs written after it, then writes them all to a new snapshot.
+     *
+     * @return players registered when the server stopped
+     */
+    public Collection<Registration> restore() throws IOException {
+        if (directory == null) {
+            return new ArrayList<>();
+        }
+        synchronized (this) {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("can't create directory " + directory);
+            }
+            generation = readSnapshot();
+            while (log(generation).isFile()) {
+                replay(log(generation++));
+            }
+        }
+        snapshot();
+        return registrations();
+    }
+
+    public synchronized Collection<Registration> registrations() {
+        return new ArrayList<>(registrations.values());
+    }
+
+    public synchronized void registered(String email, String pseudo, String password, String serverURL) {
+        registrations.put(email, new Registration(email, pseudo, password, serverURL, false, 0));
+        append(REGISTER, email, pseudo, password, serverURL);
+    }
+
+    public synchronized void unregistered(String email) {
+        if (registrations.remove(email) != null) {
+            append(UNREGISTER, email);
+        }
+    }
+
+    public synchronized void paused(String email) {
+        Registration registration = registrations.get(email);
+        if (registration != null) {
+            registrations.put(email, registration.paused(true));
+            append(PAUSE, email);
+        }
+    }
+
+    public synchronized void resumed(String email) {
+        Registration registration = registrations.get(email);
+        if (registration != null) {
+            registrations.put(email, registration.paused(false));
+            append(RESUME, email);
+        }
+    }
+
+    /**
+     * @param lostScore score the player has lost by the reset
+     */
+    public synchronized void reset(String email, int lostScore) {
+        Registration registration = registrations.get(email);
+        if (registration != null) {
+            registrations.put(email, registration.score(registration.score - lostScore));
+            append(RESET, email, String.valueOf(lostScore));
+        }
+    }
+
+    /**
+     * Updates the scores of players, then writes a snapshot.
+     *
+     * @param scores current score by email of players
+     */
+    public void snapshot(Map<String, Integer> scores) {
+        synchronized (this) {
+            for (Map.Entry<String, Integer> score : scores.entrySet()) {
+                Registration registration = registrations.get(score.getKey());
+                if (registration != null) {
+                    registrations.put(score.getKey(), registration.score(score.getValue()));
+                }
+            }
+        }
+        try {
+            snapshot();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "can't write snapshot of registry in " + directory, e);
+        }
+    }
+
+    /**
+     * Starts a new log generation while registrations are copied, then writes them without holding the lock of the
+     * registry, so that requests don't wait for the disk.
+     */
+    private void snapshot() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        synchronized (snapshotLock) {
+            Collection<Registration> registrations;
+            long generation;
+            synchronized (this) {
+                registrations = registrations();
+                generation = ++this.generation;
+                DataOutputStream previousLog = log;
+                log = openLog(generation);
+                if (previousLog != null) {
+                    previousLog.close();
+                }
+            }
+            writeSnapshot(generation, registrations);
+            deleteLogsBefore(generation);
+        }
+    }
+
+    private void append(byte operation, String email, String... values) {
+        if (log == null) {
+            return;
+        }
+        try {
+            log.writeByte(operation);
+            log.writeUTF(email);
+            for (String value : values) {
+                log.writeUTF(value);
+            }
+            log.flush();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "can't log operation " + operation + " of " + email + " in " + directory, e);
+        }
+    }
+
+    private void replay(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int operation = in.read();
+                if (operation < 0) {
+                    return;
+                }
+                String email = in.readUTF();
+                Registration registration = registrations.get(email);
+                switch (operation) {
+                    case REGISTER:
+                        registrations.put(email, new Registration(email, in.readUTF(), in.readUTF(), in.readUTF(), false, 0));
+                        break;
+                    case UNREGISTER:
+                        registrations.remove(email);
+                        break;
+                    case PAUSE:
+                    case RESUME:
+                        if (registration != null) {
+                            registrations.put(email, registration.paused(operation == PAUSE));
+                        }
+                        break;
+                    case RESET:
+                        int lostScore = readScore(in, file);
+                        if (registration != null) {
+                            registrations.put(email, registration.score(registration.score - lostScore));
+                        }
+                        break;
+                    default:
+                        throw new IOException("unknown operation " + operation + " in " + file);
+                }
+            }
+        } catch (EOFException | UTFDataFormatException e) {
+            // the server has stopped while writing the last operation, which has not been acknowledged
+        }
+    }
+
+    private static int readScore(DataInputStream in, File file) throws IOException {
+        String score = in.readUTF();
+        try {
+            return Integer.parseInt(score);
+        } catch (NumberFormatException e) {
+            throw new IOException("invalid score " + score + " in " + file, e);
+        }
+    }
+
+    /**
+     * @return generation of the first log to replay
+     */
+    private long readSnapshot() throws IOException {
+        File snapshot = new File(directory, SNAPSHOT);
+        if (!snapshot.isFile()) {
+            return 0;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(snapshot)))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IOException("unknown version " + version + " of " + snapshot);
+            }
+            long generation = in.readLong();
+            for (int count = in.readInt(); count > 0; count--) {
+                Registration registration = new Registration(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                        in.readBoolean(), in.readInt());
+                registrations.put(registration.email, registration);
+            }
+            return generation;
+        }
+    }
+
+    private void writeSnapshot(long generation, Collection<Registration> registrations) throws IOException {
+        File snapshot = new File(directory, SNAPSHOT);
+        File temporary = new File(directory, SNAPSHOT + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeLong(generation);
+            out.writeInt(registrations.size());
+            for (Registration registration : registrations) {
+                out.writeUTF(registration.email);
+                out.writeUTF(registration.pseudo);
+                out.writeUTF(registration.password);
+                out.writeUTF(registration.serverURL);
+                out.writeBoolean(registration.paused);
+                out.writeInt(registration.score);
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary.toPath(), snapshot.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    private void deleteLogsBefore(long generation) throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("can't list " + directory);
+        }
+        for (File file : files) {
+            Matcher log = LOG.matcher(file.getName());
+            if (log.matches() && Long.parseLong(log.group(1)) < generation) {
+                Files.delete(file.toPath());
+            }
+        }
+    }
+
+    private DataOutputStream openLog(long generation) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(log(generation), true)));
+    }
+
+    File log(long generation) {
+        return new File(directory, "registry-" + generation + ".log");
+    }
+
+}
@@ -0,0 +1,19 @@
+package elevator.server.security;
+
+/**
+ * A password generated before the server has restarted.
+ */
+public class StoredPassword implements Password {
+
+    private final String password;
+
+    public StoredPassword(String password) {
+        this.password = password;
+    }
+
+    @Override
+    public String value() {
+        return password;
+    }
+
+}
@@ -10,12 +10,10 @@ angular.module('elevatorApp', ['ngCookies', 'md5', 'ui-gravatar', 'elevatorApp.s
             restrict: 'E',
             link: function (scope, element, attrs) {
 
-                var numberOfFloors = 5;
                 var width = 120;
                 var heightOfFloor = 40;
                 var widthOfFloor = 110;
                 var heightOfRoof = 2;
-                var height = (numberOfFloors + 1) * heightOfFloor + heightOfRoof;
 
                 var imageObj = new Image();
                 imageObj.src = '/img/man.png'
@@ -23,12 +21,16 @@ angular.module('elevatorApp', ['ngCookies', 'md5', 'ui-gravatar', 'elevatorApp.s
                 var stage = new Kinetic.Stage({
                     container: element[0],
                     width: width,
-                    height: height
+                    height: heightOfFloor + heightOfRoof
                 });
 
                 scope.$watch(attrs.player, function (player) {
                     stage.removeChildren();
                     if (player) {
+                        // highest floor, counted from the lower floor of the building
+                        var numberOfFloors = player.peopleWaitingTheElevator.length - 1;
+                        stage.setHeight((numberOfFloors + 1) * heightOfFloor + heightOfRoof);
+
                         var layer = new Kinetic.Layer();
 
                         for (var i = 0; i <= numberOfFloors; i++) {
@@ -67,7 +69,7 @@ angular.module('elevatorApp', ['ngCookies', 'md5', 'ui-gravatar', 'elevatorApp.s
 
                         }
 
-                        var yElevator = heightOfRoof + ((numberOfFloors - player.elevatorAtFloor) * heightOfFloor);
+                        var yElevator = heightOfRoof + ((numberOfFloors - (player.elevatorAtFloor - player.lowerFloor)) * heightOfFloor);
                         var elevator = new Kinetic.Rect({
                             x: width - 50,
                             y: yElevator,
@@ -21,23 +21,52 @@ function ElevatorCtrl($scope, $timeout, $http, ElevatorAuth) {
     function fetchPlayerInfo($scope, ElevatorAuth, $timeout) {
         (function fetch() {
             if ($scope.loggedIn()) {
-                ElevatorAuth.playerInfo()
+                ElevatorAuth.playerInfoChanges($scope.playerInfoTick)
                     .success(function (data) {
-                        $scope.playerInfo = data;
+                        if (data.since === null) {
+                            $scope.playerInfo = data.changes;
+                        } else {
+                            angular.extend($scope.playerInfo, data.changes);
+                        }
+                        $scope.playerInfoTick = data.tick;
                     });
                 $scope.nextFetchPlayerInfo = $timeout(fetch, 1000);
             }
         })();
     }
 
-    fetchPlayerInfo($scope, ElevatorAuth, $timeout);
+    function streamPlayerInfo($scope) {
+        if ($scope.loggedIn()) {
+            $scope.playerInfoStream = new EventSource('/resources/stream/player?email=' + encodeURIComponent($scope.player.email));
+            $scope.playerInfoStream.addEventListener('player', function (event) {
+                $scope.$apply(function () {
+                    $scope.playerInfo = JSON.parse(event.data);
+                });
+            });
+            $scope.playerInfoStream.addEventListener('playerChanges', function (event) {
+                $scope.$apply(function () {
+                    angular.extend($scope.playerInfo, JSON.parse(event.data).changes);
+                });
+            });
+        }
+    }
+
+    function followPlayerInfo($scope, ElevatorAuth, $timeout) {
+        if (window.EventSource) {
+            streamPlayerInfo($scope);
+        } else {
+            fetchPlayerInfo($scope, ElevatorAuth, $timeout);
+        }
+    }
+
+    followPlayerInfo($scope, ElevatorAuth, $timeout);
 
     $scope.login = function () {
         ElevatorAuth.register($scope.player)
             .success(function () {
                 delete $scope.message;
                 $scope.player = ElevatorAuth.player();
-                fetchPlayerInfo($scope, ElevatorAuth, $timeout);
+                followPlayerInfo($scope, ElevatorAuth, $timeout);
             })
             .error(function (data) {
                 $scope.message = data;
@@ -45,6 +74,9 @@ function ElevatorCtrl($scope, $timeout, $http, ElevatorAuth) {
     };
 
     $scope.disconnect = function () {
+        if ($scope.playerInfoStream) {
+            $scope.playerInfoStream.close();
+        }
         ElevatorAuth.unregister($scope.player);
     };
 
@@ -86,6 +118,9 @@ function ElevatorCtrl($scope, $timeout, $http, ElevatorAuth) {
 
     $scope.$on("$destroy", function () {
         $timeout.cancel($scope.nextFetchPlayerInfo);
+        if ($scope.playerInfoStream) {
+            $scope.playerInfoStream.close();
+        }
     });
 }
 
@@ -12,10 +12,44 @@ function LeaderboardCtrl($scope, ElevatorAuth, $http, $timeout) {
         })();
     }
 
-    fetchLeaderboard($scope, $http, $timeout);
+    function streamLeaderboard($scope) {
+        $scope.leaderboardStream = new EventSource('/resources/stream/leaderboard');
+        $scope.leaderboardStream.addEventListener('leaderboard', function (event) {
+            $scope.$apply(function () {
+                $scope.players = JSON.parse(event.data);
+            });
+        });
+        $scope.leaderboardStream.addEventListener('ranks', function (event) {
+            var changes = JSON.parse(event.data);
+            $scope.$apply(function () {
+                var players = $scope.players.filter(function (player) {
+                    return changes.removed.indexOf(player.email) < 0;
+                });
+                changes.ranks.forEach(function (rankedPlayer) {
+                    for (var i = 0; i < players.length; i++) {
+                        if (players[i].email === rankedPlayer.email) {
+                            players[i] = angular.extend({}, players[i], rankedPlayer.changes);
+                            return;
+                        }
+                    }
+                    players.push(rankedPlayer.changes);
+                });
+                $scope.players = players;
+            });
+        });
+    }
+
+    if (window.EventSource) {
+        streamLeaderboard($scope);
+    } else {
+        fetchLeaderboard($scope, $http, $timeout);
+    }
 
     $scope.$on("$destroy", function() {
         $timeout.cancel($scope.nextFetchLeaderboard);
+        if ($scope.leaderboardStream) {
+            $scope.leaderboardStream.close();
+        }
     });
 
     $scope.loggedIn = ElevatorAuth.loggedIn;
@@ -28,6 +28,21 @@ angular.module('elevatorApp.services', ['ngCookies']).
                         $cookieStore.remove('isLogged');
                     });
             },
+            "playerInfoChanges": function (since) {
+                if (!this.loggedIn()) {
+                    throw "not logged in";
+                }
+                return $http({
+                    'method': 'GET',
+                    'url': '/resources/player/changes?email=' + this.player().email + (since === undefined ? '' : '&since=' + since),
+                    'headers': {
+                        'Authorization': 'Basic ' + $cookieStore.get('isLogged').cookieValue
+                    }
+                }).
+                    error(function () {
+                        $cookieStore.remove('isLogged');
+                    });
+            },
             "register": function (player) {
                 return $http.post('/resources/player/register?email=' + player.email
                         + "&pseudo=" + player.pseudo
@@ -1,11 +1,16 @@
 package elevator.server;
 
 import elevator.Clock;
+import elevator.server.journal.GameReplay;
+import elevator.server.journal.MappedJournal;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.io.File;
 import java.net.URL;
 
 import static org.fest.assertions.Assertions.assertThat;
@@ -15,17 +20,21 @@ import static org.mockito.Mockito.verify;
 @RunWith(MockitoJUnitRunner.class)
 public class ElevatorGameTest {
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Spy
     private Clock clock;
 
     @Test(expected = IllegalArgumentException.class)
     public void should_not_create_elevator_game_with_other_protocol_than_http() throws Exception {
-        new ElevatorGame(null, new URL("https://127.0.0.1"), null, clock);
+        ElevatorGame.builder(null, new URL("https://127.0.0.1"), null, clock).build();
     }
 
     @Test
     public void should_get_player_info() throws Exception {
-        ElevatorGame elevatorGame = new ElevatorGame(new Player("player@provider.com", "player"), new URL("http://localhost"), null, clock);
+        ElevatorGame elevatorGame = ElevatorGame.builder(new Player("player@provider.com", "player"),
+                new URL("http://localhost"), null, clock).build();
 
         PlayerInfo playerInfo = elevatorGame.getPlayerInfo();
 
@@ -42,17 +51,20 @@ public class ElevatorGameTest {
 
     @Test
     public void should_loose_and_update_message_when_reset() throws Exception {
-        ElevatorGame elevatorGame = new ElevatorGame(new Player("player@provider.com", "player"), new URL("http://localhost"), null, clock);
+        ElevatorGame elevatorGame = ElevatorGame.builder(new Player("player@provider.com", "player"),
+                new URL("http://localhost"), null, clock).build();
 
-        elevatorGame.reset("error message");
+        int lostScore = elevatorGame.reset("error message");
 
+        assertThat(lostScore).isEqualTo(10);
         assertThat(elevatorGame.score()).isEqualTo(-10);
         assertThat(elevatorGame.lastErrorMessage).isEqualTo("error message");
     }
 
     @Test
     public void should_stop() throws Exception {
-        ElevatorGame elevatorGame = new ElevatorGame(new Player("player@provider.com", "player"), new URL("http://localhost"), null, clock);
+        ElevatorGame elevatorGame = ElevatorGame.builder(new Player("player@provider.com", "player"),
+                new URL("http://localhost"), null, clock).build();
 
         elevatorGame.stop();
 
@@ -62,11 +74,47 @@ public class ElevatorGameTest {
 
     @Test
     public void should_resume() throws Exception {
-        ElevatorGame elevatorGame = new ElevatorGame(new Player("player@provider.com", "player"), new URL("http://localhost"), null, clock).stop();
+        ElevatorGame elevatorGame = ElevatorGame.builder(new Player("player@provider.com", "player"),
+                new URL("http://localhost"), null, clock).build().stop();
 
         elevatorGame.resume();
 
         verify(clock, times(2)).addClockListener(elevatorGame);
     }
 
+    @Test
+    public void should_rebuild_player_info_from_journal() throws Exception {
+        File journal = new File(temporaryFolder.getRoot(), "player@provider.com.journal");
+        ElevatorGame elevatorGame = ElevatorGame.builder(new Player("player@provider.com", "player"),
+                new URL("http://localhost"), null, clock)
+                .journal(new MappedJournal(journal))
+                .build();
+        elevatorGame.reset("error message");
+        elevatorGame.stop();
+
+        PlayerInfo playerInfo = new PlayerInfo(GameReplay.read(journal));
+
+        assertThat(playerInfo.email).isEqualTo("player@provider.com");
+        assertThat(playerInfo.pseudo).isEqualTo("player");
+        assertThat(playerInfo.score).isEqualTo(elevatorGame.score());
+        assertThat(playerInfo.lastErrorMessage).isEqualTo("error message");
+        assertThat(playerInfo.peopleWaitingTheElevator).isEqualTo(new int[]{0, 0, 0, 0, 0, 0});
+        assertThat(playerInfo.state).isEqualTo("PAUSE");
+    }
+
+    @Test
+    public void should_journal_only_the_game_its_journal_is_attached_to() throws Exception {
+        File journal = new File(temporaryFolder.getRoot(), "player@provider.com.journal");
+        Player player = new Player("player@provider.com", "player");
+        ElevatorGame addedElevatorGame = ElevatorGame.builder(player, new URL("http://localhost"), null, clock).build();
+        ElevatorGame discardedElevatorGame = ElevatorGame.builder(player, new URL("http://localhost"), null, clock).build();
+
+        addedElevatorGame.journal(new MappedJournal(journal)).stop();
+        discardedElevatorGame.close();
+
+        GameReplay gameReplay = GameReplay.read(journal);
+        assertThat(gameReplay.isPlaying()).isTrue();
+        assertThat(new PlayerInfo(gameReplay).state).isEqualTo("PAUSE");
+    }
+
 }
@@ -0,0 +1,114 @@
+package elevator.server;
+
+import elevator.Clock;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class ElevatorGamesTest {
+
+    @ClassRule
+    public static PlayerServerRule playerServerRule = new PlayerServerRule();
+
+    private final Clock clock = new Clock();
+
+    @Test
+    public void should_get_game_by_email() throws Exception {
+        ElevatorGames elevatorGames = new ElevatorGames();
+        ElevatorGame elevatorGame = elevatorGame("player@provider.com");
+
+        assertThat(elevatorGames.add(elevatorGame)).isTrue();
+
+        assertThat(elevatorGames.get("player@provider.com")).isSameAs(elevatorGame);
+        assertThat(elevatorGames.get("other@provider.com")).isNull();
+    }
+
+    @Test
+    public void should_not_add_a_second_game_for_the_same_player() throws Exception {
+        ElevatorGames elevatorGames = new ElevatorGames();
+        ElevatorGame elevatorGame = elevatorGame("player@provider.com");
+        elevatorGames.add(elevatorGame);
+
+        assertThat(elevatorGames.add(elevatorGame("player@provider.com"))).isFalse();
+
+        assertThat(elevatorGames.get("player@provider.com")).isSameAs(elevatorGame);
+        assertThat(elevatorGames.values()).hasSize(1);
+    }
+
+    @Test
+    public void should_iterate_games_sorted_by_email() throws Exception {
+        ElevatorGames elevatorGames = new ElevatorGames();
+        elevatorGames.add(elevatorGame("c@provider.com"));
+        elevatorGames.add(elevatorGame("a@provider.com"));
+        elevatorGames.add(elevatorGame("b@provider.com"));
+
+        Iterator<ElevatorGame> games = elevatorGames.values().iterator();
+
+        assertThat(games.next().player.email).isEqualTo("a@provider.com");
+        assertThat(games.next().player.email).isEqualTo("b@provider.com");
+        assertThat(games.next().player.email).isEqualTo("c@provider.com");
+    }
+
+    @Test
+    public void should_iterate_games_while_they_are_removed() throws Exception {
+        ElevatorGames elevatorGames = new ElevatorGames();
+        elevatorGames.add(elevatorGame("a@provider.com"));
+        elevatorGames.add(elevatorGame("b@provider.com"));
+
+        Iterator<ElevatorGame> games = elevatorGames.values().iterator();
+        games.next();
+        elevatorGames.remove("a@provider.com");
+        elevatorGames.remove("b@provider.com");
+        elevatorGames.add(elevatorGame("c@provider.com"));
+        while (games.hasNext()) {
+            games.next();
+        }
+
+        assertThat(elevatorGames.values()).hasSize(1);
+        assertThat(elevatorGames.remove("a@provider.com")).isNull();
+    }
+
+    @Test
+    public void should_keep_one_game_by_player_when_players_subscribe_concurrently() throws Exception {
+        final ElevatorGames elevatorGames = new ElevatorGames();
+        List<Callable<Boolean>> subscriptions = new ArrayList<>();
+        for (int game = 0; game < 40; game++) {
+            final ElevatorGame elevatorGame = elevatorGame("player" + (game % 10) + "@provider.com");
+            subscriptions.add(new Callable<Boolean>() {
+                @Override
+                public Boolean call() {
+                    return elevatorGames.add(elevatorGame);
+                }
+            });
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        int addedGames = 0;
+        for (Future<Boolean> added : executorService.invokeAll(subscriptions)) {
+            if (added.get()) {
+                addedGames++;
+            }
+        }
+        executorService.shutdown();
+
+        assertThat(addedGames).isEqualTo(10);
+        assertThat(elevatorGames.size()).isEqualTo(10);
+        assertThat(elevatorGames.values()).hasSize(10);
+    }
+
+    private ElevatorGame elevatorGame(String email) throws MalformedURLException {
+        return ElevatorGame.builder(new Player(email, "pseudo"), new URL("http://127.0.0.1:8080"), null, clock).build();
+    }
+
+}
@@ -0,0 +1,126 @@
+package elevator.server;
+
+import org.junit.Test;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class EventQueueTest {
+
+    private final List<Runnable> drains = new ArrayList<>();
+    private final List<String> sentEvents = new ArrayList<>();
+
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            drains.add(command);
+        }
+    };
+
+    private final EventQueue.Sender sender = new EventQueue.Sender() {
+        @Override
+        public void send(URL event) {
+            sentEvents.add(event.getFile());
+        }
+    };
+
+    @Test
+    public void should_send_events_in_order_with_only_one_drain_at_a_time() throws Exception {
+        EventQueue events = new EventQueue(executor, 10, Backpressure.BREAK, sender);
+
+        events.offer(new URL("http://localhost/call?atFloor=1&to=UP"));
+        events.offer(new URL("http://localhost/go?floorToGo=3"));
+        events.offer(new URL("http://localhost/userHasEntered"));
+
+        assertThat(drains).hasSize(1);
+        assertThat(events.size()).isEqualTo(3);
+        drains.get(0).run();
+        assertThat(sentEvents).containsExactly("/call?atFloor=1&to=UP", "/go?floorToGo=3", "/userHasEntered");
+        assertThat(events.size()).isZero();
+
+        events.offer(new URL("http://localhost/userHasExited"));
+        assertThat(drains).hasSize(2);
+    }
+
+    @Test
+    public void should_drop_new_events_when_full() throws Exception {
+        EventQueue events = new EventQueue(executor, 2, Backpressure.DROP, sender);
+
+        assertThat(events.offer(new URL("http://localhost/go?floorToGo=1"))).isTrue();
+        assertThat(events.offer(new URL("http://localhost/go?floorToGo=2"))).isTrue();
+        assertThat(events.offer(new URL("http://localhost/go?floorToGo=3"))).isTrue();
+
+        drains.get(0).run();
+        assertThat(sentEvents).containsExactly("/go?floorToGo=1", "/go?floorToGo=2");
+    }
+
+    @Test
+    public void should_coalesce_duplicated_calls_when_full() throws Exception {
+        EventQueue events = new EventQueue(executor, 3, Backpressure.COALESCE, sender);
+
+        events.offer(new URL("http://localhost/call?atFloor=1&to=UP"));
+        events.offer(new URL("http://localhost/userHasEntered"));
+        events.offer(new URL("http://localhost/call?atFloor=1&to=UP"));
+        events.offer(new URL("http://localhost/userHasEntered"));
+        events.offer(new URL("http://localhost/call?atFloor=1&to=UP"));
+
+        drains.get(0).run();
+        assertThat(sentEvents).containsExactly("/call?atFloor=1&to=UP", "/userHasEntered", "/userHasEntered");
+    }
+
+    @Test
+    public void should_not_coalesce_events_of_different_users_when_full() throws Exception {
+        EventQueue events = new EventQueue(executor, 2, Backpressure.COALESCE, sender);
+
+        events.offer(new URL("http://localhost/userHasExited"));
+        events.offer(new URL("http://localhost/userHasExited"));
+        events.offer(new URL("http://localhost/userHasExited"));
+
+        drains.get(0).run();
+        assertThat(sentEvents).containsExactly("/userHasExited", "/userHasExited");
+    }
+
+    @Test
+    public void should_tell_to_break_the_elevator_when_full() throws Exception {
+        EventQueue events = new EventQueue(executor, 1, Backpressure.BREAK, sender);
+
+        assertThat(events.offer(new URL("http://localhost/go?floorToGo=1"))).isTrue();
+        assertThat(events.offer(new URL("http://localhost/go?floorToGo=2"))).isFalse();
+
+        assertThat(events.overflowed()).isTrue();
+        assertThat(events.size()).isZero();
+        events.clear();
+        assertThat(events.overflowed()).isFalse();
+    }
+
+    @Test
+    public void should_send_next_event_once_asynchronous_sender_tells_it_has_sent_the_previous_one() throws Exception {
+        final List<Runnable> sents = new ArrayList<>();
+        EventQueue events = new EventQueue(executor, 10, Backpressure.BREAK, new EventQueue.AsyncSender() {
+            @Override
+            public void send(URL event, Runnable sent) {
+                sentEvents.add(event.getFile());
+                sents.add(sent);
+            }
+        });
+        events.offer(new URL("http://localhost/call?atFloor=1&to=UP"));
+        events.offer(new URL("http://localhost/go?floorToGo=3"));
+
+        drains.get(0).run();
+        assertThat(sentEvents).containsExactly("/call?atFloor=1&to=UP");
+
+        sents.get(0).run();
+        assertThat(sentEvents).containsExactly("/call?atFloor=1&to=UP", "/go?floorToGo=3");
+        assertThat(events.size()).isZero();
+
+        events.offer(new URL("http://localhost/userHasEntered"));
+        assertThat(drains).hasSize(1);
+        sents.get(1).run();
+        assertThat(sentEvents).containsExactly("/call?atFloor=1&to=UP", "/go?floorToGo=3", "/userHasEntered");
+    }
+
+}
@@ -0,0 +1,128 @@
+package elevator.server;
+
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.hamcrest.Matcher;
+import org.junit.Test;
+import org.mockito.ArgumentMatcher;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class EventStreamTest {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final EventStream eventStream = new EventStream(new Executor() {
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+    });
+
+    @Test
+    public void should_send_last_state_to_new_subscriber() throws Exception {
+        eventStream.publish(event("change"), event("state"));
+        EventOutput eventOutput = mock(EventOutput.class);
+
+        eventStream.subscribe(eventOutput);
+        runTasks();
+
+        verify(eventOutput).write(argThat(named("state")));
+        verifyNoMoreInteractions(eventOutput);
+    }
+
+    @Test
+    public void should_send_every_change_to_subscriber_that_keeps_up() throws Exception {
+        EventOutput eventOutput = mock(EventOutput.class);
+        eventStream.subscribe(eventOutput);
+
+        eventStream.publish(event("change 1"), event("state 1"));
+        runTasks();
+        eventStream.publish(event("change 2"), event("state 2"));
+        runTasks();
+
+        InOrder inOrder = inOrder(eventOutput);
+        inOrder.verify(eventOutput).write(argThat(named("change 1")));
+        inOrder.verify(eventOutput).write(argThat(named("change 2")));
+        verifyNoMoreInteractions(eventOutput);
+    }
+
+    @Test
+    public void should_skip_intermediate_events_of_slow_subscriber() throws Exception {
+        EventOutput eventOutput = mock(EventOutput.class);
+        eventStream.subscribe(eventOutput);
+
+        eventStream.publish(event("change 1"), event("state 1"));
+        eventStream.publish(event("change 2"), event("state 2"));
+        eventStream.publish(event("change 3"), event("state 3"));
+        runTasks();
+
+        verify(eventOutput).write(argThat(named("state 3")));
+        verifyNoMoreInteractions(eventOutput);
+    }
+
+    @Test
+    public void should_not_delay_other_subscribers_while_writing_to_a_slow_one() throws Exception {
+        EventOutput slowEventOutput = mock(EventOutput.class);
+        EventOutput eventOutput = mock(EventOutput.class);
+        eventStream.subscribe(slowEventOutput);
+        eventStream.subscribe(eventOutput);
+
+        eventStream.publish(event("change 1"), event("state 1"));
+
+        assertThat(tasks).hasSize(2);
+    }
+
+    @Test
+    public void should_unsubscribe_when_event_cannot_be_written() throws Exception {
+        EventOutput eventOutput = mock(EventOutput.class);
+        doThrow(new IOException("connection reset")).when(eventOutput).write(any(OutboundEvent.class));
+        eventStream.subscribe(eventOutput);
+
+        eventStream.publish(event("change"), event("state"));
+        runTasks();
+
+        verify(eventOutput).close();
+        assertThat(eventStream.subscribers()).isZero();
+    }
+
+    @Test
+    public void should_not_subscribe_once_closed() {
+        assertThat(eventStream.closeIfUnsubscribed()).isTrue();
+
+        assertThat(eventStream.subscribe(mock(EventOutput.class))).isFalse();
+    }
+
+    @Test
+    public void should_not_close_while_subscribed() {
+        eventStream.subscribe(mock(EventOutput.class));
+
+        assertThat(eventStream.closeIfUnsubscribed()).isFalse();
+    }
+
+    private void runTasks() {
+        for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+            task.run();
+        }
+    }
+
+    private static OutboundEvent event(String name) {
+        return new OutboundEvent.Builder().name(name).data(String.class, "{}").build();
+    }
+
+    private static Matcher<OutboundEvent> named(final String name) {
+        return new ArgumentMatcher<OutboundEvent>() {
+            @Override
+            public boolean matches(Object event) {
+                return name.equals(((OutboundEvent) event).getName());
+            }
+        };
+    }
+
+}
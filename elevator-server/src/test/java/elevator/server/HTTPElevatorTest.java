@@ -1,31 +1,47 @@
 package elevator.server;
 
+import elevator.BuildingDimension;
 import elevator.Command;
 import elevator.User;
 import elevator.exception.ElevatorIsBrokenException;
+import elevator.server.http.CircuitBreaker;
+import elevator.server.http.ParticipantClient;
+import elevator.server.http.URLConnectionClient;
+import elevator.server.latency.AdaptiveTimeout;
+import elevator.server.metrics.HttpClientError;
+import elevator.server.metrics.Metrics;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.invocation.InvocationOnMock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.mockito.stubbing.Answer;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
+import java.net.SocketTimeoutException;
 import java.net.URLConnection;
 import java.net.UnknownHostException;
 import java.util.concurrent.ExecutorService;
 
 import static elevator.Command.OPEN;
 import static elevator.Direction.UP;
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.MapAssert.entry;
 import static org.junit.rules.ExpectedException.none;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.isNull;
 import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -37,6 +53,9 @@ public class HTTPElevatorTest {
     @Mock
     private ExecutorService executorService;
 
+    @Mock
+    private ParticipantClient participantClient;
+
     @Rule
     public ExpectedException expectedException = none();
 
@@ -53,8 +72,9 @@ public class HTTPElevatorTest {
 
     @Test
     public void should_call_server_with_call() throws Exception {
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://localhost:8080"), executorService,
-                new DontConnectURLStreamHandler("http://localhost:8080/call?atFloor=4&to=UP", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://localhost:8080"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://localhost:8080/call?atFloor=4&to=UP", urlConnection))
+                .build();
 
         httpElevator.call(4, UP);
 
@@ -63,8 +83,9 @@ public class HTTPElevatorTest {
 
     @Test
     public void should_call_server_with_go() throws Exception {
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://127.0.0.1"), executorService,
-                new DontConnectURLStreamHandler("http://127.0.0.1/go?floorToGo=3", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/go?floorToGo=3", urlConnection))
+                .build();
 
         httpElevator.go(3);
 
@@ -73,8 +94,9 @@ public class HTTPElevatorTest {
 
     @Test
     public void should_call_server_with_reset() throws Exception {
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://10.0.0.1/myApp/"), executorService,
-                new DontConnectURLStreamHandler("http://10.0.0.1/myApp/reset?cause=reason", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://10.0.0.1/myApp/"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://10.0.0.1/myApp/reset?cause=reason&lowerFloor=0&higherFloor=5", urlConnection))
+                .build();
 
         httpElevator.reset("reason");
 
@@ -83,8 +105,9 @@ public class HTTPElevatorTest {
 
     @Test
     public void should_call_server_with_userHasEntered() throws Exception {
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://10.0.0.1/myApp/"), executorService,
-                new DontConnectURLStreamHandler("http://10.0.0.1/myApp/userHasEntered", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://10.0.0.1/myApp/"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://10.0.0.1/myApp/userHasEntered", urlConnection))
+                .build();
 
         httpElevator.userHasEntered(any(User.class));
 
@@ -93,8 +116,9 @@ public class HTTPElevatorTest {
 
     @Test
     public void should_call_server_with_userHasExited() throws Exception {
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://10.0.0.1/myApp/"), executorService,
-                new DontConnectURLStreamHandler("http://10.0.0.1/myApp/userHasExited", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://10.0.0.1/myApp/"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://10.0.0.1/myApp/userHasExited", urlConnection))
+                .build();
 
         User user = mock(User.class);
         doReturn(0).when(user).getInitialFloor();
@@ -107,19 +131,150 @@ public class HTTPElevatorTest {
     @Test
     public void should_call_server_with_nextCommand() throws Exception {
         when(urlConnection.getInputStream()).thenReturn(new ByteArrayInputStream("OPEN".getBytes()));
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://127.0.0.1"), executorService,
-                new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection))
+                .build();
 
         Command nextCommand = httpElevator.nextCommand();
 
         assertThat(nextCommand).isEqualTo(OPEN);
     }
 
+    @Test
+    public void should_record_latency_of_nextCommand() throws Exception {
+        when(urlConnection.getInputStream()).thenReturn(new ByteArrayInputStream("OPEN".getBytes()));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection))
+                .build();
+
+        httpElevator.nextCommand();
+
+        assertThat(httpElevator.latencies().statistics().get("nextCommand").count).isEqualTo(1);
+        assertThat(httpElevator.latencies().statistics().get("nextCommand").timeouts).isZero();
+    }
+
+    @Test
+    public void should_count_timeouts_of_events() throws Exception {
+        when(urlConnection.getInputStream()).thenThrow(new SocketTimeoutException("Read timed out"));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/go?floorToGo=3", urlConnection))
+                .build();
+
+        httpElevator.go(3);
+
+        assertThat(httpElevator.latencies().statistics().get("go").timeouts).isEqualTo(1);
+        assertThat(httpElevator.latencies().statistics()).excludes(entry("call", null));
+    }
+
+    @Test
+    public void should_count_http_client_errors() throws Exception {
+        when(urlConnection.getInputStream()).thenThrow(new SocketTimeoutException("Read timed out"));
+        Metrics metrics = new Metrics();
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/go?floorToGo=3", urlConnection))
+                .protocol(Protocol.EVENTS)
+                .buildingDimension(BuildingDimension.DEFAULT)
+                .metrics(metrics)
+                .build();
+
+        httpElevator.go(3);
+
+        assertThat(metrics.httpClientErrors(HttpClientError.TIMEOUT)).isEqualTo(1);
+        assertThat(metrics.httpClientErrors(HttpClientError.OTHER)).isZero();
+    }
+
+    @Test
+    public void should_skip_ticks_without_requesting_while_circuit_breaker_is_open() throws Exception {
+        CircuitBreaker circuitBreaker = openCircuitBreaker(System.nanoTime());
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/reset?cause=reset&lowerFloor=0&higherFloor=19", urlConnection))
+                .protocol(Protocol.EVENTS)
+                .buildingDimension(BuildingDimension.DEFAULT)
+                .metrics(new Metrics())
+                .circuitBreaker(circuitBreaker)
+                .build();
+
+        assertThat(httpElevator.skipsTick()).isTrue();
+        httpElevator.reset("reset");
+
+        verifyZeroInteractions(urlConnection);
+    }
+
+    @Test
+    public void should_probe_with_nextCommand_when_circuit_breaker_is_open_long_enough() throws Exception {
+        when(urlConnection.getInputStream()).thenReturn(new ByteArrayInputStream("NOTHING".getBytes()));
+        CircuitBreaker circuitBreaker = openCircuitBreaker(System.nanoTime() - SECONDS.toNanos(2));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection))
+                .protocol(Protocol.EVENTS)
+                .buildingDimension(BuildingDimension.DEFAULT)
+                .metrics(new Metrics())
+                .circuitBreaker(circuitBreaker)
+                .build();
+
+        assertThat(httpElevator.skipsTick()).isTrue();
+
+        verify(urlConnection).getInputStream();
+        assertThat(circuitBreaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(httpElevator.skipsTick()).isFalse();
+    }
+
+    @Test
+    public void should_probe_with_max_timeout_even_if_participant_server_has_been_fast() throws Exception {
+        when(urlConnection.getInputStream()).thenAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+                return new ByteArrayInputStream("NOTHING".getBytes());
+            }
+        });
+        CircuitBreaker circuitBreaker = new CircuitBreaker();
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection))
+                .protocol(Protocol.EVENTS)
+                .buildingDimension(BuildingDimension.DEFAULT)
+                .metrics(new Metrics())
+                .circuitBreaker(circuitBreaker)
+                .build();
+        for (int request = 0; request < 1000 && httpElevator.timeoutInMillis() == AdaptiveTimeout.MAX_MILLIS; request++) {
+            httpElevator.nextCommand();
+        }
+        assertThat(httpElevator.timeoutInMillis()).isLessThan(AdaptiveTimeout.MAX_MILLIS);
+        for (int failure = 0; failure < 3; failure++) {
+            circuitBreaker.failure(System.nanoTime() - SECONDS.toNanos(2), "connection failed");
+        }
+        reset(urlConnection);
+        when(urlConnection.getInputStream()).thenReturn(new ByteArrayInputStream("NOTHING".getBytes()));
+
+        httpElevator.skipsTick();
+
+        verify(urlConnection).setReadTimeout(AdaptiveTimeout.MAX_MILLIS);
+    }
+
+    @Test
+    public void should_tell_that_circuit_breaker_has_opened() throws Exception {
+        when(urlConnection.getInputStream()).thenThrow(new IOException("connection failed"));
+        CircuitBreaker circuitBreaker = new CircuitBreaker();
+        circuitBreaker.failure(System.nanoTime(), "connection failed");
+        circuitBreaker.failure(System.nanoTime(), "connection failed");
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection))
+                .protocol(Protocol.EVENTS)
+                .buildingDimension(BuildingDimension.DEFAULT)
+                .metrics(new Metrics())
+                .circuitBreaker(circuitBreaker)
+                .build();
+
+        expectedException.expect(ElevatorIsBrokenException.class);
+        expectedException.expectMessage("the participant server has failed 3 times in a row");
+        httpElevator.nextCommand();
+    }
+
     @Test
     public void should_throws_exception_when_server_send_illegal_command() throws Exception {
         when(urlConnection.getInputStream()).thenReturn(new ByteArrayInputStream("_down".getBytes()));
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://127.0.0.1"), executorService,
-                new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection))
+                .build();
 
         expectedException.expect(ElevatorIsBrokenException.class);
         expectedException.expectMessage("Command \"_down\" is not a valid command; valid commands are [UP|DOWN|OPEN|CLOSE|NOTHING] with case sensitive");
@@ -129,8 +284,9 @@ public class HTTPElevatorTest {
     @Test
     public void should_throws_exception_when_server_send_no_command() throws Exception {
         when(urlConnection.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[0]));
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://127.0.0.1"), executorService,
-                new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection))
+                .build();
 
         expectedException.expect(ElevatorIsBrokenException.class);
         expectedException.expectMessage("No command was provided; valid commands are [UP|DOWN|OPEN|CLOSE|NOTHING] with case sensitive");
@@ -140,8 +296,9 @@ public class HTTPElevatorTest {
     @Test
     public void should_handle_transport_error() throws Exception {
         when(urlConnection.getInputStream()).thenThrow(new IOException("connection failed"));
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://127.0.0.1"), executorService,
-                new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection))
+                .build();
 
         expectedException.expect(ElevatorIsBrokenException.class);
         expectedException.expectMessage("connection failed");
@@ -151,8 +308,9 @@ public class HTTPElevatorTest {
     @Test
     public void should_handle_UnknownHostException() throws Exception {
         when(urlConnection.getInputStream()).thenThrow(new UnknownHostException("fakehost"));
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://fakehost"), executorService,
-                new DontConnectURLStreamHandler("http://fakehost/nextCommand", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://fakehost"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://fakehost/nextCommand", urlConnection))
+                .build();
 
         expectedException.expect(ElevatorIsBrokenException.class);
         expectedException.expectMessage("IP address of \"fakehost\" could not be determined");
@@ -162,8 +320,9 @@ public class HTTPElevatorTest {
     @Test
     public void should_tell_that_a_transport_error_has_occured_at_second_call_when_first_call_is_non_blocking() throws Exception {
         when(urlConnection.getInputStream()).thenThrow(new IOException("connection failed"));
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://127.0.0.1"), executorService,
-                new DontConnectURLStreamHandler("http://127.0.0.1/call?atFloor=4&to=UP", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/call?atFloor=4&to=UP", urlConnection))
+                .build();
         httpElevator.call(4, UP);
 
         expectedException.expect(ElevatorIsBrokenException.class);
@@ -174,8 +333,9 @@ public class HTTPElevatorTest {
     @Test
     public void should_handle_404_error() throws Exception {
         when(urlConnection.getInputStream()).thenThrow(new FileNotFoundException("http://localhost:8080/context/call?atFloor=4&to=UP"));
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://localhost:8080/context/"), executorService,
-                new DontConnectURLStreamHandler("http://localhost:8080/context/call?atFloor=4&to=UP", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://localhost:8080/context/"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://localhost:8080/context/call?atFloor=4&to=UP", urlConnection))
+                .build();
         httpElevator.call(4, UP);
 
         expectedException.expect(ElevatorIsBrokenException.class);
@@ -186,8 +346,9 @@ public class HTTPElevatorTest {
     @Test
     public void should_return_url_without_query_when_server_respond_with_HTTP_status_code_error() throws Exception {
         when(urlConnection.getInputStream()).thenThrow(new IOException("Server returned HTTP response code: 500 for URL: http://localhost:8080/context/call?atFloor=4&to=UP"));
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://localhost:8080/context/"), executorService,
-                new DontConnectURLStreamHandler("http://localhost:8080/context/call?atFloor=4&to=UP", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://localhost:8080/context/"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://localhost:8080/context/call?atFloor=4&to=UP", urlConnection))
+                .build();
         httpElevator.call(4, UP);
 
         expectedException.expect(ElevatorIsBrokenException.class);
@@ -198,12 +359,124 @@ public class HTTPElevatorTest {
     @Test
     public void should_tell_that_a_transport_error_has_occured_when_call_is_blocking() throws Exception {
         when(urlConnection.getInputStream()).thenThrow(new IOException("connection failed"));
-        HTTPElevator httpElevator = new HTTPElevator(new URL("http://127.0.0.1"), executorService,
-                new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/nextCommand", urlConnection))
+                .build();
 
         expectedException.expect(ElevatorIsBrokenException.class);
         expectedException.expectMessage("connection failed");
         httpElevator.nextCommand();
     }
 
+    @Test
+    public void should_tell_that_the_elevator_is_broken_when_too_many_events_are_waiting() throws Exception {
+        doNothing().when(executorService).execute(any(Runnable.class));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/go?floorToGo=3", urlConnection))
+                .build();
+        for (int event = 0; event <= 64; event++) {
+            httpElevator.go(3);
+        }
+
+        expectedException.expect(ElevatorIsBrokenException.class);
+        expectedException.expectMessage("Too many events are waiting to be sent; the elevator cannot keep up with the game");
+        httpElevator.go(3);
+    }
+
+    @Test
+    public void should_buffer_events_and_post_them_with_nextCommand_when_protocol_is_batch() throws Exception {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        when(urlConnection.getOutputStream()).thenReturn(body);
+        when(urlConnection.getInputStream()).thenReturn(new ByteArrayInputStream("OPEN".getBytes()));
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/batch", urlConnection))
+                .protocol(Protocol.BATCH)
+                .build();
+
+        httpElevator.call(4, UP);
+        httpElevator.go(3);
+        Command nextCommand = httpElevator.nextCommand();
+
+        assertThat(nextCommand).isEqualTo(OPEN);
+        assertThat(body.toString("UTF-8")).isEqualTo("call?atFloor=4&to=UP\ngo?floorToGo=3\n");
+        verify(executorService, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void should_discard_buffered_events_on_reset_when_protocol_is_batch() throws Exception {
+        when(participantClient.exchange(any(URL.class), anyString(), anyInt())).thenReturn("NOTHING");
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .protocol(Protocol.BATCH)
+                .client(participantClient)
+                .build();
+        httpElevator.go(3);
+
+        httpElevator.reset("reason");
+        httpElevator.nextCommand();
+
+        verify(participantClient).exchange(eq(new URL("http://127.0.0.1/batch")), eq(""), anyInt());
+    }
+
+    @Test
+    public void should_send_reset_before_next_batch_even_if_events_are_late() throws Exception {
+        when(participantClient.exchange(any(URL.class), anyString(), anyInt())).thenReturn("NOTHING");
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .protocol(Protocol.BATCH)
+                .client(participantClient)
+                .build();
+        doNothing().when(executorService).execute(any(Runnable.class));
+
+        httpElevator.reset("reason");
+        httpElevator.go(3);
+        httpElevator.nextCommand();
+
+        InOrder inOrder = inOrder(participantClient);
+        inOrder.verify(participantClient).exchange(
+                eq(new URL("http://127.0.0.1/reset?cause=reason&lowerFloor=0&higherFloor=5")), isNull(String.class), anyInt());
+        inOrder.verify(participantClient).exchange(eq(new URL("http://127.0.0.1/batch")), eq("go?floorToGo=3\n"), anyInt());
+    }
+
+    @Test
+    public void should_negotiate_batch_protocol() throws Exception {
+        when(urlConnection.getInputStream()).thenReturn(new ByteArrayInputStream("2".getBytes()));
+
+        Protocol protocol = Protocol.negotiate(new URL(null, "http://127.0.0.1/protocol?versions=1,2",
+                new DontConnectURLStreamHandler("http://127.0.0.1/protocol?versions=1,2", urlConnection)),
+                new URLConnectionClient(), 1000);
+
+        assertThat(protocol).isEqualTo(Protocol.BATCH);
+    }
+
+    @Test
+    public void should_keep_events_protocol_when_negotiation_fails() throws Exception {
+        when(urlConnection.getInputStream()).thenThrow(new FileNotFoundException("http://127.0.0.1/protocol?versions=1,2"));
+
+        Protocol protocol = Protocol.negotiate(new URL(null, "http://127.0.0.1/protocol?versions=1,2",
+                new DontConnectURLStreamHandler("http://127.0.0.1/protocol?versions=1,2", urlConnection)),
+                new URLConnectionClient(), 1000);
+
+        assertThat(protocol).isEqualTo(Protocol.EVENTS);
+    }
+
+    @Test
+    public void should_negotiate_protocol_with_timeout_of_other_requests() throws Exception {
+        when(urlConnection.getInputStream()).thenReturn(new ByteArrayInputStream("2".getBytes()));
+
+        HTTPElevator httpElevator = HTTPElevator.builder(new URL("http://127.0.0.1"), executorService)
+                .urlStreamHandler(new DontConnectURLStreamHandler("http://127.0.0.1/protocol?versions=1,2", urlConnection))
+                .negotiateProtocol()
+                .build();
+
+        verify(urlConnection).setConnectTimeout(httpElevator.timeoutInMillis());
+        verify(urlConnection).setReadTimeout(httpElevator.timeoutInMillis());
+    }
+
+    private static CircuitBreaker openCircuitBreaker(long nanoTime) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker();
+        for (int failure = 0; failure < 3; failure++) {
+            circuitBreaker.failure(nanoTime, "connection failed");
+        }
+        return circuitBreaker;
+    }
+
 }
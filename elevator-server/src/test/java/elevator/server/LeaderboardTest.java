@@ -0,0 +1,133 @@
+package elevator.server;
+
+import elevator.Clock;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.MapAssert.entry;
+
+public class LeaderboardTest {
+
+    @ClassRule
+    public static PlayerServerRule playerServerRule = new PlayerServerRule();
+
+    private final Clock clock = new Clock();
+    private final ElevatorGames elevatorGames = new ElevatorGames();
+    private final Leaderboard leaderboard = new Leaderboard(elevatorGames, clock);
+
+    @Test
+    public void should_serialize_an_empty_leaderboard() {
+        assertThat(new String(leaderboard.snapshot(0).json())).isEqualTo("[]");
+    }
+
+    @Test
+    public void should_sort_players_by_score_then_by_email() throws Exception {
+        ElevatorGame c = elevatorGame("c@provider.com");
+        ElevatorGame b = elevatorGame("b@provider.com");
+        ElevatorGame a = elevatorGame("a@provider.com");
+        elevatorGames.add(c);
+        elevatorGames.add(b);
+        elevatorGames.add(a);
+        a.reset("reset");
+
+        assertThat(emails(leaderboard.snapshot(0))).containsExactly("b@provider.com", "c@provider.com", "a@provider.com");
+    }
+
+    @Test
+    public void should_serve_the_same_snapshot_during_a_tick() throws Exception {
+        ElevatorGame elevatorGame = elevatorGame("player@provider.com");
+        elevatorGames.add(elevatorGame);
+        Leaderboard.Snapshot snapshot = leaderboard.snapshot(1);
+
+        elevatorGame.reset("reset");
+
+        assertThat(leaderboard.snapshot(1)).isSameAs(snapshot);
+        assertThat(leaderboard.snapshot(2).players().get(0).score).isEqualTo(snapshot.players().get(0).score - 10);
+    }
+
+    @Test
+    public void should_rank_again_as_soon_as_a_game_is_added_or_removed() throws Exception {
+        elevatorGames.add(elevatorGame("a@provider.com"));
+        leaderboard.snapshot(1);
+
+        elevatorGames.add(elevatorGame("b@provider.com"));
+        assertThat(emails(leaderboard.snapshot(1))).containsExactly("a@provider.com", "b@provider.com");
+
+        elevatorGames.remove("a@provider.com");
+        assertThat(emails(leaderboard.snapshot(1))).containsExactly("b@provider.com");
+    }
+
+    @Test
+    public void should_keep_etag_while_leaderboard_does_not_change() throws Exception {
+        String etag = leaderboard.snapshot(1).etag();
+
+        assertThat(leaderboard.snapshot(2).etag()).isEqualTo(etag);
+
+        elevatorGames.add(elevatorGame("player@provider.com"));
+        assertThat(leaderboard.snapshot(2).etag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void should_send_every_field_of_player_info_to_a_new_client() throws Exception {
+        elevatorGames.add(elevatorGame("player@provider.com"));
+
+        PlayerInfoChanges changes = leaderboard.playerInfoChanges(leaderboard.snapshot(1), "player@provider.com", null);
+
+        assertThat(changes.tick).isEqualTo(1);
+        assertThat(changes.since).isNull();
+        assertThat(changes.changes).hasSize(11);
+    }
+
+    @Test
+    public void should_send_changed_fields_of_player_info_since_the_tick_of_the_client() throws Exception {
+        ElevatorGame elevatorGame = elevatorGame("player@provider.com");
+        elevatorGames.add(elevatorGame);
+        leaderboard.snapshot(1);
+        elevatorGame.reset("reset");
+
+        PlayerInfoChanges changes = leaderboard.playerInfoChanges(leaderboard.snapshot(2), "player@provider.com", 1L);
+
+        assertThat(changes.tick).isEqualTo(2);
+        assertThat(changes.since).isEqualTo(1);
+        assertThat(changes.changes).includes(entry("score", -10), entry("lastErrorMessage", "reset"))
+                .excludes(entry("email", "player@provider.com"));
+    }
+
+    @Test
+    public void should_send_every_field_of_player_info_when_the_tick_of_the_client_is_too_old() throws Exception {
+        elevatorGames.add(elevatorGame("player@provider.com"));
+        for (long tick = 1; tick <= Leaderboard.HISTORY_LENGTH + 1; tick++) {
+            leaderboard.snapshot(tick);
+        }
+
+        PlayerInfoChanges changes = leaderboard.playerInfoChanges(leaderboard.snapshot(Leaderboard.HISTORY_LENGTH + 1),
+                "player@provider.com", 1L);
+
+        assertThat(changes.since).isNull();
+        assertThat(changes.changes).hasSize(11);
+    }
+
+    @Test(expected = PlayerNotFoundException.class)
+    public void should_not_send_changes_of_unknown_player() {
+        leaderboard.playerInfoChanges(leaderboard.snapshot(1), "unknown@provider.com", null);
+    }
+
+    private static List<String> emails(Leaderboard.Snapshot snapshot) {
+        List<String> emails = new ArrayList<>();
+        for (PlayerInfo player : snapshot.players()) {
+            emails.add(player.email);
+        }
+        return emails;
+    }
+
+    private ElevatorGame elevatorGame(String email) throws MalformedURLException {
+        return ElevatorGame.builder(new Player(email, "pseudo"), new URL("http://127.0.0.1:8080"), null, clock).build();
+    }
+
+}
@@ -0,0 +1,44 @@
+package elevator.server;
+
+import org.glassfish.jersey.media.sse.EventInput;
+import org.glassfish.jersey.media.sse.InboundEvent;
+import org.glassfish.jersey.media.sse.SseFeature;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import javax.ws.rs.core.Response;
+
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class StreamResourceTest {
+
+    @ClassRule
+    public static ElevatorServerRule elevatorServerRule = new ElevatorServerRule();
+
+    @Test
+    public void should_stream_whole_leaderboard_first() throws Exception {
+        EventInput eventInput = elevatorServerRule.target.register(SseFeature.class)
+                .path("/stream/leaderboard").request().get(EventInput.class);
+        try {
+            InboundEvent event = eventInput.read();
+
+            assertThat(event.getName()).isEqualTo(EventStreams.LEADERBOARD);
+            assertThat(event.getData(String.class)).isEqualTo("[]");
+        } finally {
+            eventInput.close();
+        }
+    }
+
+    @Test
+    public void should_reject_player_stream_without_email() {
+        Response response = elevatorServerRule.target.register(SseFeature.class)
+                .path("/stream/player").request().get();
+        try {
+            assertThat(response.getStatus()).isEqualTo(BAD_REQUEST.getStatusCode());
+        } finally {
+            response.close();
+        }
+    }
+
+}
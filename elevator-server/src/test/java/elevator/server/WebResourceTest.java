@@ -6,6 +6,7 @@ import org.junit.Test;
 import javax.ws.rs.core.Response;
 
 import static javax.ws.rs.core.HttpHeaders.AUTHORIZATION;
+import static javax.ws.rs.core.HttpHeaders.IF_NONE_MATCH;
 import static javax.ws.rs.core.Response.Status.*;
 import static javax.xml.bind.DatatypeConverter.printBase64Binary;
 import static org.fest.assertions.Assertions.assertThat;
@@ -39,6 +40,33 @@ public class WebResourceTest {
         assertThat(response.readEntity(String.class)).isEqualTo("4");
     }
 
+    @Test
+    public void should_export_metrics_in_prometheus_text_format() {
+        Response response = elevatorServerRule.target
+                .path("/admin/metrics").request()
+                .header(AUTHORIZATION, credentials("admin", "admin"))
+                .buildGet().invoke();
+
+        assertThat(response.getStatus()).isEqualTo(OK.getStatusCode());
+        assertThat(response.readEntity(String.class))
+                .contains("# TYPE elevator_clock_ticks_total counter\n")
+                .contains("elevator_games{state=\"RESUME\"} 0\n")
+                .contains("elevator_broken_total{cause=\"TRANSPORT\"} 0\n");
+    }
+
+    @Test
+    public void should_not_send_leaderboard_again_while_it_does_not_change() {
+        Response response = elevatorServerRule.target.path("/leaderboard").request().buildGet().invoke();
+        assertThat(response.getStatus()).isEqualTo(OK.getStatusCode());
+        assertThat(response.readEntity(String.class)).isEqualTo("[]");
+
+        Response notModified = elevatorServerRule.target.path("/leaderboard").request()
+                .header(IF_NONE_MATCH, response.getEntityTag().toString())
+                .buildGet().invoke();
+
+        assertThat(notModified.getStatus()).isEqualTo(NOT_MODIFIED.getStatusCode());
+    }
+
     @Test
     public void should_not_reset_with_unknow_user() {
         String password = null;
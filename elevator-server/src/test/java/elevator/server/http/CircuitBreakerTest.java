@@ -0,0 +1,105 @@
+package elevator.server.http;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static elevator.server.http.CircuitBreaker.MAX_OPEN_NANOS;
+import static elevator.server.http.CircuitBreaker.MIN_OPEN_NANOS;
+import static elevator.server.http.CircuitBreaker.State.CLOSED;
+import static elevator.server.http.CircuitBreaker.State.HALF_OPEN;
+import static elevator.server.http.CircuitBreaker.State.OPEN;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    private final List<CircuitBreaker.State> states = new ArrayList<>();
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreaker.Listener() {
+        @Override
+        public void stateChanged(CircuitBreaker.State state, String message) {
+            states.add(state);
+        }
+    });
+
+    @Test
+    public void should_stay_closed_while_failures_are_not_in_a_row() {
+        circuitBreaker.failure(0, "error");
+        circuitBreaker.failure(0, "error");
+        circuitBreaker.success();
+        String message = circuitBreaker.failure(0, "error");
+
+        assertThat(circuitBreaker.state()).isEqualTo(CLOSED);
+        assertThat(circuitBreaker.allowsRequest()).isTrue();
+        assertThat(message).isEqualTo("error");
+        assertThat(states).isEmpty();
+    }
+
+    @Test
+    public void should_open_after_failures_in_a_row() {
+        circuitBreaker.failure(0, "error");
+        circuitBreaker.failure(0, "error");
+        String message = circuitBreaker.failure(0, "error");
+
+        assertThat(circuitBreaker.state()).isEqualTo(OPEN);
+        assertThat(circuitBreaker.allowsRequest()).isFalse();
+        assertThat(message).isEqualTo("error; the participant server has failed 3 times in a row, it won't be requested for 2 s");
+        assertThat(states).containsExactly(OPEN);
+    }
+
+    @Test
+    public void should_probe_once_open_long_enough() {
+        open(0);
+
+        assertThat(circuitBreaker.tryProbe(MIN_OPEN_NANOS - 1)).isFalse();
+        assertThat(circuitBreaker.tryProbe(MIN_OPEN_NANOS)).isTrue();
+        assertThat(circuitBreaker.tryProbe(MIN_OPEN_NANOS)).isFalse();
+        assertThat(circuitBreaker.state()).isEqualTo(HALF_OPEN);
+        assertThat(circuitBreaker.allowsRequest()).isFalse();
+    }
+
+    @Test
+    public void should_close_when_probe_succeeds() {
+        open(0);
+        circuitBreaker.tryProbe(MIN_OPEN_NANOS);
+
+        circuitBreaker.success();
+
+        assertThat(circuitBreaker.state()).isEqualTo(CLOSED);
+        assertThat(states).containsExactly(OPEN, HALF_OPEN, CLOSED);
+    }
+
+    @Test
+    public void should_open_twice_as_long_when_probe_fails() {
+        open(0);
+        circuitBreaker.tryProbe(MIN_OPEN_NANOS);
+
+        String message = circuitBreaker.failure(MIN_OPEN_NANOS, "error");
+
+        assertThat(circuitBreaker.state()).isEqualTo(OPEN);
+        assertThat(message).endsWith("it won't be requested for 4 s");
+        assertThat(circuitBreaker.tryProbe(MIN_OPEN_NANOS + 2 * MIN_OPEN_NANOS - 1)).isFalse();
+        assertThat(circuitBreaker.tryProbe(MIN_OPEN_NANOS + 2 * MIN_OPEN_NANOS)).isTrue();
+    }
+
+    @Test
+    public void should_not_open_longer_than_max() {
+        long now = 0;
+        open(now);
+        for (int probe = 0; probe < 10; probe++) {
+            now += MAX_OPEN_NANOS;
+            circuitBreaker.tryProbe(now);
+            circuitBreaker.failure(now, "error");
+        }
+
+        assertThat(circuitBreaker.tryProbe(now + MAX_OPEN_NANOS - 1)).isFalse();
+        assertThat(circuitBreaker.tryProbe(now + MAX_OPEN_NANOS)).isTrue();
+    }
+
+    private void open(long nanoTime) {
+        for (int failure = 0; failure < CircuitBreaker.FAILURES_TO_OPEN; failure++) {
+            circuitBreaker.failure(nanoTime, "error");
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package elevator.server.http;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.fest.assertions.Assertions.assertThat;
+import static org.junit.rules.ExpectedException.none;
+
+public class JettyParticipantClientTest {
+
+    @Rule
+    public ExpectedException expectedException = none();
+
+    private final JettyParticipantClient client = new JettyParticipantClient();
+    private final BlockingQueue<Object> callbacks = new ArrayBlockingQueue<>(1);
+    private final ParticipantClient.Callback callback = new ParticipantClient.Callback() {
+        @Override
+        public void completed() {
+            callbacks.add("completed");
+        }
+
+        @Override
+        public void failed(IOException e) {
+            callbacks.add(e);
+        }
+    };
+
+    private Server server;
+    private URL serverURL;
+
+    @Before
+    public void startParticipantServerAndClient() throws Exception {
+        server = new Server(0);
+        server.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+                switch (target) {
+                    case "/nextCommand":
+                        response.getWriter().println("UP");
+                        break;
+                    case "/batch":
+                        BufferedReader body = request.getReader();
+                        response.getWriter().println(body.readLine() + "," + body.readLine());
+                        break;
+                    case "/slow":
+                        try {
+                            Thread.sleep(1000);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        break;
+                    case "/empty":
+                    case "/call":
+                        break;
+                    case "/error":
+                        response.sendError(500);
+                        break;
+                    default:
+                        response.sendError(404);
+                }
+                baseRequest.setHandled(true);
+            }
+        });
+        server.start();
+        serverURL = new URL("http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/");
+        client.start();
+    }
+
+    @After
+    public void stopParticipantServerAndClient() throws Exception {
+        client.stop();
+        server.stop();
+    }
+
+    @Test
+    public void should_read_first_line_of_response() throws Exception {
+        assertThat(client.exchange(new URL(serverURL, "nextCommand"), null, 1000)).isEqualTo("UP");
+    }
+
+    @Test
+    public void should_post_body() throws Exception {
+        assertThat(client.exchange(new URL(serverURL, "batch"), "go?floorToGo=3\nuserHasEntered\n", 1000))
+                .isEqualTo("go?floorToGo=3,userHasEntered");
+    }
+
+    @Test
+    public void should_read_no_line_from_empty_response() throws Exception {
+        assertThat(client.exchange(new URL(serverURL, "empty"), null, 1000)).isNull();
+    }
+
+    @Test
+    public void should_fail_as_http_url_connection_when_resource_is_not_found() throws Exception {
+        expectedException.expect(FileNotFoundException.class);
+        client.exchange(new URL(serverURL, "unknown"), null, 1000);
+    }
+
+    @Test
+    public void should_fail_as_http_url_connection_on_server_error() throws Exception {
+        URL url = new URL(serverURL, "error");
+
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("Server returned HTTP response code: 500 for URL: " + url);
+        client.exchange(url, null, 1000);
+    }
+
+    @Test
+    public void should_fail_as_http_url_connection_on_timeout() throws Exception {
+        expectedException.expect(SocketTimeoutException.class);
+        client.exchange(new URL(serverURL, "slow"), null, 100);
+    }
+
+    @Test
+    public void should_tell_when_event_is_sent() throws Exception {
+        client.send(new URL(serverURL, "call?atFloor=4&to=UP"), 1000, callback);
+
+        assertThat(callbacks.poll(1, SECONDS)).isEqualTo("completed");
+    }
+
+    @Test
+    public void should_tell_when_event_has_failed() throws Exception {
+        client.send(new URL(serverURL, "unknown"), 1000, callback);
+
+        assertThat(callbacks.poll(1, SECONDS)).isInstanceOf(FileNotFoundException.class);
+    }
+
+}
@@ -0,0 +1,316 @@
+package elevator.server.http;
+
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Fail.fail;
+import static org.junit.rules.ExpectedException.none;
+
+public class PooledHttpURLConnectionTest {
+
+    @Rule
+    public ExpectedException expectedException = none();
+
+    private Server server;
+    private URL serverURL;
+
+    @Before
+    public void startParticipantServer() throws Exception {
+        server = new Server(0);
+        server.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(String target, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+                switch (target) {
+                    case "/nextCommand":
+                        response.getWriter().println("UP");
+                        break;
+                    case "/chunked":
+                        response.getWriter().println("DOWN");
+                        response.flushBuffer();
+                        response.getWriter().println("OPEN");
+                        break;
+                    case "/error":
+                        response.sendError(500);
+                        break;
+                    case "/call":
+                        break;
+                    default:
+                        response.sendError(404);
+                }
+                baseRequest.setHandled(true);
+            }
+        });
+        server.start();
+        serverURL = new URL("http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort() + "/");
+    }
+
+    @After
+    public void stopParticipantServer() throws Exception {
+        server.stop();
+    }
+
+    @Test
+    public void should_reuse_connection_for_consecutive_calls() throws Exception {
+        ConnectionPool connectionPool = new ConnectionPool(4, 5000);
+
+        assertThat(get(connectionPool, "nextCommand")).isEqualTo("UP");
+        assertThat(get(connectionPool, "call?atFloor=4&to=UP")).isEmpty();
+        assertThat(get(connectionPool, "nextCommand")).isEqualTo("UP");
+
+        assertThat(connectionPool.misses()).isEqualTo(1);
+        assertThat(connectionPool.hits()).isEqualTo(2);
+        assertThat(connectionPool.idleConnections()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_read_chunked_body_and_reuse_connection() throws Exception {
+        ConnectionPool connectionPool = new ConnectionPool(4, 5000);
+
+        assertThat(get(connectionPool, "chunked")).isEqualTo("DOWN\nOPEN");
+        assertThat(get(connectionPool, "nextCommand")).isEqualTo("UP");
+
+        assertThat(connectionPool.hits()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_evict_idle_connections() throws Exception {
+        ConnectionPool connectionPool = new ConnectionPool(4, 0);
+
+        get(connectionPool, "nextCommand");
+        get(connectionPool, "nextCommand");
+
+        assertThat(connectionPool.misses()).isEqualTo(2);
+        assertThat(connectionPool.evictions()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_close_connections_beyond_max_connections() throws Exception {
+        ConnectionPool connectionPool = new ConnectionPool(1, 5000);
+        URLConnection first = open(connectionPool, "nextCommand");
+        URLConnection second = open(connectionPool, "nextCommand");
+        InputStream firstResponse = first.getInputStream();
+        InputStream secondResponse = second.getInputStream();
+
+        firstResponse.close();
+        secondResponse.close();
+
+        assertThat(connectionPool.idleConnections()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_throw_FileNotFoundException_when_resource_is_not_found() throws Exception {
+        expectedException.expect(FileNotFoundException.class);
+        expectedException.expectMessage(serverURL + "unknown");
+
+        get(new ConnectionPool(4, 5000), "unknown");
+    }
+
+    @Test
+    public void should_report_http_status_code_like_the_jdk_does() throws Exception {
+        expectedException.expect(IOException.class);
+        expectedException.expectMessage("Server returned HTTP response code: 500 for URL: " + serverURL + "error");
+
+        get(new ConnectionPool(4, 5000), "error");
+    }
+
+    @Test
+    public void should_close_idle_connections_and_stop_pooling_when_closed() throws Exception {
+        ConnectionPool connectionPool = new ConnectionPool(4, 5000);
+        get(connectionPool, "nextCommand");
+
+        connectionPool.close();
+        get(connectionPool, "nextCommand");
+
+        assertThat(connectionPool.idleConnections()).isZero();
+        assertThat(connectionPool.misses()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_send_get_again_when_idle_connection_has_been_closed_by_participant() throws Exception {
+        try (ClosingParticipantServer participantServer = new ClosingParticipantServer()) {
+            ConnectionPool connectionPool = new ConnectionPool(4, 5000);
+            assertThat(get(connectionPool, participantServer.url("nextCommand"))).isEqualTo("UP");
+            participantServer.awaitClosedConnections(1);
+
+            assertThat(get(connectionPool, participantServer.url("nextCommand"))).isEqualTo("UP");
+
+            assertThat(participantServer.requests.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void should_not_send_post_again_when_idle_connection_has_been_closed_by_participant() throws Exception {
+        try (ClosingParticipantServer participantServer = new ClosingParticipantServer()) {
+            ConnectionPool connectionPool = new ConnectionPool(4, 5000);
+            get(connectionPool, participantServer.url("nextCommand"));
+            participantServer.awaitClosedConnections(1);
+            URLConnection batch = open(connectionPool, participantServer.url("batch"));
+            batch.setDoOutput(true);
+            try (OutputStream body = batch.getOutputStream()) {
+                body.write("userHasEntered\n".getBytes("UTF-8"));
+            }
+
+            try {
+                batch.getInputStream();
+                fail("the batch should not have been sent again");
+            } catch (IOException e) {
+                assertThat(participantServer.requests.get()).isEqualTo(1);
+            }
+        }
+    }
+
+    @Test
+    public void should_fail_with_io_exception_on_malformed_status_line() throws Exception {
+        try (ClosingParticipantServer participantServer = new ClosingParticipantServer("HTTP/1.1 2OO OK\r\n\r\n")) {
+            expectedException.expect(IOException.class);
+            expectedException.expectMessage("Invalid Http response");
+
+            get(new ConnectionPool(4, 5000), participantServer.url("nextCommand"));
+        }
+    }
+
+    @Test
+    public void should_fail_with_io_exception_on_malformed_chunk_size() throws Exception {
+        try (ClosingParticipantServer participantServer = new ClosingParticipantServer(
+                "HTTP/1.1 200 OK\r\nTransfer-Encoding: chunked\r\n\r\nUP\r\nUP\r\n0\r\n\r\n")) {
+            expectedException.expect(IOException.class);
+            expectedException.expectMessage("Invalid Http response");
+
+            get(new ConnectionPool(4, 5000), participantServer.url("nextCommand"));
+        }
+    }
+
+    @Test
+    public void should_not_buffer_a_line_without_end() throws Exception {
+        StringBuilder reason = new StringBuilder();
+        for (int character = 0; character < 64 * 1024; character++) {
+            reason.append('K');
+        }
+        try (ClosingParticipantServer participantServer = new ClosingParticipantServer("HTTP/1.1 200 " + reason)) {
+            expectedException.expect(IOException.class);
+            expectedException.expectMessage("Invalid Http response");
+
+            get(new ConnectionPool(4, 5000), participantServer.url("nextCommand"));
+        }
+    }
+
+    private URLConnection open(ConnectionPool connectionPool, String pathAndParameters) throws IOException {
+        return open(connectionPool, new URL(serverURL, pathAndParameters));
+    }
+
+    private URLConnection open(ConnectionPool connectionPool, URL url) throws IOException {
+        URLConnection urlConnection = new URL(null, url.toString(), new PooledURLStreamHandler(connectionPool)).openConnection();
+        urlConnection.setConnectTimeout(1000);
+        urlConnection.setReadTimeout(1000);
+        return urlConnection;
+    }
+
+    private String get(ConnectionPool connectionPool, String pathAndParameters) throws IOException {
+        return get(connectionPool, new URL(serverURL, pathAndParameters));
+    }
+
+    private String get(ConnectionPool connectionPool, URL url) throws IOException {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(open(connectionPool, url).getInputStream()))) {
+            StringBuilder body = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                body.append(body.length() == 0 ? "" : "\n").append(line);
+            }
+            return body.toString();
+        }
+    }
+
+    /**
+     * Answers a single request on each connection, then closes it although the response has kept it alive, as a
+     * participant server closing idle connections would.
+     */
+    private static class ClosingParticipantServer implements Closeable {
+
+        private final ServerSocket serverSocket;
+        private final String response;
+        private final AtomicInteger requests;
+        private final Semaphore closedConnections;
+
+        private ClosingParticipantServer() throws IOException {
+            this("HTTP/1.1 200 OK\r\nContent-Length: 4\r\n\r\nUP\r\n");
+        }
+
+        private ClosingParticipantServer(String response) throws IOException {
+            this.serverSocket = new ServerSocket(0);
+            this.response = response;
+            this.requests = new AtomicInteger();
+            this.closedConnections = new Semaphore(0);
+            Thread thread = new Thread("closing-participant-server") {
+                @Override
+                public void run() {
+                    try {
+                        while (true) {
+                            try (Socket socket = serverSocket.accept()) {
+                                answer(socket);
+                            }
+                            closedConnections.release();
+                        }
+                    } catch (IOException e) {
+                        // the server socket has been closed
+                    }
+                }
+            };
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void answer(Socket socket) throws IOException {
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), "ISO-8859-1"));
+            int contentLength = 0;
+            String header = in.readLine();
+            while (header != null && !header.isEmpty()) {
+                if (header.toLowerCase().startsWith("content-length:")) {
+                    contentLength = Integer.parseInt(header.substring("content-length:".length()).trim());
+                }
+                header = in.readLine();
+            }
+            for (int read = 0; read < contentLength; read++) {
+                in.read();
+            }
+            requests.incrementAndGet();
+            OutputStream out = socket.getOutputStream();
+            out.write(response.getBytes("ISO-8859-1"));
+            out.flush();
+        }
+
+        private URL url(String path) throws IOException {
+            return new URL("http://localhost:" + serverSocket.getLocalPort() + "/" + path);
+        }
+
+        private void awaitClosedConnections(int connections) throws InterruptedException {
+            assertThat(closedConnections.tryAcquire(connections, 5, SECONDS)).isTrue();
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package elevator.server.journal;
+
+import elevator.BuildingDimension;
+import elevator.Command;
+import elevator.Direction;
+import elevator.User;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class MappedJournalTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_rebuild_game_from_its_records() throws Exception {
+        File file = temporaryFolder.newFile("player.journal");
+        MappedJournal journal = new MappedJournal(file);
+        journal.start(1, "player@provider.com", "player", BuildingDimension.DEFAULT, 0);
+        journal.userCreated(2, 0, Direction.UP);
+        journal.userCreated(2, 3, Direction.DOWN);
+        journal.command(2, Command.OPEN);
+        journal.userEntered(2, user(0, 4));
+        journal.command(3, Command.CLOSE);
+        journal.command(4, Command.UP);
+
+        GameReplay game = GameReplay.read(file);
+
+        assertThat(game.isPlaying()).isTrue();
+        assertThat(game.email()).isEqualTo("player@provider.com");
+        assertThat(game.pseudo()).isEqualTo("player");
+        assertThat(game.waitingUsersByFloors()).isEqualTo(new int[]{0, 0, 0, 1, 0, 0});
+        assertThat(game.travelingUsers()).isEqualTo(1);
+        assertThat(game.floor()).isEqualTo(1);
+        assertThat(game.doorIsOpen()).isFalse();
+        assertThat(game.lastTick()).isEqualTo(4);
+    }
+
+    @Test
+    public void should_count_score_of_done_users_and_of_resets() throws Exception {
+        File file = temporaryFolder.newFile("player.journal");
+        MappedJournal journal = new MappedJournal(file);
+        journal.start(1, "player@provider.com", "player", BuildingDimension.DEFAULT, 0);
+        journal.userDone(5, user(0, 2), 18);
+        journal.userDone(6, user(0, 3), 17);
+        journal.reset(7, 10, "can't go down because current floor is the lowest floor");
+        journal.scoreLost(7, 10);
+
+        GameReplay game = GameReplay.read(file);
+
+        assertThat(game.score()).isEqualTo(15);
+        assertThat(game.doneUsers()).isEqualTo(2);
+        assertThat(game.resets()).isEqualTo(1);
+        assertThat(game.lastErrorMessage()).isEqualTo("can't go down because current floor is the lowest floor");
+    }
+
+    @Test
+    public void should_replay_last_game_once_reopened() throws Exception {
+        File file = temporaryFolder.newFile("player.journal");
+        MappedJournal journal = new MappedJournal(file);
+        journal.start(1, "player@provider.com", "player", BuildingDimension.DEFAULT, 0);
+        journal.reset(2, 10, "player has requested a reset");
+        journal.close(3);
+        assertThat(GameReplay.read(file).isPlaying()).isFalse();
+
+        new MappedJournal(file).start(4, "player@provider.com", "renamed", BuildingDimension.DEFAULT, 25);
+
+        GameReplay game = GameReplay.read(file);
+        assertThat(game.isPlaying()).isTrue();
+        assertThat(game.pseudo()).isEqualTo("renamed");
+        assertThat(game.score()).isEqualTo(25);
+    }
+
+    @Test
+    public void should_ignore_a_record_whose_type_has_not_been_written() throws Exception {
+        File file = temporaryFolder.newFile("player.journal");
+        MappedJournal journal = new MappedJournal(file);
+        journal.start(1, "player@provider.com", "player", BuildingDimension.DEFAULT, 0);
+        journal.command(2, Command.UP);
+        journal.command(3, Command.UP);
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            long lastRecord = 3 * JournalRecord.SIZE;
+            randomAccessFile.seek(lastRecord + JournalRecord.TYPE);
+            randomAccessFile.writeByte(0);
+        }
+
+        assertThat(GameReplay.read(file).floor()).isEqualTo(1);
+    }
+
+    @Test
+    public void should_map_next_chunk_when_full() throws Exception {
+        File file = temporaryFolder.newFile("player.journal");
+        MappedJournal journal = new MappedJournal(file);
+        journal.start(1, "player@provider.com", "player", BuildingDimension.DEFAULT, 0);
+        int records = MappedJournal.CHUNK_SIZE / JournalRecord.SIZE + 10;
+        for (int tick = 0; tick < records; tick++) {
+            journal.command(tick, Command.NOTHING);
+        }
+        journal.command(records, Command.UP);
+
+        GameReplay game = GameReplay.read(file);
+
+        assertThat(game.commands(Command.NOTHING)).isEqualTo(records);
+        assertThat(game.floor()).isEqualTo(1);
+    }
+
+    private static User user(int initialFloor, int floorToGo) {
+        User user = mock(User.class);
+        when(user.getInitialFloor()).thenReturn(initialFloor);
+        when(user.getFloorToGo()).thenReturn(floorToGo);
+        when(user.getTickToWait()).thenReturn(2);
+        when(user.getTickToGo()).thenReturn(floorToGo - initialFloor + 2);
+        return user;
+    }
+
+}
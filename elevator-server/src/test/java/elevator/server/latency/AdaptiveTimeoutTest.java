@@ -0,0 +1,67 @@
+package elevator.server.latency;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.fest.assertions.Assertions.assertThat;
+
+public class AdaptiveTimeoutTest {
+
+    @Test
+    public void should_start_with_max_timeout() {
+        AdaptiveTimeout timeout = new AdaptiveTimeout();
+        for (int sample = 1; sample < AdaptiveTimeout.SAMPLES; sample++) {
+            timeout.record(MILLISECONDS.toNanos(1));
+        }
+
+        assertThat(timeout.millis()).isEqualTo(AdaptiveTimeout.MAX_MILLIS);
+    }
+
+    @Test
+    public void should_not_go_below_min_timeout_for_fast_servers() {
+        AdaptiveTimeout timeout = record(new AdaptiveTimeout(), AdaptiveTimeout.SAMPLES, 1);
+
+        assertThat(timeout.millis()).isEqualTo(AdaptiveTimeout.MIN_MILLIS);
+    }
+
+    @Test
+    public void should_be_a_few_times_the_99th_percentile() {
+        AdaptiveTimeout timeout = record(new AdaptiveTimeout(), AdaptiveTimeout.SAMPLES, 100);
+
+        assertThat(timeout.millis()).isGreaterThanOrEqualTo(400).isLessThan(AdaptiveTimeout.MAX_MILLIS);
+    }
+
+    @Test
+    public void should_not_go_above_max_timeout_for_slow_servers() {
+        AdaptiveTimeout timeout = record(new AdaptiveTimeout(), AdaptiveTimeout.SAMPLES, 800);
+
+        assertThat(timeout.millis()).isEqualTo(AdaptiveTimeout.MAX_MILLIS);
+    }
+
+    @Test
+    public void should_forget_latencies_of_previous_windows() {
+        AdaptiveTimeout timeout = record(new AdaptiveTimeout(), AdaptiveTimeout.SAMPLES, 800);
+
+        record(timeout, AdaptiveTimeout.SAMPLES, 1);
+
+        assertThat(timeout.millis()).isEqualTo(AdaptiveTimeout.MIN_MILLIS);
+    }
+
+    @Test
+    public void should_raise_timeout_when_a_few_requests_of_a_window_time_out() {
+        AdaptiveTimeout timeout = record(new AdaptiveTimeout(), AdaptiveTimeout.SAMPLES, 1);
+
+        record(timeout, AdaptiveTimeout.SAMPLES - 2, 1);
+        timeout.timedOut(timeout.millis()).timedOut(timeout.millis());
+
+        assertThat(timeout.millis()).isGreaterThan(AdaptiveTimeout.MIN_MILLIS);
+    }
+
+    private static AdaptiveTimeout record(AdaptiveTimeout timeout, int samples, long millis) {
+        for (int sample = 0; sample < samples; sample++) {
+            timeout.record(MILLISECONDS.toNanos(millis));
+        }
+        return timeout;
+    }
+
+}
@@ -0,0 +1,63 @@
+package elevator.server.latency;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+import static org.fest.assertions.Delta.delta;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void should_report_zero_when_empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.percentile(99)).isZero();
+    }
+
+    @Test
+    public void should_index_values_in_contiguous_buckets() {
+        for (long value = 0; value < 1 << 16; value++) {
+            int index = LatencyHistogram.index(value);
+            assertThat(LatencyHistogram.highestValue(index)).isGreaterThanOrEqualTo(value);
+            if (value > 0) {
+                assertThat(index - LatencyHistogram.index(value - 1)).isIn(0, 1);
+            }
+        }
+    }
+
+    @Test
+    public void should_report_values_below_thirty_two_exactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 20; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.percentile(50)).isEqualTo(10);
+        assertThat(histogram.percentile(100)).isEqualTo(20);
+    }
+
+    @Test
+    public void should_report_percentiles_within_one_sixteenth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000000; value++) {
+            histogram.record(value);
+        }
+
+        assertThat((double) histogram.percentile(50)).isEqualTo(500000, delta(500000 / 16));
+        assertThat((double) histogram.percentile(99)).isEqualTo(990000, delta(990000 / 16));
+        assertThat((double) histogram.percentile(99.9)).isEqualTo(999000, delta(999000 / 16));
+        assertThat(histogram.max()).isEqualTo(1000000);
+    }
+
+    @Test
+    public void should_count_latencies_above_highest_trackable_value_as_highest_trackable_value() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.max()).isEqualTo(LatencyHistogram.HIGHEST_TRACKABLE_VALUE);
+        assertThat(histogram.percentile(100)).isEqualTo(LatencyHistogram.HIGHEST_TRACKABLE_VALUE);
+    }
+
+}
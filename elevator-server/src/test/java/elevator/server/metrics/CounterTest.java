@@ -0,0 +1,47 @@
+package elevator.server.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class CounterTest {
+
+    @Test
+    public void should_sum_additions() {
+        Counter counter = new Counter();
+
+        counter.increment().add(41);
+
+        assertThat(counter.sum()).isEqualTo(42);
+    }
+
+    @Test
+    public void should_not_lose_increments_of_concurrent_threads() throws Exception {
+        final Counter counter = new Counter();
+        List<Callable<Void>> incrementers = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            incrementers.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int increment = 0; increment < 100000; increment++) {
+                        counter.increment();
+                    }
+                    return null;
+                }
+            });
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        executorService.invokeAll(incrementers);
+        executorService.shutdown();
+
+        assertThat(counter.sum()).isEqualTo(800000);
+    }
+
+}
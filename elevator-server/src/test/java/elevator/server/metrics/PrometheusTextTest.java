@@ -0,0 +1,37 @@
+package elevator.server.metrics;
+
+import org.junit.Test;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class PrometheusTextTest {
+
+    @Test
+    public void should_declare_family_before_its_samples() {
+        PrometheusText text = new PrometheusText()
+                .counter("elevator_broken_total", "Broken elevators")
+                .sample("elevator_broken_total", 3, "cause", "TRANSPORT")
+                .sample("elevator_broken_total", 0, "cause", "ILLEGAL_COMMAND");
+
+        assertThat(text.toString()).isEqualTo("" +
+                "# HELP elevator_broken_total Broken elevators\n" +
+                "# TYPE elevator_broken_total counter\n" +
+                "elevator_broken_total{cause=\"TRANSPORT\"} 3\n" +
+                "elevator_broken_total{cause=\"ILLEGAL_COMMAND\"} 0\n");
+    }
+
+    @Test
+    public void should_write_sample_without_labels_and_with_decimals() {
+        PrometheusText text = new PrometheusText().sample("elevator_clock_tick_duration_seconds", 0.25);
+
+        assertThat(text.toString()).isEqualTo("elevator_clock_tick_duration_seconds 0.25\n");
+    }
+
+    @Test
+    public void should_escape_label_values() {
+        PrometheusText text = new PrometheusText().sample("elevator_building_users", 1, "player", "a\"b\\c\nd");
+
+        assertThat(text.toString()).isEqualTo("elevator_building_users{player=\"a\\\"b\\\\c\\nd\"} 1\n");
+    }
+
+}
@@ -0,0 +1,101 @@
+package elevator.server.registry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.fest.assertions.Assertions.assertThat;
+
+public class RegistryTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void should_restore_nothing_the_first_time() throws Exception {
+        assertThat(new Registry(temporaryFolder.getRoot()).restore()).isEmpty();
+    }
+
+    @Test
+    public void should_restore_players_from_log() throws Exception {
+        Registry registry = new Registry(temporaryFolder.getRoot());
+        registry.restore();
+        registry.registered("a@provider.com", "a", "password", "http://localhost:8081");
+        registry.registered("b@provider.com", "b", "password", "http://localhost:8082");
+        registry.registered("c@provider.com", "c", "password", "http://localhost:8083");
+        registry.paused("a@provider.com");
+        registry.reset("b@provider.com", 20);
+        registry.unregistered("c@provider.com");
+
+        List<Registration> registrations = restore();
+
+        assertThat(emails(registrations)).containsExactly("a@provider.com", "b@provider.com");
+        Registration a = registrations.get(0);
+        assertThat(a.pseudo).isEqualTo("a");
+        assertThat(a.password).isEqualTo("password");
+        assertThat(a.serverURL).isEqualTo("http://localhost:8081");
+        assertThat(a.paused).isTrue();
+        assertThat(registrations.get(1).score).isEqualTo(-20);
+    }
+
+    @Test
+    public void should_restore_scores_of_snapshot_and_operations_logged_afterwards() throws Exception {
+        Registry registry = new Registry(temporaryFolder.getRoot());
+        registry.restore();
+        registry.registered("a@provider.com", "a", "password", "http://localhost:8081");
+        registry.snapshot(Collections.singletonMap("a@provider.com", 42));
+        registry.reset("a@provider.com", 10);
+        registry.registered("b@provider.com", "b", "password", "http://localhost:8082");
+
+        List<Registration> registrations = restore();
+
+        assertThat(emails(registrations)).containsExactly("a@provider.com", "b@provider.com");
+        assertThat(registrations.get(0).score).isEqualTo(32);
+    }
+
+    @Test
+    public void should_delete_logs_replaced_by_a_snapshot() throws Exception {
+        Registry registry = new Registry(temporaryFolder.getRoot());
+        registry.restore();
+        registry.registered("a@provider.com", "a", "password", "http://localhost:8081");
+
+        registry.snapshot(Collections.<String, Integer>emptyMap());
+
+        File[] files = temporaryFolder.getRoot().listFiles();
+        assertThat(files).hasSize(2);
+        assertThat(new File(temporaryFolder.getRoot(), Registry.SNAPSHOT)).exists();
+        assertThat(registry.log(2)).exists();
+    }
+
+    @Test
+    public void should_ignore_an_operation_that_has_not_been_entirely_logged() throws Exception {
+        Registry registry = new Registry(temporaryFolder.getRoot());
+        registry.restore();
+        registry.registered("a@provider.com", "a", "password", "http://localhost:8081");
+        try (FileOutputStream log = new FileOutputStream(registry.log(1), true)) {
+            log.write(new byte[]{1, 0, 42, 'b'});
+        }
+
+        assertThat(emails(restore())).containsExactly("a@provider.com");
+    }
+
+    private List<Registration> restore() throws Exception {
+        return new ArrayList<>(new Registry(temporaryFolder.getRoot()).restore());
+    }
+
+    private static List<String> emails(Collection<Registration> registrations) {
+        List<String> emails = new ArrayList<>();
+        for (Registration registration : registrations) {
+            emails.add(registration.email);
+        }
+        return emails;
+    }
+
+}